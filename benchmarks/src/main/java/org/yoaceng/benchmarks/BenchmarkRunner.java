@@ -0,0 +1,27 @@
+package org.yoaceng.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks sempre com o profiler de GC, que acrescenta a taxa de
+ * alocação (gc.alloc.rate e gc.alloc.rate.norm) ao lado da vazão e da latência.
+ * Aceita os mesmos argumentos da linha de comando do JMH, por exemplo
+ * "QueryBenchmark -p shape=PATH -p size=1000".
+ *
+ * @author Cayo Cutrim
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
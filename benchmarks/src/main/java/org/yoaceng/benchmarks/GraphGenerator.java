@@ -0,0 +1,214 @@
+package org.yoaceng.benchmarks;
+
+import org.yoaceng.Graph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Geradores de grafos sintéticos não dirigidos usados nos benchmarks.
+ * Os vértices são nomeados "v0", "v1", ... e a semente é fixa, então
+ * a mesma forma e tamanho sempre produzem o mesmo grafo.
+ *
+ * @author Cayo Cutrim
+ */
+public final class GraphGenerator {
+    private static final long SEED = 42L;
+    private static final int AVERAGE_DEGREE = 4;       // Erdős–Rényi e lei de potência
+    private static final int COMPONENT_SIZE = 8;       // Componentes pequenos
+
+    public enum Shape {
+        PATH,               // Caminho: todo vértice interno é ponto de articulação, DFS com profundidade V
+        GRID,               // Grade quadrada: nenhum ponto de articulação
+        ERDOS_RENYI,        // Arestas sorteadas uniformemente (modelo G(n, m))
+        POWER_LAW,          // Ligação preferencial (Barabási–Albert), poucos vértices de grau alto
+        SMALL_COMPONENTS    // Muitos componentes pequenos: um triângulo com um caminho pendurado em cada
+    }
+
+    /**
+     * Recebe as arestas geradas (cada aresta não dirigida aparece uma única vez).
+     */
+    public interface EdgeSink {
+        void edge(int origin, int destiny) throws IOException;
+    }
+
+    private GraphGenerator() {
+    }
+
+    /**
+     * Gera as arestas da forma pedida.
+     * @param shape A forma do grafo.
+     * @param nodesQuantity Quantidade aproximada de vértices (a grade usa o maior quadrado que cabe).
+     * @param sink Quem recebe as arestas.
+     * @return A quantidade de vértices realmente gerada.
+     */
+    public static int generate(Shape shape, int nodesQuantity, EdgeSink sink) throws IOException {
+        Random random = new Random(SEED);
+        switch (shape) {
+            case PATH:
+                for (int i = 0; i + 1 < nodesQuantity; i++) {
+                    sink.edge(i, i + 1);
+                }
+                return nodesQuantity;
+            case GRID: {
+                int side = (int) Math.sqrt(nodesQuantity);
+                for (int row = 0; row < side; row++) {
+                    for (int column = 0; column < side; column++) {
+                        int node = row * side + column;
+                        if (column + 1 < side) {
+                            sink.edge(node, node + 1);
+                        }
+                        if (row + 1 < side) {
+                            sink.edge(node, node + side);
+                        }
+                    }
+                }
+                return side * side;
+            }
+            case ERDOS_RENYI: {
+                long edges = (long) nodesQuantity * AVERAGE_DEGREE / 2;
+                for (long i = 0; i < edges; i++) {
+                    int origin = random.nextInt(nodesQuantity);
+                    int destiny = random.nextInt(nodesQuantity);
+                    if (origin != destiny) {
+                        sink.edge(origin, destiny);
+                    }
+                }
+                return nodesQuantity;
+            }
+            case POWER_LAW: {
+                // Cada vértice novo liga-se a AVERAGE_DEGREE / 2 vértices escolhidos com
+                // probabilidade proporcional ao grau (sorteando uma ponta de aresta já existente)
+                int links = AVERAGE_DEGREE / 2;
+                int[] endpoints = new int[2 * links * nodesQuantity];
+                int endpointsCount = 0;
+                sink.edge(0, 1);
+                endpoints[endpointsCount++] = 0;
+                endpoints[endpointsCount++] = 1;
+                for (int node = 2; node < nodesQuantity; node++) {
+                    int existing = endpointsCount;
+                    for (int l = 0; l < links; l++) {
+                        int destiny = endpoints[random.nextInt(existing)];
+                        sink.edge(node, destiny);
+                        endpoints[endpointsCount++] = node;
+                        endpoints[endpointsCount++] = destiny;
+                    }
+                }
+                return nodesQuantity;
+            }
+            case SMALL_COMPONENTS: {
+                // Cada componente é um triângulo seguido de um caminho, então tem pontes e articulações
+                int components = nodesQuantity / COMPONENT_SIZE;
+                for (int c = 0; c < components; c++) {
+                    int first = c * COMPONENT_SIZE;
+                    sink.edge(first, first + 1);
+                    sink.edge(first + 1, first + 2);
+                    sink.edge(first + 2, first);
+                    for (int i = 2; i + 1 < COMPONENT_SIZE; i++) {
+                        sink.edge(first + i, first + i + 1);
+                    }
+                }
+                return components * COMPONENT_SIZE;
+            }
+            default:
+                throw new IllegalArgumentException("Forma desconhecida: " + shape);
+        }
+    }
+
+    public static String nodeName(int node) {
+        return "v" + node;
+    }
+
+    /**
+     * Monta o grafo em memória diretamente pela API do Graph.
+     */
+    public static Graph buildGraph(Shape shape, int nodesQuantity) throws IOException {
+        List<int[]> edges = new ArrayList<>();
+        int generated = generate(shape, nodesQuantity, (origin, destiny) -> edges.add(new int[]{origin, destiny}));
+
+        Graph graph = new Graph(false);
+        for (int i = 0; i < generated; i++) {
+            graph.addNode(nodeName(i));
+        }
+        for (int[] edge : edges) {
+            graph.addEdge(edge[0], edge[1]);
+        }
+        return graph;
+    }
+
+    /**
+     * Grava o grafo no formato de lista de arestas lido por GraphReader.readGraphToMatrixFromFile.
+     */
+    public static void writeEdgeListFile(Shape shape, int nodesQuantity, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("ND");
+            generate(shape, nodesQuantity, (origin, destiny) -> {
+                writer.newLine();
+                writer.write(nodeName(origin));
+                writer.write(", ");
+                writer.write(nodeName(destiny));
+            });
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Grava a lista de arestas em ordem aleatória. Como os endereços são dados na ordem
+     * em que os nomes aparecem no arquivo, os vizinhos ficam espalhados pela estrutura,
+     * como acontece com grafos reais.
+     */
+    public static void writeShuffledEdgeListFile(Shape shape, int nodesQuantity, Path file) throws IOException {
+        List<int[]> edges = new ArrayList<>();
+        generate(shape, nodesQuantity, (origin, destiny) -> edges.add(new int[]{origin, destiny}));
+        Collections.shuffle(edges, new Random(SEED));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("ND");
+            for (int[] edge : edges) {
+                writer.newLine();
+                writer.write(nodeName(edge[0]));
+                writer.write(", ");
+                writer.write(nodeName(edge[1]));
+            }
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Grava o grafo no formato de lista de adjacência lido por GraphReader.readGraphFromAdjacencyListFile.
+     */
+    public static void writeAdjacencyListFile(Shape shape, int nodesQuantity, Path file) throws IOException {
+        List<List<Integer>> neighbors = new ArrayList<>();
+        int generated = generate(shape, nodesQuantity, (origin, destiny) -> {
+            while (neighbors.size() <= Math.max(origin, destiny)) {
+                neighbors.add(new ArrayList<>());
+            }
+            neighbors.get(origin).add(destiny);
+            neighbors.get(destiny).add(origin);
+        });
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("ND");
+            for (int i = 0; i < generated; i++) {
+                writer.newLine();
+                writer.write(nodeName(i));
+                writer.write(": ");
+                List<Integer> row = i < neighbors.size() ? neighbors.get(i) : new ArrayList<>();
+                for (int j = 0; j < row.size(); j++) {
+                    if (j > 0) {
+                        writer.write(", ");
+                    }
+                    writer.write(nodeName(row.get(j)));
+                }
+            }
+            writer.newLine();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.yoaceng.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yoaceng.Graph;
+import org.yoaceng.GraphReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Consultas sobre um grafo já carregado. O grafo é lido pelo GraphReader,
+ * então usa a mesma estrutura de armazenamento escolhida pela aplicação.
+ * As consultas por vértice percorrem os vértices em sequência a cada chamada.
+ * Os métodos que imprimem no console são comparados com as consultas
+ * estruturadas equivalentes (getArticulationPoints, outDegree, forEachNeighbor, isAdjacent).
+ *
+ * @author Cayo Cutrim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+    @Param({"PATH", "GRID", "ERDOS_RENYI", "POWER_LAW", "SMALL_COMPONENTS"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Graph graph;
+    private int nodesQuantity;
+    private int next;
+    private int neighborsSum;
+    private final IntConsumer sumNeighbors = neighbor -> neighborsSum += neighbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = Files.createTempFile("edges-" + shape + "-" + size, ".txt");
+        try {
+            GraphGenerator.writeEdgeListFile(shape, size, file);
+            graph = GraphReader.readGraphToMatrixFromFile(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        nodesQuantity = graph.getNodes().size();
+        QuietConsole.silence();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        QuietConsole.restore();
+    }
+
+    private int nextNode() {
+        int node = next;
+        next = node + 1 == nodesQuantity ? 0 : node + 1;
+        return node;
+    }
+
+    @Benchmark
+    public void findArticulationPoints() {
+        graph.findArticulationPoints();
+    }
+
+    @Benchmark
+    public void calculateNodeDegree() {
+        graph.calculateNodeDegree(nextNode());
+    }
+
+    @Benchmark
+    public void nodeNeighborsSearch() {
+        graph.nodeNeighborsSearch(nextNode());
+    }
+
+    @Benchmark
+    public int[] getArticulationPoints() {
+        return graph.getArticulationPoints();
+    }
+
+    @Benchmark
+    public int outDegree() {
+        return graph.outDegree(nextNode());
+    }
+
+    @Benchmark
+    public int forEachNeighbor() {
+        neighborsSum = 0;
+        graph.forEachNeighbor(nextNode(), sumNeighbors);
+        return neighborsSum;
+    }
+
+    @Benchmark
+    public boolean isAdjacent() {
+        return graph.isAdjacent(nextNode(), nextNode());
+    }
+
+    @Benchmark
+    public Map<String, List<String>> toAdjacencyList() {
+        return graph.toAdjacencyList();
+    }
+}
@@ -0,0 +1,41 @@
+package org.yoaceng.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Descarta o que as operações do grafo imprimem no console durante as medições,
+ * para que o tempo de escrita no terminal não entre no resultado.
+ *
+ * @author Cayo Cutrim
+ */
+final class QuietConsole {
+    private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    private static PrintStream original;
+
+    private QuietConsole() {
+    }
+
+    static synchronized void silence() {
+        if (original == null) {
+            original = System.out;
+            System.setOut(DISCARD);
+        }
+    }
+
+    static synchronized void restore() {
+        if (original != null) {
+            System.setOut(original);
+            original = null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.yoaceng.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yoaceng.Graph;
+import org.yoaceng.GraphReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura dos arquivos de entrada (lista de arestas e lista de adjacência)
+ * gerados uma vez por combinação de forma e tamanho.
+ *
+ * @author Cayo Cutrim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReaderBenchmark {
+    @Param({"PATH", "GRID", "ERDOS_RENYI", "POWER_LAW", "SMALL_COMPONENTS"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path edgeListFile;
+    private Path adjacencyListFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        edgeListFile = Files.createTempFile("edges-" + shape + "-" + size, ".txt");
+        adjacencyListFile = Files.createTempFile("adjacency-" + shape + "-" + size, ".txt");
+        GraphGenerator.writeEdgeListFile(shape, size, edgeListFile);
+        GraphGenerator.writeAdjacencyListFile(shape, size, adjacencyListFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(edgeListFile);
+        Files.deleteIfExists(adjacencyListFile);
+    }
+
+    @Benchmark
+    public Graph readGraphToMatrixFromFile() {
+        return GraphReader.readGraphToMatrixFromFile(edgeListFile.toString());
+    }
+
+    @Benchmark
+    public Graph readGraphFromAdjacencyListFile() {
+        return GraphReader.readGraphFromAdjacencyListFile(adjacencyListFile.toString());
+    }
+}
@@ -0,0 +1,80 @@
+package org.yoaceng.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yoaceng.BiconnectivityResult;
+import org.yoaceng.Graph;
+import org.yoaceng.GraphReader;
+import org.yoaceng.VertexOrdering;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Efeito da renumeração dos vértices (Graph.reorder) nas travessias. O arquivo
+ * é gravado com as arestas embaralhadas, então a numeração da leitura (NONE)
+ * espalha os vizinhos; as outras opções renumeram o grafo depois da leitura.
+ *
+ * @author Cayo Cutrim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReorderingBenchmark {
+    @Param({"GRID", "ERDOS_RENYI", "POWER_LAW"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"NONE", "REVERSE_CUTHILL_MCKEE", "DEGREE", "BFS"})
+    public String ordering;
+
+    private Graph graph;
+    private int nodesQuantity;
+    private long neighborsSum;
+    private final IntConsumer sumNeighbors = neighbor -> neighborsSum += neighbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = Files.createTempFile("shuffled-" + shape + "-" + size, ".txt");
+        try {
+            GraphGenerator.writeShuffledEdgeListFile(shape, size, file);
+            graph = "NONE".equals(ordering) ? GraphReader.readGraphToMatrixFromFile(file.toString())
+                    : GraphReader.readGraphToMatrixFromFile(file.toString(), VertexOrdering.Strategy.valueOf(ordering));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        nodesQuantity = graph.getNodes().size();
+    }
+
+    @Benchmark
+    public BiconnectivityResult analyzeBiconnectivity() {
+        return graph.analyzeBiconnectivity();
+    }
+
+    @Benchmark
+    public long forEachNeighborOfEveryNode() {
+        neighborsSum = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            graph.forEachNeighbor(i, sumNeighbors);
+        }
+        return neighborsSum;
+    }
+}
@@ -0,0 +1,155 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Armazenamento do grafo como lista de adjacência de inteiros, onde tanto a
+ * quantidade de vértices quanto a lista de cada vértice crescem dobrando de
+ * tamanho. Não precisa saber o tamanho do grafo de antemão, por isso é a estrutura
+ * usada quando o grafo é montado aos poucos (ex.: a partir de um stream).
+ *
+ * hasEdge e removeEdge custam O(grau), pois os vizinhos não ficam ordenados.
+ *
+ * @author Cayo Cutrim
+ */
+public class AdjacencyListStorage implements GraphStorage {
+    private static final int[] EMPTY = new int[0];
+
+    private int[][] neighbors;          // Vizinhos de cada vértice (apenas as primeiras sizes[i] posições)
+    private int[] sizes;                // Quantidade de vizinhos de cada vértice
+    private int[] inDegrees;            // Grau de recepção de cada vértice
+    private int capacity;               // Quantidade de vértices comportada
+    private int edgeCount;
+
+    public AdjacencyListStorage() {
+        this(16);
+    }
+
+    public AdjacencyListStorage(int initialCapacity) {
+        this.neighbors = new int[0][];
+        this.sizes = new int[0];
+        this.inDegrees = new int[0];
+        this.capacity = 0;
+        this.edgeCount = 0;
+        ensureCapacity(initialCapacity);
+    }
+
+    /**
+     * Copia as arestas de outra estrutura, com a lista de cada vértice já no tamanho do seu grau.
+     * O Graph usa a cópia para trocar o CSR, montado de uma vez, por uma estrutura
+     * em que cada alteração custa O(grau) em vez de deslocar os vetores inteiros.
+     */
+    public static AdjacencyListStorage copyOf(GraphStorage source) {
+        int capacity = source.capacity();
+        AdjacencyListStorage copy = new AdjacencyListStorage(capacity);
+        for (int i = 0; i < capacity; i++) {
+            int degree = source.outDegree(i);
+            if (degree == 0) {
+                continue;
+            }
+            int[] list = new int[degree];
+            int size = 0;
+            for (int e = source.firstEdge(i); e != -1; e = source.nextEdge(i, e)) {
+                int target = source.edgeTarget(i, e);
+                list[size++] = target;
+                copy.inDegrees[target]++;
+            }
+            copy.neighbors[i] = list;
+            copy.sizes[i] = size;
+            copy.edgeCount += size;
+        }
+        return copy;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void ensureCapacity(int nodesQuantity) {
+        if (nodesQuantity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(nodesQuantity, capacity * 2);
+        neighbors = Arrays.copyOf(neighbors, newCapacity);
+        Arrays.fill(neighbors, capacity, newCapacity, EMPTY);
+        sizes = Arrays.copyOf(sizes, newCapacity);
+        inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+        capacity = newCapacity;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    private int indexOf(int origin, int destiny) {
+        int[] list = neighbors[origin];
+        for (int i = 0; i < sizes[origin]; i++) {
+            if (list[i] == destiny) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean hasEdge(int origin, int destiny) {
+        return indexOf(origin, destiny) != -1;
+    }
+
+    @Override
+    public boolean addEdge(int origin, int destiny) {
+        if (indexOf(origin, destiny) != -1) {
+            return false;
+        }
+        int[] list = neighbors[origin];
+        if (sizes[origin] == list.length) {
+            list = neighbors[origin] = Arrays.copyOf(list, Math.max(4, list.length * 2));
+        }
+        list[sizes[origin]++] = destiny;
+        inDegrees[destiny]++;
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(int origin, int destiny) {
+        int position = indexOf(origin, destiny);
+        if (position == -1) {
+            return false;
+        }
+        // Troca pelo último vizinho da lista, a ordem dos vizinhos não importa
+        int[] list = neighbors[origin];
+        list[position] = list[--sizes[origin]];
+        inDegrees[destiny]--;
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public int outDegree(int node) {
+        return sizes[node];
+    }
+
+    @Override
+    public int inDegree(int node) {
+        return inDegrees[node];
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return sizes[node] > 0 ? 0 : -1;
+    }
+
+    @Override
+    public int nextEdge(int node, int edge) {
+        return edge + 1 < sizes[node] ? edge + 1 : -1;
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return neighbors[node][edge];
+    }
+}
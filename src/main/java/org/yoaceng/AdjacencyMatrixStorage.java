@@ -0,0 +1,117 @@
+package org.yoaceng;
+
+/**
+ * Armazenamento do grafo como matriz de adjacência (int[][]).
+ * Ocupa O(V²) de memória e percorre a linha inteira para listar os vizinhos,
+ * mas responde hasEdge em O(1). Indicado apenas para grafos densos.
+ *
+ * @author Cayo Cutrim
+ */
+public class AdjacencyMatrixStorage implements GraphStorage {
+    private int[][] adjacencyMatrix;    // Estrutura de dados responsável por armazenar o grafo
+    private int edgeCount;              // Quantidade de células com 1
+
+    public AdjacencyMatrixStorage(int nodesQuantity) {
+        this.adjacencyMatrix = new int[nodesQuantity][nodesQuantity];
+        this.edgeCount = 0;
+    }
+
+    @Override
+    public int capacity() {
+        return adjacencyMatrix.length;
+    }
+
+    @Override
+    public void ensureCapacity(int nodesQuantity) {
+        int capacity = adjacencyMatrix.length;
+        if (nodesQuantity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(nodesQuantity, capacity * 2);
+        int[][] newMatrix = new int[newCapacity][newCapacity];
+        for (int i = 0; i < capacity; i++) {
+            System.arraycopy(adjacencyMatrix[i], 0, newMatrix[i], 0, capacity);
+        }
+        adjacencyMatrix = newMatrix;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public boolean hasEdge(int origin, int destiny) {
+        return adjacencyMatrix[origin][destiny] != 0;
+    }
+
+    @Override
+    public boolean addEdge(int origin, int destiny) {
+        if (adjacencyMatrix[origin][destiny] != 0) {
+            return false;
+        }
+        adjacencyMatrix[origin][destiny] = 1;
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(int origin, int destiny) {
+        if (adjacencyMatrix[origin][destiny] == 0) {
+            return false;
+        }
+        adjacencyMatrix[origin][destiny] = 0;
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public int outDegree(int node) {
+        // Quantos 1 tem na linha do nó na matriz
+        int degree = 0;
+        for (int i = 0; i < adjacencyMatrix.length; i++) {
+            if (adjacencyMatrix[node][i] != 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public int inDegree(int node) {
+        // Quantos 1 tem na coluna do nó na matriz
+        int degree = 0;
+        for (int i = 0; i < adjacencyMatrix.length; i++) {
+            if (adjacencyMatrix[i][node] != 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return nextEdge(node, -1);
+    }
+
+    @Override
+    public int nextEdge(int node, int edge) {
+        // O cursor é a própria coluna da matriz
+        int[] row = adjacencyMatrix[node];
+        for (int i = edge + 1; i < row.length; i++) {
+            if (row[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return edge;
+    }
+
+    public int[][] getAdjacencyMatrix() {
+        return adjacencyMatrix;
+    }
+}
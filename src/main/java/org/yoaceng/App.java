@@ -1,18 +1,30 @@
 package org.yoaceng;
 
+import java.io.IOException;
 import java.util.InputMismatchException;
 import java.util.Scanner;
-
-import static org.yoaceng.GraphReader.readGraphFromAdjacencyListFile;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class App {
+    private static final int QUERY_CACHE_ENTRIES = 1024;    // Resultados de consultas guardados pelo grafo
+
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Com argumentos o App roda sem menu, para ser usado em scripts (ver CommandLineRunner)
+            System.exit(CommandLineRunner.run(args));
+        }
+
         Scanner scanner = new Scanner(System.in);
         final String FILEPATH = "graph.txt";
         final String NEWFILEPATH = "NewStructureFile.txt";
-        Graph graph = GraphReader.readGraphToMatrixFromFile(FILEPATH);
+        Graph graph = load(FILEPATH);
+        // Gravações de arquivo em segundo plano, uma de cada vez e na ordem pedida
+        ExecutorService fileWriter = Executors.newSingleThreadExecutor();
 
         if (graph != null) {
+            // As mesmas consultas costumam ser repetidas sobre o grafo, que muda pouco
+            graph.enableQueryCache(QUERY_CACHE_ENTRIES);
             boolean running = true;
             while (running) {
                 System.out.println();
@@ -27,6 +39,7 @@ public class App {
                 System.out.println("6. Visitar todas as arestas do grafo");
                 System.out.println("7. Gerar um arquivo de texto novo com a estrutura de visualização gráfica do grafo e visualizar ele graficamente");
                 System.out.println("8. Sair");
+                System.out.println("9. Descobrir as pontes (arestas de corte) do grafo");
 
                 int choice = 0;
                 boolean validInput = false;
@@ -70,16 +83,27 @@ public class App {
                         graph.printAllEdges();
                         break;
                     case 7:
-                        // Cria um arquivo novo com o formato para gerar o gráfico do grafo
-                        graph.saveAdjacencyListToFile(NEWFILEPATH);
-                        // Lê esse novo arquivo e armazena o novo grafo
-                        Graph graphFromNewFile = readGraphFromAdjacencyListFile(NEWFILEPATH);
-                        // Agora com a lista de adjacencia o gráfico do grafo é gerado
-                        GraphVisualizer.displayGraph(graphFromNewFile);
+                        // Cria um arquivo novo com a lista de adjacência em segundo plano, a partir de uma cópia do grafo
+                        graph.saveAdjacencyListToFileAsync(NEWFILEPATH, fileWriter).whenComplete((done, error) -> {
+                            if (error != null) {
+                                Throwable cause = error;
+                                while (cause.getCause() != null) {
+                                    cause = cause.getCause();
+                                }
+                                System.err.println("Ocorreu um erro ao salvar a lista de adjacência: " + cause.getMessage());
+                            } else {
+                                System.out.println("Arquivo " + NEWFILEPATH + " salvo.");
+                            }
+                        });
+                        // O gráfico é gerado direto do grafo carregado, sem ler o arquivo de novo
+                        GraphVisualizer.displayGraph(graph);
                         break;
                     case 8:
                         running = false;
                         break;
+                    case 9:
+                        graph.findBridges();
+                        break;
                     default:
                         System.out.println("Opção inválida, tente novamente.");
                 }
@@ -99,6 +123,32 @@ public class App {
         } else {
             System.out.println("Erro ao carregar o grafo.");
         }
+        if (GraphMetrics.ENABLED) {
+            System.out.println(GraphMetrics.summary());
+            if (graph != null) {
+                System.out.println(graph.getQueryCache());
+            }
+        }
+        // shutdown não interrompe as gravações pendentes: a thread do executor termina a fila
+        // e só então a JVM encerra (a janela do gráfico também não chama System.exit)
+        fileWriter.shutdown();
         scanner.close();
     }
+
+    /**
+     * Lê o arquivo de arestas e informa a vazão da leitura.
+     * @return O grafo lido ou null em caso de erro.
+     */
+    private static Graph load(String filePath) {
+        MappedEdgeListLoader loader = new MappedEdgeListLoader();
+        try {
+            Graph graph = loader.load(filePath);
+            System.out.printf("Arquivo lido: %d bytes em %.1f ms (%.2f MB/s)%n", loader.getBytesRead(),
+                    loader.getElapsedNanos() / 1e6, loader.getBytesPerSecond() / (1024 * 1024));
+            return graph;
+        } catch (IOException e) {
+            System.err.println("Erro ao ler o arquivo: " + e.getMessage());
+            return null;
+        }
+    }
 }
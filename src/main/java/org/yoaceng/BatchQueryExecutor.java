@@ -0,0 +1,208 @@
+package org.yoaceng;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Responde lotes de consultas de adjacência, grau e vizinhos em paralelo
+ * sobre uma cópia imutável do grafo (GraphSnapshot).
+ *
+ * As consultas são lidas em blocos de CHUNK_SIZE linhas e cada bloco é
+ * respondido por uma tarefa do pool. No máximo 2 * paralelismo blocos ficam
+ * em andamento ao mesmo tempo e as respostas são escritas na ordem das
+ * consultas assim que o bloco mais antigo termina, então a memória usada não
+ * depende do tamanho da entrada.
+ *
+ * O pool é recebido de fora: em Java 8 um Executors.newFixedThreadPool, e em
+ * versões mais novas pode ser um executor de virtual threads sem mudar nada aqui.
+ *
+ * Formato de cada linha da entrada (linhas vazias e iniciadas por # são ignoradas):
+ * <pre>
+ * adjacentes A B   ->  adjacentes A B	true | false
+ * grau A           ->  grau A	3        (digrafos: grau de emissão e de recepção, "2 1")
+ * vizinhos A       ->  vizinhos A	B, C, D
+ * </pre>
+ * Consultas inválidas respondem "erro: motivo" no lugar do resultado.
+ *
+ * @author Cayo Cutrim
+ */
+public class BatchQueryExecutor {
+    private static final int CHUNK_SIZE = 4096;     // Consultas por tarefa
+    private static final int ANSWERED = 0;          // Resultados de answer
+    private static final int ERROR = 1;
+    private static final int SKIPPED = 2;
+
+    private final GraphSnapshot snapshot;
+    private final ExecutorService pool;
+    private final int maxInFlight;                  // Blocos em andamento ao mesmo tempo
+
+    /**
+     * @param snapshot A cópia do grafo a ser consultada.
+     * @param pool Pool onde as consultas serão respondidas (não é encerrado por esta classe).
+     * @param parallelism Quantidade de threads do pool, usada para limitar os blocos em andamento.
+     */
+    public BatchQueryExecutor(GraphSnapshot snapshot, ExecutorService pool, int parallelism) {
+        this.snapshot = snapshot;
+        this.pool = pool;
+        this.maxInFlight = Math.max(2, parallelism * 2);
+    }
+
+    /**
+     * Lê todas as consultas da entrada e escreve as respostas na saída, na mesma ordem.
+     * @param queries Entrada com uma consulta por linha.
+     * @param results Saída com uma resposta por consulta.
+     * @return Quantidade de consultas, erros e a vazão obtida.
+     */
+    public BatchQueryStats execute(BufferedReader queries, Writer results) throws IOException {
+        long start = System.nanoTime();
+        long answered = 0;
+        long errors = 0;
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+
+        String[] lines = new String[CHUNK_SIZE];
+        int size = 0;
+        String line;
+        while ((line = queries.readLine()) != null) {
+            lines[size++] = line;
+            if (size == CHUNK_SIZE) {
+                if (inFlight.size() == maxInFlight) {
+                    Chunk chunk = await(inFlight.poll());
+                    results.write(chunk.output);
+                    answered += chunk.queries;
+                    errors += chunk.errors;
+                }
+                inFlight.add(submit(lines, size));
+                lines = new String[CHUNK_SIZE];
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            inFlight.add(submit(lines, size));
+        }
+
+        while (!inFlight.isEmpty()) {
+            Chunk chunk = await(inFlight.poll());
+            results.write(chunk.output);
+            answered += chunk.queries;
+            errors += chunk.errors;
+        }
+        results.flush();
+        return new BatchQueryStats(answered, errors, System.nanoTime() - start);
+    }
+
+    private Future<Chunk> submit(String[] lines, int size) {
+        return pool.submit(() -> {
+            Chunk chunk = new Chunk();
+            StringBuilder output = new StringBuilder(size * 16);
+            for (int i = 0; i < size; i++) {
+                int result = answer(lines[i], output);
+                if (result != SKIPPED) {
+                    chunk.queries++;
+                    if (result == ERROR) {
+                        chunk.errors++;
+                    }
+                }
+            }
+            chunk.output = output.toString();
+            return chunk;
+        });
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Execução das consultas interrompida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Responde uma consulta, acrescentando a linha de resposta na saída.
+     * @return ANSWERED, ERROR ou SKIPPED (linha vazia ou comentário).
+     */
+    int answer(String line, StringBuilder output) {
+        String query = line.trim();
+        if (query.isEmpty() || query.startsWith("#")) {
+            return SKIPPED;
+        }
+        String[] parts = query.split("\\s+");
+        output.append(query).append('\t');
+
+        switch (parts[0]) {
+            case "adjacentes": {
+                if (parts.length != 3) {
+                    return error(output, "uso: adjacentes <vértice> <vértice>");
+                }
+                int origin = snapshot.getNodeIndex(parts[1]);
+                int destiny = snapshot.getNodeIndex(parts[2]);
+                if (origin == -1 || destiny == -1) {
+                    return error(output, "vértice inexistente: " + (origin == -1 ? parts[1] : parts[2]));
+                }
+                output.append(snapshot.isAdjacent(origin, destiny)).append('\n');
+                return ANSWERED;
+            }
+            case "grau": {
+                if (parts.length != 2) {
+                    return error(output, "uso: grau <vértice>");
+                }
+                int node = snapshot.getNodeIndex(parts[1]);
+                if (node == -1) {
+                    return error(output, "vértice inexistente: " + parts[1]);
+                }
+                output.append(snapshot.outDegree(node));
+                if (snapshot.isDriven()) {
+                    output.append(' ').append(snapshot.inDegree(node));
+                }
+                output.append('\n');
+                return ANSWERED;
+            }
+            case "vizinhos": {
+                if (parts.length != 2) {
+                    return error(output, "uso: vizinhos <vértice>");
+                }
+                int node = snapshot.getNodeIndex(parts[1]);
+                if (node == -1) {
+                    return error(output, "vértice inexistente: " + parts[1]);
+                }
+                int start = output.length();
+                snapshot.forEachNeighbor(node, neighbor -> {
+                    if (output.length() > start) {
+                        output.append(", ");
+                    }
+                    output.append(snapshot.getNodeName(neighbor));
+                });
+                output.append('\n');
+                return ANSWERED;
+            }
+            default:
+                return error(output, "consulta desconhecida: " + parts[0]);
+        }
+    }
+
+    private static int error(StringBuilder output, String message) {
+        output.append("erro: ").append(message).append('\n');
+        return ERROR;
+    }
+
+    /**
+     * Respostas de um bloco de consultas, já formatadas.
+     */
+    private static class Chunk {
+        String output;
+        int queries;
+        int errors;
+    }
+}
@@ -0,0 +1,46 @@
+package org.yoaceng;
+
+/**
+ * Números de uma execução do BatchQueryExecutor.
+ *
+ * @author Cayo Cutrim
+ */
+public final class BatchQueryStats {
+    private final long queries;
+    private final long errors;
+    private final long elapsedNanos;
+
+    BatchQueryStats(long queries, long errors, long elapsedNanos) {
+        this.queries = queries;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Quantidade de consultas respondidas (incluindo as com erro).
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return Quantidade de consultas inválidas ou com vértices inexistentes.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getQueriesPerSecond() {
+        return elapsedNanos == 0 ? 0 : queries * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d consultas (%d com erro) em %.1f ms (%.0f consultas/s)",
+                queries, errors, elapsedNanos / 1e6, getQueriesPerSecond());
+    }
+}
@@ -0,0 +1,421 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+/**
+ * Busca em profundidade iterativa (algoritmo de Tarjan) que, em uma única passada,
+ * encontra os pontos de articulação, as pontes, as componentes biconexas e as
+ * componentes 2-aresta-conexas do grafo.
+ *
+ * A pilha de recursão foi substituída por uma pilha explícita, então grafos com
+ * caminhos muito longos não estouram a pilha da thread. Os vetores auxiliares
+ * (tempo de descoberta, low, pai, ...) são mantidos pela instância e reaproveitados
+ * entre as chamadas, sendo realocados apenas quando o grafo cresce.
+ *
+ * No modo paralelo o grafo é primeiro dividido em componentes conexas e cada
+ * componente é analisada por uma tarefa do ForkJoinPool. Como as componentes não
+ * compartilham vértices, as tarefas escrevem em posições disjuntas dos mesmos vetores.
+ *
+ * A instância não é thread-safe: cada thread deve usar o seu próprio analisador.
+ *
+ * @author Cayo Cutrim
+ */
+public class BiconnectivityAnalyzer {
+    private static final int PARALLEL_GRAIN = 1 << 12;     // Vértices mínimos por tarefa paralela
+
+    private int[] discoveryTime;        // Armazena o tempo de descoberta (0 = não visitado, -1 = endereço livre)
+    private int[] low;                  // Armazena o menor tempo de descoberta alcançável
+    private int[] parent;               // Armazena os pais dos vértices na árvore de DFS
+    private int[] cursor;               // Próxima aresta a ser explorada de cada vértice
+    private int[] stack;                // Pilha explícita de vértices da DFS
+    private int[] componentMark;        // Última componente em que o vértice foi incluído
+    private int[] vertexStack;          // Vértices descobertos cuja componente 2-aresta-conexa ainda não fechou
+
+    public BiconnectivityAnalyzer() {
+        ensureCapacity(0);
+    }
+
+    /**
+     * Garante que os vetores auxiliares comportam a quantidade de vértices
+     * e limpa as posições que serão usadas. Os endereços livres são marcados
+     * como já visitados, então nenhuma busca começa neles.
+     */
+    private void prepare(int nodesQuantity, IntPredicate exists) {
+        ensureCapacity(nodesQuantity);
+        Arrays.fill(discoveryTime, 0, nodesQuantity, 0);
+        Arrays.fill(componentMark, 0, nodesQuantity, 0);
+        if (exists != null) {
+            for (int i = 0; i < nodesQuantity; i++) {
+                if (!exists.test(i)) {
+                    discoveryTime[i] = -1;
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int nodesQuantity) {
+        if (discoveryTime != null && discoveryTime.length >= nodesQuantity) {
+            return;
+        }
+        discoveryTime = new int[nodesQuantity];
+        low = new int[nodesQuantity];
+        parent = new int[nodesQuantity];
+        cursor = new int[nodesQuantity];
+        stack = new int[nodesQuantity];
+        componentMark = new int[nodesQuantity];
+        vertexStack = new int[nodesQuantity];
+    }
+
+    /**
+     * Executa a análise sobre os vértices 0 .. nodesQuantity - 1 da estrutura.
+     *
+     * Um vértice 'u' é um ponto de articulação se satisfaz uma das seguintes condições:
+     * 1. 'u' é a raiz da árvore DFS e tem dois ou mais filhos.
+     * 2. 'u' não é a raiz da árvore DFS, e tem um filho 'v' tal que nenhum vértice na subárvore enraizada em 'v'
+     *    tem uma aresta de volta para um ancestral de 'u' (low[v] >= discoveryTime[u]).
+     * A aresta u - v da árvore é uma ponte quando low[v] > discoveryTime[u], e nesse caso
+     * a subárvore de v ainda não atribuída forma uma componente 2-aresta-conexa.
+     *
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Quantidade de vértices do grafo.
+     * @return Pontos de articulação, pontes, componentes biconexas e 2-aresta-conexas.
+     */
+    public BiconnectivityResult analyze(GraphStorage storage, int nodesQuantity) {
+        return analyze(storage, nodesQuantity, null);
+    }
+
+    /**
+     * Mesma análise de analyze, ignorando os endereços livres.
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Limite dos endereços dos vértices.
+     * @param exists Indica os endereços ocupados por vértices (null = todos). Os endereços
+     *               livres deixados por removeNode não têm arestas e não aparecem no resultado.
+     * @return Pontos de articulação, pontes, componentes biconexas e 2-aresta-conexas.
+     */
+    public BiconnectivityResult analyze(GraphStorage storage, int nodesQuantity, IntPredicate exists) {
+        long start = GraphMetrics.start();
+        prepare(nodesQuantity, exists);
+
+        // Executar DFS em cada vértice não visitado
+        Search search = new Search(storage, 0);
+        for (int root = 0; root < nodesQuantity; root++) {
+            if (discoveryTime[root] == 0) {
+                search.run(root);
+            }
+        }
+
+        BiconnectivityResult result = merge(nodesQuantity, search);
+        GraphMetrics.stop(GraphMetrics.Operation.BICONNECTIVITY, start);
+        return result;
+    }
+
+    /**
+     * Mesma análise de analyze, mas executada em paralelo no pool informado:
+     * as componentes conexas são calculadas em paralelo e depois analisadas
+     * concorrentemente, agrupando componentes pequenas na mesma tarefa.
+     * O resultado é idêntico ao da versão sequencial para estruturas com as arestas
+     * nos dois sentidos (grafos não dirigidos); digrafos devem usar analyze.
+     *
+     * A estrutura não pode ser alterada enquanto a análise estiver em andamento.
+     *
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Quantidade de vértices do grafo.
+     * @param pool Pool onde as tarefas serão executadas.
+     * @return Pontos de articulação, pontes e componentes biconexas.
+     */
+    public BiconnectivityResult analyzeParallel(GraphStorage storage, int nodesQuantity, ForkJoinPool pool) {
+        return analyzeParallel(storage, nodesQuantity, null, pool);
+    }
+
+    /**
+     * Mesma análise de analyzeParallel, ignorando os endereços livres (ver analyze).
+     */
+    public BiconnectivityResult analyzeParallel(GraphStorage storage, int nodesQuantity, IntPredicate exists,
+                                                ForkJoinPool pool) {
+        long start = GraphMetrics.start();
+        prepare(nodesQuantity, exists);
+
+        ConnectedComponents components = ConnectedComponents.compute(storage, nodesQuantity, pool);
+        Search[] searches = new Search[components.count()];
+        if (components.count() > 0) {
+            pool.invoke(new ComponentsTask(storage, components, searches, 0, components.count()));
+        }
+
+        // Junta os resultados na ordem das componentes para manter o resultado determinístico
+        int used = 0;
+        for (Search search : searches) {
+            if (search != null) {
+                searches[used++] = search;
+            }
+        }
+        BiconnectivityResult result = merge(nodesQuantity, Arrays.copyOf(searches, used));
+        GraphMetrics.stop(GraphMetrics.Operation.BICONNECTIVITY, start);
+        return result;
+    }
+
+    private static BiconnectivityResult merge(int nodesQuantity, Search... searches) {
+        BitSet articulationPoints = new BitSet(nodesQuantity);
+        IntList bridges = new IntList();
+        IntList componentOffsets = new IntList();
+        IntList componentNodes = new IntList();
+        IntList twoEdgeOffsets = new IntList();
+        IntList twoEdgeNodes = new IntList();
+        componentOffsets.add(0);
+        twoEdgeOffsets.add(0);
+
+        long visitedNodes = 0;
+        long scannedEdges = 0;
+        int maxDepth = 0;
+        for (Search search : searches) {
+            visitedNodes += search.time;
+            scannedEdges += search.scannedEdges;
+            maxDepth = Math.max(maxDepth, search.maxDepth);
+            for (int i = 0; i < search.articulationPoints.size(); i++) {
+                articulationPoints.set(search.articulationPoints.get(i));
+            }
+            for (int i = 0; i < search.bridges.size(); i++) {
+                bridges.add(search.bridges.get(i));
+            }
+            int base = componentNodes.size();
+            for (int i = 1; i < search.componentOffsets.size(); i++) {
+                componentOffsets.add(base + search.componentOffsets.get(i));
+            }
+            for (int i = 0; i < search.componentNodes.size(); i++) {
+                componentNodes.add(search.componentNodes.get(i));
+            }
+            base = twoEdgeNodes.size();
+            for (int i = 1; i < search.twoEdgeOffsets.size(); i++) {
+                twoEdgeOffsets.add(base + search.twoEdgeOffsets.get(i));
+            }
+            for (int i = 0; i < search.twoEdgeNodes.size(); i++) {
+                twoEdgeNodes.add(search.twoEdgeNodes.get(i));
+            }
+        }
+        GraphMetrics.recordTraversal(visitedNodes, scannedEdges, maxDepth);
+
+        return new BiconnectivityResult(nodesQuantity, articulationPoints, bridges.toArray(),
+                componentOffsets.toArray(), componentNodes.toArray(),
+                twoEdgeOffsets.toArray(), twoEdgeNodes.toArray());
+    }
+
+    /**
+     * Estado de uma busca em profundidade: contador de tempo, pilha de arestas
+     * e resultados encontrados. Os vetores indexados por vértice são os do analisador;
+     * buscas simultâneas só podem ser feitas em componentes diferentes (as pilhas de
+     * vértices começam em stackBase e cada componente cabe no seu próprio trecho).
+     */
+    private final class Search {
+        private final GraphStorage storage;
+        private final int stackBase;            // Primeira posição da pilha de vértices usada por esta busca
+        private int time;                       // Para marcar o tempo de descoberta de cada vértice
+        private int[] edgeStack;                // Pilha de arestas (pares origem, destino) da componente atual
+        private long scannedEdges;              // Arestas percorridas (apenas com GraphMetrics ligado)
+        private int maxDepth;                   // Maior altura da pilha de vértices (apenas com GraphMetrics ligado)
+
+        private final IntList articulationPoints = new IntList();
+        private final IntList bridges = new IntList();
+        private final IntList componentOffsets = new IntList();
+        private final IntList componentNodes = new IntList();
+        private final IntList twoEdgeOffsets = new IntList();
+        private final IntList twoEdgeNodes = new IntList();
+
+        Search(GraphStorage storage, int stackBase) {
+            this.storage = storage;
+            this.stackBase = stackBase;
+            this.time = 0;
+            this.edgeStack = new int[32];
+            componentOffsets.add(0);
+            twoEdgeOffsets.add(0);
+        }
+
+        /**
+         * Executa a DFS a partir da raiz informada, visitando toda a sua componente.
+         */
+        void run(int root) {
+            int rootChildren = 0;           // Contar os filhos da raiz na árvore DFS
+            int top = stackBase;            // Topo da pilha de vértices
+            int edgeTop = 0;                // Topo da pilha de arestas
+            int vertexTop = stackBase;      // Topo da pilha de vértices das componentes 2-aresta-conexas
+            discoveryTime[root] = low[root] = ++time;
+            parent[root] = -1;
+            cursor[root] = storage.firstEdge(root);
+            stack[top++] = root;
+            vertexStack[vertexTop++] = root;
+            if (GraphMetrics.ENABLED) {
+                maxDepth = Math.max(maxDepth, 1);
+            }
+
+            while (top > stackBase) {
+                int u = stack[top - 1];
+                int e = cursor[u];
+
+                if (e != -1) {
+                    // Ainda há arestas de u para explorar
+                    cursor[u] = storage.nextEdge(u, e);
+                    int v = storage.edgeTarget(u, e);
+                    if (GraphMetrics.ENABLED) {
+                        scannedEdges++;
+                    }
+                    if (v == u) {
+                        continue;   // Laços não influenciam a conectividade
+                    }
+
+                    if (discoveryTime[v] == 0) {
+                        // Aresta da árvore: desce para v
+                        if (u == root) {
+                            rootChildren++;
+                        }
+                        parent[v] = u;
+                        discoveryTime[v] = low[v] = ++time;
+                        cursor[v] = storage.firstEdge(v);
+                        stack[top++] = v;
+                        vertexStack[vertexTop++] = v;
+                        edgeTop = pushEdge(edgeTop, u, v);
+                        if (GraphMetrics.ENABLED) {
+                            maxDepth = Math.max(maxDepth, top - stackBase);
+                        }
+                    } else if (v != parent[u]) {
+                        // Aresta de retorno: atualiza o valor mínimo de u para o tempo de descoberta de v
+                        low[u] = Math.min(low[u], discoveryTime[v]);
+                        if (discoveryTime[v] < discoveryTime[u]) {
+                            edgeTop = pushEdge(edgeTop, u, v);
+                        }
+                    }
+                    continue;
+                }
+
+                // Todas as arestas de u foram exploradas: volta para o pai
+                top--;
+                int p = parent[u];
+                if (p == -1) {
+                    continue;
+                }
+
+                low[p] = Math.min(low[p], low[u]);
+
+                if (low[u] >= discoveryTime[p]) {
+                    // Caso 2: p não é a raiz e nenhum vértice da subárvore de u volta acima de p
+                    // (pode ser registrado mais de uma vez, as repetições somem ao juntar no BitSet)
+                    if (p != root) {
+                        articulationPoints.add(p);
+                    }
+                    // As arestas empilhadas desde p - u formam uma componente biconexa
+                    edgeTop = popComponent(edgeTop, p, u);
+                }
+
+                if (low[u] > discoveryTime[p]) {
+                    bridges.add(p);
+                    bridges.add(u);
+                    // Sem a ponte, os vértices empilhados desde u ficam separados do resto
+                    vertexTop = popTwoEdgeComponent(vertexTop, u);
+                }
+            }
+
+            // O que sobrou na pilha é a componente 2-aresta-conexa da raiz
+            popTwoEdgeComponent(vertexTop, root);
+
+            // Caso 1: a raiz da DFS tem dois ou mais filhos
+            if (rootChildren > 1) {
+                articulationPoints.add(root);
+            }
+        }
+
+        private int pushEdge(int edgeTop, int origin, int destiny) {
+            if (edgeTop + 2 > edgeStack.length) {
+                edgeStack = Arrays.copyOf(edgeStack, edgeStack.length * 2);
+            }
+            edgeStack[edgeTop] = origin;
+            edgeStack[edgeTop + 1] = destiny;
+            return edgeTop + 2;
+        }
+
+        /**
+         * Desempilha as arestas até a aresta origin - destiny (inclusive) e registra
+         * os vértices delas, sem repetição, como uma nova componente biconexa.
+         * @return O novo topo da pilha de arestas.
+         */
+        private int popComponent(int edgeTop, int origin, int destiny) {
+            int mark = componentOffsets.size();     // Identificador da componente atual (a partir de 1)
+            int u;
+            int v;
+            do {
+                edgeTop -= 2;
+                u = edgeStack[edgeTop];
+                v = edgeStack[edgeTop + 1];
+                addToComponent(u, mark);
+                addToComponent(v, mark);
+            } while (u != origin || v != destiny);
+
+            componentOffsets.add(componentNodes.size());
+            return edgeTop;
+        }
+
+        /**
+         * Desempilha os vértices até first (inclusive) como uma nova componente 2-aresta-conexa.
+         * @return O novo topo da pilha de vértices.
+         */
+        private int popTwoEdgeComponent(int vertexTop, int first) {
+            int node;
+            do {
+                node = vertexStack[--vertexTop];
+                twoEdgeNodes.add(node);
+            } while (node != first);
+
+            twoEdgeOffsets.add(twoEdgeNodes.size());
+            return vertexTop;
+        }
+
+        private void addToComponent(int node, int mark) {
+            if (componentMark[node] != mark) {
+                componentMark[node] = mark;
+                componentNodes.add(node);
+            }
+        }
+    }
+
+    /**
+     * Analisa um intervalo de componentes conexas, dividindo-o enquanto ele
+     * tiver mais de PARALLEL_GRAIN vértices e mais de uma componente.
+     */
+    @SuppressWarnings("serial")    // Tarefa do pool, nunca serializada
+    private final class ComponentsTask extends RecursiveAction {
+        private final GraphStorage storage;
+        private final ConnectedComponents components;
+        private final Search[] searches;
+        private final int from;
+        private final int to;
+
+        ComponentsTask(GraphStorage storage, ConnectedComponents components, Search[] searches, int from, int to) {
+            this.storage = storage;
+            this.components = components;
+            this.searches = searches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int nodesInRange = components.offsets[to] - components.offsets[from];
+            if (to - from > 1 && nodesInRange > PARALLEL_GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ComponentsTask(storage, components, searches, from, middle),
+                          new ComponentsTask(storage, components, searches, middle, to));
+                return;
+            }
+
+            // A pilha de vértices de cada componente cabe no trecho dela em components.nodes
+            Search search = new Search(storage, components.offsets[from]);
+            for (int i = components.offsets[from]; i < components.offsets[to]; i++) {
+                int root = components.nodes[i];
+                if (discoveryTime[root] == 0) {
+                    search.run(root);
+                }
+            }
+            searches[from] = search;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Resultado da análise de biconectividade feita pelo BiconnectivityAnalyzer:
+ * pontos de articulação (sem repetição), pontes, componentes biconexas e
+ * componentes 2-aresta-conexas (o que sobra conectado depois de remover as pontes).
+ * Todos os vértices são representados pelos seus índices no grafo.
+ *
+ * @author Cayo Cutrim
+ */
+public class BiconnectivityResult {
+    private final BitSet articulationPoints;    // Bit ligado para cada vértice de articulação
+    private final int[] bridges;                // Pontes em pares (origem, destino) consecutivos
+    private final int[] componentOffsets;       // Início de cada componente em componentNodes
+    private final int[] componentNodes;         // Vértices das componentes, agrupados por componente
+    private final int[] twoEdgeOffsets;         // Início de cada componente 2-aresta-conexa em twoEdgeNodes
+    private final int[] twoEdgeNodes;           // Vértices das componentes 2-aresta-conexas, agrupados
+    private final int[] twoEdgeComponentOf;     // Componente 2-aresta-conexa de cada vértice
+
+    BiconnectivityResult(int nodesQuantity, BitSet articulationPoints, int[] bridges,
+                         int[] componentOffsets, int[] componentNodes,
+                         int[] twoEdgeOffsets, int[] twoEdgeNodes) {
+        this.articulationPoints = articulationPoints;
+        this.bridges = bridges;
+        this.componentOffsets = componentOffsets;
+        this.componentNodes = componentNodes;
+        this.twoEdgeOffsets = twoEdgeOffsets;
+        this.twoEdgeNodes = twoEdgeNodes;
+        this.twoEdgeComponentOf = new int[nodesQuantity];
+        Arrays.fill(twoEdgeComponentOf, -1);     // Endereços livres não pertencem a nenhuma componente
+        for (int c = 0; c + 1 < twoEdgeOffsets.length; c++) {
+            for (int i = twoEdgeOffsets[c]; i < twoEdgeOffsets[c + 1]; i++) {
+                twoEdgeComponentOf[twoEdgeNodes[i]] = c;
+            }
+        }
+    }
+
+    /**
+     * @return Os índices dos vértices de articulação em ordem crescente.
+     */
+    public int[] getArticulationPoints() {
+        return articulationPoints.stream().toArray();
+    }
+
+    public boolean isArticulationPoint(int node) {
+        return articulationPoints.get(node);
+    }
+
+    public int getArticulationPointsCount() {
+        return articulationPoints.cardinality();
+    }
+
+    public int getBridgesCount() {
+        return bridges.length / 2;
+    }
+
+    public int getBridgeOrigin(int bridge) {
+        return bridges[2 * bridge];
+    }
+
+    public int getBridgeDestiny(int bridge) {
+        return bridges[2 * bridge + 1];
+    }
+
+    /**
+     * @return As pontes em um único vetor compacto de pares (origem, destino) consecutivos,
+     * sendo a origem o vértice mais próximo da raiz da DFS.
+     */
+    public int[] getBridges() {
+        return bridges.clone();
+    }
+
+    /**
+     * @return Quantidade de componentes biconexas (vértices isolados não formam componente).
+     */
+    public int getComponentsCount() {
+        return componentOffsets.length - 1;
+    }
+
+    /**
+     * @return Os índices dos vértices da componente biconexa informada.
+     */
+    public int[] getComponent(int component) {
+        return Arrays.copyOfRange(componentNodes, componentOffsets[component], componentOffsets[component + 1]);
+    }
+
+    /**
+     * @return Quantidade de componentes 2-aresta-conexas (cada vértice isolado forma uma).
+     */
+    public int getTwoEdgeComponentsCount() {
+        return twoEdgeOffsets.length - 1;
+    }
+
+    /**
+     * @return Os índices dos vértices da componente 2-aresta-conexa informada.
+     */
+    public int[] getTwoEdgeComponent(int component) {
+        return Arrays.copyOfRange(twoEdgeNodes, twoEdgeOffsets[component], twoEdgeOffsets[component + 1]);
+    }
+
+    /**
+     * @return A componente 2-aresta-conexa do vértice. Dois vértices continuam conectados
+     * depois da remoção de qualquer aresta se, e somente se, estão na mesma componente.
+     * Endereços livres (vértices removidos) devolvem -1.
+     */
+    public int getTwoEdgeComponentOf(int node) {
+        return twoEdgeComponentOf[node];
+    }
+}
@@ -0,0 +1,167 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Armazenamento do grafo como matriz de adjacência compactada em bits.
+ * Cada linha da matriz é um vetor de long, onde o bit j da linha i indica
+ * a aresta i -> j. Ocupa 32 vezes menos memória que a matriz de int e
+ * permite percorrer as linhas 64 células por vez (Long.bitCount para
+ * o grau e Long.numberOfTrailingZeros para achar o próximo vizinho).
+ *
+ * @author Cayo Cutrim
+ */
+public class BitMatrixStorage implements GraphStorage {
+    private static final int WORD_SHIFT = 6;    // 64 bits por palavra
+
+    private long[][] rows;              // Linhas da matriz, 64 colunas por palavra
+    private int nodesQuantity;          // Quantidade de colunas (vértices)
+    private int edgeCount;              // Quantidade de bits ligados
+
+    public BitMatrixStorage(int nodesQuantity) {
+        int words = wordsFor(nodesQuantity);
+        this.rows = new long[nodesQuantity][words];
+        this.nodesQuantity = nodesQuantity;
+        this.edgeCount = 0;
+    }
+
+    /**
+     * Usa as linhas já empacotadas (ver MatrixAlgebra), sem copiá-las.
+     * @param rows Linhas com pelo menos (nodesQuantity + 63) / 64 palavras cada.
+     */
+    BitMatrixStorage(long[][] rows, int nodesQuantity) {
+        this.rows = rows;
+        this.nodesQuantity = nodesQuantity;
+        for (long[] row : rows) {
+            for (long word : row) {
+                this.edgeCount += Long.bitCount(word);
+            }
+        }
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> WORD_SHIFT;
+    }
+
+    @Override
+    public int capacity() {
+        return nodesQuantity;
+    }
+
+    @Override
+    public void ensureCapacity(int nodesQuantity) {
+        if (nodesQuantity <= this.nodesQuantity) {
+            return;
+        }
+        // As linhas existentes ganham palavras novas e as linhas novas nascem zeradas
+        int newCapacity = Math.max(nodesQuantity, this.nodesQuantity * 2);
+        int words = wordsFor(newCapacity);
+        long[][] newRows = new long[newCapacity][];
+        for (int i = 0; i < newCapacity; i++) {
+            newRows[i] = i < rows.length ? Arrays.copyOf(rows[i], words) : new long[words];
+        }
+        rows = newRows;
+        this.nodesQuantity = newCapacity;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public boolean hasEdge(int origin, int destiny) {
+        return (rows[origin][destiny >>> WORD_SHIFT] & (1L << destiny)) != 0;
+    }
+
+    @Override
+    public boolean addEdge(int origin, int destiny) {
+        long[] row = rows[origin];
+        int word = destiny >>> WORD_SHIFT;
+        long mask = 1L << destiny;  // O shift de long já usa só os 6 bits menos significativos
+
+        if ((row[word] & mask) != 0) {
+            return false;
+        }
+        row[word] |= mask;
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(int origin, int destiny) {
+        long[] row = rows[origin];
+        int word = destiny >>> WORD_SHIFT;
+        long mask = 1L << destiny;
+
+        if ((row[word] & mask) == 0) {
+            return false;
+        }
+        row[word] &= ~mask;
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public int outDegree(int node) {
+        // Conta os bits ligados da linha, uma palavra por vez
+        int degree = 0;
+        for (long word : rows[node]) {
+            degree += Long.bitCount(word);
+        }
+        return degree;
+    }
+
+    @Override
+    public int inDegree(int node) {
+        // Testa o mesmo bit da coluna em todas as linhas
+        int word = node >>> WORD_SHIFT;
+        long mask = 1L << node;
+        int degree = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            if ((rows[i][word] & mask) != 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return nextEdge(node, -1);
+    }
+
+    @Override
+    public int nextEdge(int node, int edge) {
+        // O cursor é a própria coluna. Descarta os bits até 'edge' e pula
+        // direto para o próximo bit ligado, avançando uma palavra por vez
+        int from = edge + 1;
+        if (from >= nodesQuantity) {
+            return -1;
+        }
+
+        long[] row = rows[node];
+        int wordIndex = from >>> WORD_SHIFT;
+        long word = row[wordIndex] & (-1L << from);
+
+        while (word == 0) {
+            if (++wordIndex == row.length) {
+                return -1;
+            }
+            word = row[wordIndex];
+        }
+        return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return edge;
+    }
+
+    /**
+     * @return A linha do vértice empacotada em palavras de 64 bits.
+     */
+    public long[] getRow(int node) {
+        return rows[node];
+    }
+}
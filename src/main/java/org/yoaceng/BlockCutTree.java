@@ -0,0 +1,210 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Árvore bloco-articulação (block-cut tree) do grafo não dirigido, montada a partir
+ * do resultado da análise de biconectividade, para responder em O(log grau)
+ * "se o vértice X falhar, A e B continuam conectados?" sem refazer a DFS.
+ *
+ * A árvore tem um nó para cada componente biconexa (bloco) e um para cada ponto de
+ * articulação, ligando cada articulação aos blocos que a contêm. Os demais vértices
+ * são representados pelo único bloco em que aparecem (vértices isolados ganham um nó
+ * próprio). Remover o vértice X desconecta A de B se, e somente se, X é articulação
+ * e o nó de X está no caminho entre os nós de A e de B na árvore.
+ *
+ * O teste do caminho usa os tempos de entrada e saída de um percurso de Euler na
+ * floresta: o nó c de X está no caminho exatamente quando A e B ficam em lados
+ * diferentes de c (um na subárvore de c e o outro fora, ou em subárvores de filhos
+ * diferentes de c). O filho de c que contém um nó é achado por busca binária nos
+ * tempos de entrada dos filhos, que ficam ordenados. A memória é O(V), sem a tabela
+ * O(V log V) de um índice de LCA completo.
+ *
+ * @author Cayo Cutrim
+ */
+public class BlockCutTree {
+    private final int[] nodeOf;         // Nó da árvore de cada vértice do grafo
+    private final boolean[] isCut;      // Se o vértice do grafo é ponto de articulação
+    private final int[] treeOf;         // Raiz da árvore (componente conexa) de cada nó
+    private final int[] entry;          // Tempo de entrada de cada nó no percurso de Euler
+    private final int[] exit;           // Maior tempo de entrada da subárvore de cada nó
+    private final int[] childOffsets;   // Início dos filhos de cada nó em children
+    private final int[] children;       // Filhos de cada nó, em ordem de tempo de entrada
+
+    private BlockCutTree(int[] nodeOf, boolean[] isCut, int[] treeOf, int[] entry, int[] exit,
+                         int[] childOffsets, int[] children) {
+        this.nodeOf = nodeOf;
+        this.isCut = isCut;
+        this.treeOf = treeOf;
+        this.entry = entry;
+        this.exit = exit;
+        this.childOffsets = childOffsets;
+        this.children = children;
+    }
+
+    /**
+     * Monta a árvore em O(V + tamanho dos blocos).
+     * @param result A análise de biconectividade de um grafo não dirigido.
+     * @param nodesQuantity Quantidade de vértices analisados.
+     */
+    public static BlockCutTree build(BiconnectivityResult result, int nodesQuantity) {
+        int blocks = result.getComponentsCount();
+        boolean[] isCut = new boolean[nodesQuantity];
+        int[] nodeOf = new int[nodesQuantity];
+        Arrays.fill(nodeOf, -1);
+
+        // Blocos são os nós 0 .. blocks - 1, depois vêm as articulações e os vértices isolados
+        int treeNodes = blocks;
+        for (int node : result.getArticulationPoints()) {
+            isCut[node] = true;
+            nodeOf[node] = treeNodes++;
+        }
+        EdgeList treeEdges = new EdgeList();
+        for (int block = 0; block < blocks; block++) {
+            for (int node : result.getComponent(block)) {
+                if (isCut[node]) {
+                    treeEdges.add(block, nodeOf[node]);
+                } else {
+                    nodeOf[node] = block;
+                }
+            }
+        }
+        for (int node = 0; node < nodesQuantity; node++) {
+            if (nodeOf[node] == -1) {
+                nodeOf[node] = treeNodes++;
+            }
+        }
+
+        CsrStorage tree = CsrStorage.fromEdges(treeNodes, treeEdges, false);
+        int[] treeOf = new int[treeNodes];
+        int[] entry = new int[treeNodes];
+        int[] exit = new int[treeNodes];
+        int[] parent = new int[treeNodes];
+        int[] cursor = new int[treeNodes];
+        int[] stack = new int[treeNodes];
+        int[] childOffsets = new int[treeNodes + 1];
+        int[] children = new int[Math.max(treeNodes - 1, 0)];
+        Arrays.fill(entry, -1);
+
+        // Percurso em profundidade iterativo; os filhos de cada nó recebem tempos crescentes
+        int time = 0;
+        int childrenCount = 0;
+        for (int root = 0; root < treeNodes; root++) {
+            if (entry[root] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            parent[root] = -1;
+            entry[root] = time++;
+            treeOf[root] = root;
+            cursor[root] = tree.firstEdge(root);
+            while (top > 0) {
+                int u = stack[top - 1];
+                int e = cursor[u];
+                if (e != -1) {
+                    cursor[u] = tree.nextEdge(u, e);
+                    int v = tree.edgeTarget(u, e);
+                    if (v != parent[u]) {
+                        parent[v] = u;
+                        entry[v] = time++;
+                        treeOf[v] = root;
+                        cursor[v] = tree.firstEdge(v);
+                        stack[top++] = v;
+                    }
+                    continue;
+                }
+                exit[u] = time - 1;
+                top--;
+            }
+        }
+
+        // Filhos agrupados por pai; percorrer os nós em ordem de entrada mantém cada grupo ordenado
+        int[] byEntry = new int[treeNodes];
+        for (int node = 0; node < treeNodes; node++) {
+            byEntry[entry[node]] = node;
+            if (parent[node] != -1) {
+                childOffsets[parent[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < treeNodes; node++) {
+            childOffsets[node + 1] += childOffsets[node];
+        }
+        int[] position = Arrays.copyOf(childOffsets, treeNodes);
+        for (int node : byEntry) {
+            if (parent[node] != -1) {
+                children[position[parent[node]]++] = node;
+                childrenCount++;
+            }
+        }
+
+        return new BlockCutTree(nodeOf, isCut, treeOf, entry, exit, childOffsets,
+                Arrays.copyOf(children, childrenCount));
+    }
+
+    /**
+     * @return Se os dois vértices estão na mesma componente conexa, em O(1).
+     */
+    public boolean isConnected(int a, int b) {
+        return treeOf[nodeOf[a]] == treeOf[nodeOf[b]];
+    }
+
+    /**
+     * Responde se A e B continuam conectados depois da remoção do vértice X.
+     * @param failed O vértice removido (X).
+     * @param a Um vértice diferente de X.
+     * @param b Outro vértice diferente de X.
+     * @return Se existe um caminho entre A e B que não passa por X
+     * (false quando A ou B é o próprio X).
+     */
+    public boolean isConnectedWithout(int failed, int a, int b) {
+        if (a == failed || b == failed) {
+            return false;
+        }
+        if (!isConnected(a, b)) {
+            return false;
+        }
+        if (a == b || !isCut[failed]) {
+            // Remover um vértice que não é articulação não separa os demais
+            return true;
+        }
+
+        int cut = nodeOf[failed];
+        int nodeA = nodeOf[a];
+        int nodeB = nodeOf[b];
+        boolean insideA = isInSubtree(nodeA, cut);
+        boolean insideB = isInSubtree(nodeB, cut);
+        if (insideA != insideB) {
+            return false;
+        }
+        if (!insideA) {
+            // Os dois estão fora da subárvore da articulação: o caminho não passa por ela
+            return true;
+        }
+        return childContaining(cut, nodeA) == childContaining(cut, nodeB);
+    }
+
+    /**
+     * @return Se o nó está na subárvore de root (sem contar o próprio root).
+     */
+    private boolean isInSubtree(int node, int root) {
+        return entry[node] > entry[root] && entry[node] <= exit[root];
+    }
+
+    /**
+     * Busca binária do filho de parent cuja subárvore contém o nó.
+     */
+    private int childContaining(int parent, int node) {
+        int low = childOffsets[parent];
+        int high = childOffsets[parent + 1] - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (entry[children[middle]] <= entry[node]) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return children[low];
+    }
+}
@@ -0,0 +1,347 @@
+package org.yoaceng;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Modo não interativo do App: carrega o grafo uma única vez, executa as operações
+ * e consultas informadas nos argumentos e escreve os resultados em um formato fácil
+ * de processar por outros programas, seguidos do tempo gasto em cada fase.
+ *
+ * Uso:
+ * <pre>
+ * App &lt;arquivo&gt; [opções] [operação ...]
+ *
+ * Opções:
+ *   --formato arestas|adjacencia|binario   Formato do arquivo (padrão: arestas, o mesmo do graph.txt)
+ *   --ordem REVERSE_CUTHILL_MCKEE|DEGREE|BFS   Renumera os vértices depois da carga
+ *   --consulta "&lt;consulta&gt;"               Consulta do BatchQueryExecutor (pode ser repetida)
+ *   --consultas &lt;arquivo&gt;                 Arquivo de consultas, uma por linha ("-" = entrada padrão)
+ *   --threads &lt;n&gt;                        Threads usadas nas consultas (padrão: processadores)
+ *   --exportar &lt;formato&gt; &lt;arquivo&gt;        Exporta o grafo (EDGE_LIST, ADJACENCY_LIST, DOT, GRAPHML)
+ *   --saida &lt;arquivo&gt;                     Escreve os resultados no arquivo em vez da saída padrão
+ *
+ * Operações: resumo, articulacoes, pontes, componentes
+ * </pre>
+ *
+ * Cada resultado ocupa uma linha, com os campos separados por tabulação: as operações
+ * na ordem informada, depois as respostas das consultas (no formato do BatchQueryExecutor)
+ * e por último uma linha "tempo" por fase, com a duração em milissegundos:
+ * <pre>
+ * articulacoes	2	B, C
+ * grau A	1
+ * tempo	carga	12.345
+ * tempo	montagem	3.210
+ * </pre>
+ * As fases são carga (leitura do arquivo), montagem (estrutura e tabela de nomes),
+ * renumeracao, analise (biconectividade e resumo), consultas, saida (escrita dos
+ * resultados das operações e exportação) e total.
+ *
+ * @author Cayo Cutrim
+ */
+public class CommandLineRunner {
+    private static final String USAGE = "Uso: App <arquivo> [--formato arestas|adjacencia|binario] "
+            + "[--ordem REVERSE_CUTHILL_MCKEE|DEGREE|BFS] [--consulta \"<consulta>\"] [--consultas <arquivo>|-] "
+            + "[--threads <n>] [--exportar <formato> <arquivo>] [--saida <arquivo>] "
+            + "[resumo] [articulacoes] [pontes] [componentes]";
+
+    private String inputPath;
+    private String format = "arestas";
+    private VertexOrdering.Strategy ordering;
+    private final List<String> operations = new ArrayList<>();
+    private final List<String> inlineQueries = new ArrayList<>();
+    private String queriesPath;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private GraphExporter.Format exportFormat;
+    private String exportPath;
+    private String outputPath;
+
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> phaseNanos = new ArrayList<>();
+
+    private CommandLineRunner() {
+    }
+
+    /**
+     * Executa o modo não interativo.
+     * @param args Os argumentos recebidos pelo App.
+     * @return O código de saída do processo: 0 em caso de sucesso, 1 para erros de
+     * leitura ou escrita e 2 para argumentos inválidos.
+     */
+    public static int run(String[] args) {
+        CommandLineRunner runner = new CommandLineRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        try {
+            runner.execute();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Erro ao processar o grafo: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--formato":
+                    format = value(args, ++i, arg);
+                    if (!format.equals("arestas") && !format.equals("adjacencia") && !format.equals("binario")) {
+                        throw new IllegalArgumentException("Formato de arquivo inválido: " + format);
+                    }
+                    break;
+                case "--ordem":
+                    ordering = enumValue(VertexOrdering.Strategy.class, value(args, ++i, arg));
+                    break;
+                case "--consulta":
+                    inlineQueries.add(value(args, ++i, arg));
+                    break;
+                case "--consultas":
+                    queriesPath = value(args, ++i, arg);
+                    break;
+                case "--threads":
+                    try {
+                        threads = Integer.parseInt(value(args, ++i, arg));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Quantidade de threads inválida: " + args[i]);
+                    }
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("Quantidade de threads inválida: " + threads);
+                    }
+                    break;
+                case "--exportar":
+                    exportFormat = enumValue(GraphExporter.Format.class, value(args, ++i, arg));
+                    exportPath = value(args, ++i, arg);
+                    break;
+                case "--saida":
+                    outputPath = value(args, ++i, arg);
+                    break;
+                case "resumo":
+                case "articulacoes":
+                case "pontes":
+                case "componentes":
+                    operations.add(arg);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Opção desconhecida: " + arg);
+                    }
+                    if (inputPath != null) {
+                        throw new IllegalArgumentException("Operação desconhecida: " + arg);
+                    }
+                    inputPath = arg;
+            }
+        }
+        if (inputPath == null) {
+            throw new IllegalArgumentException("Arquivo do grafo não informado");
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Valor não informado para " + option);
+        }
+        return args[index];
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+    }
+
+    private void execute() throws IOException {
+        long start = System.nanoTime();
+        Graph graph = load();
+
+        if (ordering != null) {
+            long reorderStart = System.nanoTime();
+            graph.reorder(ordering);
+            phase("renumeracao", reorderStart);
+        }
+
+        Writer output = outputPath == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(outputPath), StandardCharsets.UTF_8);
+        try {
+            // As operações são calculadas antes de qualquer escrita, para separar análise e saída
+            long analysisStart = System.nanoTime();
+            List<String> results = new ArrayList<>(operations.size());
+            BiconnectivityResult biconnectivity = null;
+            for (String operation : operations) {
+                if (biconnectivity == null && !operation.equals("resumo")) {
+                    biconnectivity = graph.analyzeBiconnectivity(ForkJoinPool.commonPool());
+                }
+                results.add(answer(graph, operation, biconnectivity));
+            }
+            if (!operations.isEmpty()) {
+                phase("analise", analysisStart);
+            }
+
+            long outputStart = System.nanoTime();
+            for (String result : results) {
+                output.write(result);
+            }
+            output.flush();
+            long outputNanos = System.nanoTime() - outputStart;
+
+            if (!inlineQueries.isEmpty() || queriesPath != null) {
+                long queriesStart = System.nanoTime();
+                runQueries(graph, output);
+                phase("consultas", queriesStart);
+            }
+
+            if (exportFormat != null) {
+                long exportStart = System.nanoTime();
+                try (GraphExporter exporter = GraphExporter.toFile(exportPath)) {
+                    exporter.export(graph, exportFormat);
+                }
+                outputNanos += System.nanoTime() - exportStart;
+            }
+            if (!results.isEmpty() || exportFormat != null) {
+                addPhase("saida", outputNanos);
+            }
+            phase("total", start);
+
+            for (int i = 0; i < phases.size(); i++) {
+                output.write(String.format(Locale.ROOT, "tempo\t%s\t%.3f%n", phases.get(i), phaseNanos.get(i) / 1e6));
+            }
+            output.flush();
+        } finally {
+            // A saída padrão continua aberta para o resto do programa
+            if (outputPath != null) {
+                output.close();
+            }
+        }
+    }
+
+    /**
+     * Carrega o grafo no formato informado, registrando as fases de carga e montagem.
+     */
+    private Graph load() throws IOException {
+        switch (format) {
+            case "adjacencia": {
+                ParallelGraphBuilder builder = new ParallelGraphBuilder();
+                Graph graph = builder.loadAdjacencyList(inputPath);
+                addPhase("carga", builder.getParseNanos());
+                addPhase("montagem", builder.getBuildNanos());
+                return graph;
+            }
+            case "binario": {
+                // O arquivo binário é mapeado já no formato da estrutura, então não há montagem
+                long start = System.nanoTime();
+                Graph graph = GraphBinaryFormat.read(inputPath);
+                phase("carga", start);
+                return graph;
+            }
+            default: {
+                MappedEdgeListLoader loader = new MappedEdgeListLoader();
+                Graph graph = loader.load(inputPath);
+                addPhase("carga", loader.getParseNanos());
+                addPhase("montagem", loader.getBuildNanos());
+                return graph;
+            }
+        }
+    }
+
+    /**
+     * Calcula o resultado de uma operação, já formatado como uma linha.
+     */
+    private static String answer(Graph graph, String operation, BiconnectivityResult result) {
+        StringBuilder line = new StringBuilder(operation);
+        switch (operation) {
+            case "resumo": {
+                long[] edges = new long[1];
+                graph.forEachEdge((origin, destiny) -> edges[0]++);
+                line.append('\t').append(graph.isDriven() ? "dirigido" : "nao_dirigido")
+                        .append('\t').append(graph.getNodesCounter())
+                        .append('\t').append(edges[0]);
+                break;
+            }
+            case "articulacoes": {
+                int[] points = result.getArticulationPoints();
+                line.append('\t').append(points.length).append('\t');
+                for (int i = 0; i < points.length; i++) {
+                    if (i > 0) {
+                        line.append(", ");
+                    }
+                    line.append(graph.getNodeName(points[i]));
+                }
+                break;
+            }
+            case "pontes": {
+                String separator = graph.isDriven() ? " -> " : " -- ";
+                line.append('\t').append(result.getBridgesCount()).append('\t');
+                for (int i = 0; i < result.getBridgesCount(); i++) {
+                    if (i > 0) {
+                        line.append(", ");
+                    }
+                    line.append(graph.getNodeName(result.getBridgeOrigin(i))).append(separator)
+                            .append(graph.getNodeName(result.getBridgeDestiny(i)));
+                }
+                break;
+            }
+            default:
+                line.append('\t').append(result.getComponentsCount());
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Responde as consultas informadas nos argumentos e depois as do arquivo, em paralelo.
+     */
+    private void runQueries(Graph graph, Writer output) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            BatchQueryExecutor executor = new BatchQueryExecutor(graph.snapshot(), pool, threads);
+            if (!inlineQueries.isEmpty()) {
+                executor.execute(new BufferedReader(new StringReader(String.join("\n", inlineQueries))), output);
+            }
+            if (queriesPath != null) {
+                BufferedReader queries = queriesPath.equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                        : Files.newBufferedReader(Paths.get(queriesPath), StandardCharsets.UTF_8);
+                try {
+                    executor.execute(queries, output);
+                } finally {
+                    if (!queriesPath.equals("-")) {
+                        queries.close();
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void phase(String name, long start) {
+        addPhase(name, System.nanoTime() - start);
+    }
+
+    private void addPhase(String name, long nanos) {
+        phases.add(name);
+        phaseNanos.add(nanos);
+    }
+}
@@ -0,0 +1,145 @@
+package org.yoaceng;
+
+import java.util.function.Consumer;
+
+/**
+ * Grafo que pode ser lido e alterado por várias threads ao mesmo tempo.
+ *
+ * As leituras nunca bloqueiam: elas usam a cópia imutável (GraphSnapshot) da
+ * época atual, lida de um campo volatile. As alterações são serializadas por
+ * uma trava, aplicadas em um Graph interno que nenhuma leitura acessa, e ao
+ * final uma nova cópia é publicada como a próxima época (copy-on-write).
+ * Quem está no meio de uma leitura ou análise continua com a cópia antiga,
+ * que permanece consistente até o fim.
+ *
+ * Cada publicação copia o grafo em O(V + E), então o modo é indicado para
+ * cargas com muito mais leituras do que escritas. Várias alterações podem
+ * ser agrupadas em uma única época com update.
+ *
+ * @author Cayo Cutrim
+ */
+public class ConcurrentGraph {
+    private final Object writeLock = new Object();
+    private final Graph graph;              // Cópia de trabalho, acessada somente com a trava
+    private volatile Epoch current;         // Época publicada para as leituras
+
+    /**
+     * Época publicada: o número cresce a cada publicação.
+     */
+    private static final class Epoch {
+        final long number;
+        final GraphSnapshot snapshot;
+
+        Epoch(long number, GraphSnapshot snapshot) {
+            this.number = number;
+            this.snapshot = snapshot;
+        }
+    }
+
+    public ConcurrentGraph(boolean driven) {
+        this(new Graph(driven));
+    }
+
+    /**
+     * Passa a controlar o grafo informado. Depois disso o grafo não deve mais
+     * ser usado diretamente, apenas por esta classe.
+     */
+    public ConcurrentGraph(Graph graph) {
+        this.graph = graph;
+        this.current = new Epoch(0, graph.snapshot());
+    }
+
+    /**
+     * @return A cópia da época atual, que não muda mais. Várias consultas feitas na
+     * mesma cópia enxergam exatamente o mesmo grafo.
+     */
+    public GraphSnapshot snapshot() {
+        return current.snapshot;
+    }
+
+    /**
+     * @return O número da época atual (quantas vezes uma alteração foi publicada).
+     */
+    public long getEpoch() {
+        return current.number;
+    }
+
+    /**
+     * Aplica um grupo de alterações e publica o resultado como uma única época.
+     * As leituras feitas durante as alterações continuam vendo a época anterior.
+     * Se as alterações lançarem uma exceção nada é publicado: o grafo de trabalho
+     * volta para a época atual e a exceção é repassada.
+     * @param changes Recebe o grafo de trabalho; não deve guardar a referência.
+     */
+    public void update(Consumer<Graph> changes) {
+        synchronized (writeLock) {
+            try {
+                changes.accept(graph);
+            } catch (RuntimeException | Error e) {
+                // Descarta o que foi aplicado antes da falha, um grupo pela metade nunca vira uma época
+                graph.restore(current.snapshot);
+                throw e;
+            }
+            current = new Epoch(current.number + 1, graph.snapshot());
+        }
+    }
+
+    public void addNode(String node) {
+        update(g -> g.addNode(node));
+    }
+
+    public void removeNode(String node) {
+        update(g -> g.removeNode(node));
+    }
+
+    public void addEdge(String origin, String destiny) {
+        update(g -> g.addEdge(origin, destiny));
+    }
+
+    public void removeEdge(String origin, String destiny) {
+        update(g -> g.removeEdge(origin, destiny));
+    }
+
+    /**
+     * Verifica a adjacência na época atual.
+     * @return Se os vértices existem e são adjacentes.
+     */
+    public boolean isAdjacent(String origin, String destiny) {
+        GraphSnapshot snapshot = snapshot();
+        int originIndex = snapshot.getNodeIndex(origin);
+        int destinyIndex = snapshot.getNodeIndex(destiny);
+        return originIndex != -1 && destinyIndex != -1 && snapshot.isAdjacent(originIndex, destinyIndex);
+    }
+
+    /**
+     * @return O grau de emissão do vértice na época atual (o grau, para grafos não dirigidos)
+     * ou -1 caso ele não exista.
+     */
+    public int outDegree(String node) {
+        GraphSnapshot snapshot = snapshot();
+        int index = snapshot.getNodeIndex(node);
+        return index == -1 ? -1 : snapshot.outDegree(index);
+    }
+
+    /**
+     * Analisa a biconectividade da época atual. Os vetores auxiliares são criados
+     * a cada chamada, então várias threads podem analisar ao mesmo tempo, inclusive
+     * enquanto outras alteram o grafo.
+     */
+    public BiconnectivityResult analyzeBiconnectivity() {
+        return snapshot().analyzeBiconnectivity();
+    }
+
+    /**
+     * @return Os nomes dos pontos de articulação da época atual, em ordem de endereço.
+     */
+    public String[] getArticulationPoints() {
+        GraphSnapshot snapshot = snapshot();
+        int[] points = snapshot.getArticulationPoints();
+        String[] names = new String[points.length];
+        for (int i = 0; i < points.length; i++) {
+            names[i] = snapshot.getNodeName(points[i]);
+        }
+        return names;
+    }
+}
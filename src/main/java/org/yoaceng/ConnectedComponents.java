@@ -0,0 +1,137 @@
+package org.yoaceng;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Componentes conexas do grafo (fracamente conexas, no caso de digrafos),
+ * calculadas em paralelo com uma union-find sem travas (compareAndSet).
+ * A raiz de cada conjunto é sempre o menor índice, então a numeração das
+ * componentes e a ordem dos vértices dentro delas não dependem das threads.
+ *
+ * @author Cayo Cutrim
+ */
+class ConnectedComponents {
+    private static final int GRAIN = 1 << 13;  // Vértices por tarefa na união das arestas
+
+    final int[] componentOf;    // Componente de cada vértice
+    final int[] offsets;        // Início de cada componente em nodes (tamanho componentes + 1)
+    final int[] nodes;          // Vértices agrupados por componente, em ordem crescente
+
+    private ConnectedComponents(int[] componentOf, int[] offsets, int[] nodes) {
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.nodes = nodes;
+    }
+
+    int count() {
+        return offsets.length - 1;
+    }
+
+    int size(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    static ConnectedComponents compute(GraphStorage storage, int nodesQuantity, ForkJoinPool pool) {
+        AtomicIntegerArray parent = new AtomicIntegerArray(nodesQuantity);
+        for (int i = 0; i < nodesQuantity; i++) {
+            parent.set(i, i);
+        }
+        pool.invoke(new UnionTask(storage, parent, 0, nodesQuantity));
+
+        // Numera as componentes na ordem do menor vértice de cada uma
+        int[] componentOf = new int[nodesQuantity];
+        int count = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            int root = find(parent, i);
+            componentOf[i] = root == i ? count++ : componentOf[root];
+        }
+
+        // Agrupa os vértices por componente (contagem -> soma de prefixos -> distribuição)
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < nodesQuantity; i++) {
+            offsets[componentOf[i] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] nodes = new int[nodesQuantity];
+        int[] cursor = new int[count];
+        System.arraycopy(offsets, 0, cursor, 0, count);
+        for (int i = 0; i < nodesQuantity; i++) {
+            nodes[cursor[componentOf[i]]++] = i;
+        }
+
+        return new ConnectedComponents(componentOf, offsets, nodes);
+    }
+
+    /**
+     * Busca a raiz do conjunto, encurtando o caminho pela metade a cada passo.
+     */
+    private static int find(AtomicIntegerArray parent, int node) {
+        int p = parent.get(node);
+        while (p != node) {
+            int grandParent = parent.get(p);
+            parent.compareAndSet(node, p, grandParent);
+            node = grandParent;
+            p = parent.get(node);
+        }
+        return node;
+    }
+
+    /**
+     * Une os conjuntos de a e b, sempre pendurando a raiz maior na menor.
+     */
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB) {
+                return;
+            }
+            if (rootA < rootB) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            // Só funciona se rootA ainda for raiz, caso contrário tenta de novo
+            if (parent.compareAndSet(rootA, rootA, rootB)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Percorre as arestas de um intervalo de vértices unindo as extremidades,
+     * dividindo o intervalo ao meio enquanto for maior que GRAIN.
+     */
+    @SuppressWarnings("serial")    // Tarefa do pool, nunca serializada
+    private static class UnionTask extends RecursiveAction {
+        private final GraphStorage storage;
+        private final AtomicIntegerArray parent;
+        private final int from;
+        private final int to;
+
+        UnionTask(GraphStorage storage, AtomicIntegerArray parent, int from, int to) {
+            this.storage = storage;
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new UnionTask(storage, parent, from, middle), new UnionTask(storage, parent, middle, to));
+                return;
+            }
+            for (int u = from; u < to; u++) {
+                for (int e = storage.firstEdge(u); e != -1; e = storage.nextEdge(u, e)) {
+                    union(parent, u, storage.edgeTarget(u, e));
+                }
+            }
+        }
+    }
+}
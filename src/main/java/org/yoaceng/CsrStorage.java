@@ -0,0 +1,269 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Armazenamento do grafo no formato CSR (compressed sparse row).
+ * Os vizinhos do vértice i ficam em targets[offsets[i] .. offsets[i + 1] - 1],
+ * ordenados e sem repetição. Ocupa O(V + E) de memória e lista os vizinhos
+ * de um vértice em O(grau).
+ *
+ * A estrutura é pensada para ser montada de uma vez (fromEdges). addEdge e
+ * removeEdge continuam funcionando, mas custam O(V + E) por aresta pois deslocam os vetores;
+ * por isso o Graph troca o CSR por uma AdjacencyListStorage na primeira alteração.
+ *
+ * @author Cayo Cutrim
+ */
+public class CsrStorage implements GraphStorage {
+    private static final int PARALLEL_GRAIN = 1 << 14;     // Vértices por tarefa na montagem paralela
+
+    private int[] offsets;      // Início da lista de vizinhos de cada vértice (tamanho V + 1)
+    private int[] targets;      // Destinos de todas as arestas, agrupados por origem
+    private int[] inDegrees;    // Grau de recepção de cada vértice
+    private int edgeCount;      // Quantidade de posições usadas em targets
+
+    CsrStorage(int[] offsets, int[] targets, int[] inDegrees) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.inDegrees = inDegrees;
+        this.edgeCount = offsets[offsets.length - 1];
+    }
+
+    /**
+     * Monta a estrutura a partir de uma lista de arestas usando contagem
+     * (grau -> soma de prefixos -> distribuição), em O(V + E log grau).
+     * @param nodesQuantity Quantidade de vértices.
+     * @param edges Arestas lidas (apenas um sentido para grafos não dirigidos).
+     * @param driven Se o grafo é dirigido ou não.
+     * @return A estrutura preenchida.
+     */
+    public static CsrStorage fromEdges(int nodesQuantity, EdgeList edges, boolean driven) {
+        int[] offsets = new int[nodesQuantity + 1];
+
+        // Conta quantas arestas saem de cada vértice
+        for (int i = 0; i < edges.size(); i++) {
+            offsets[edges.origin(i) + 1]++;
+            if (!driven) {
+                offsets[edges.destiny(i) + 1]++;
+            }
+        }
+        for (int i = 0; i < nodesQuantity; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        // Distribui os destinos nas posições de cada origem
+        int[] targets = new int[offsets[nodesQuantity]];
+        int[] cursor = Arrays.copyOf(offsets, nodesQuantity);
+        for (int i = 0; i < edges.size(); i++) {
+            targets[cursor[edges.origin(i)]++] = edges.destiny(i);
+            if (!driven) {
+                targets[cursor[edges.destiny(i)]++] = edges.origin(i);
+            }
+        }
+
+        return compact(nodesQuantity, offsets, targets);
+    }
+
+    /**
+     * Versão paralela de fromEdges para as arestas lidas em vários blocos ao mesmo tempo.
+     * A mesma contagem é feita em paralelo: os graus são somados em contadores atômicos,
+     * a soma de prefixos é feita uma vez (O(V)), os destinos são distribuídos pelos blocos
+     * com um cursor atômico por vértice e, por fim, cada faixa de vértices ordena e
+     * remove as repetições das suas listas de forma independente.
+     * @param nodesQuantity Quantidade de vértices.
+     * @param chunks Arestas de cada bloco (apenas um sentido para grafos não dirigidos).
+     * @param driven Se o grafo é dirigido ou não.
+     * @param pool Pool onde as etapas serão executadas.
+     * @return A estrutura preenchida, igual à de fromEdges com as mesmas arestas.
+     */
+    static CsrStorage fromEdgesParallel(int nodesQuantity, EdgeList[] chunks, boolean driven, ForkJoinPool pool) {
+        // Conta quantas arestas saem de cada vértice
+        AtomicIntegerArray counts = new AtomicIntegerArray(nodesQuantity);
+        ParallelRange.run(pool, 0, chunks.length, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                EdgeList edges = chunks[c];
+                for (int i = 0; i < edges.size(); i++) {
+                    counts.incrementAndGet(edges.origin(i));
+                    if (!driven) {
+                        counts.incrementAndGet(edges.destiny(i));
+                    }
+                }
+            }
+        });
+        int[] offsets = new int[nodesQuantity + 1];
+        for (int i = 0; i < nodesQuantity; i++) {
+            offsets[i + 1] = offsets[i] + counts.get(i);
+        }
+
+        // Distribui os destinos: cada posição é reservada pelo cursor atômico da origem
+        int[] targets = new int[offsets[nodesQuantity]];
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, nodesQuantity));
+        ParallelRange.run(pool, 0, chunks.length, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                EdgeList edges = chunks[c];
+                for (int i = 0; i < edges.size(); i++) {
+                    targets[cursor.getAndIncrement(edges.origin(i))] = edges.destiny(i);
+                    if (!driven) {
+                        targets[cursor.getAndIncrement(edges.destiny(i))] = edges.origin(i);
+                    }
+                }
+            }
+        });
+
+        // Ordena cada lista e conta os vizinhos sem repetição
+        int[] unique = new int[nodesQuantity];
+        ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Arrays.sort(targets, offsets[i], offsets[i + 1]);
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    if (j == offsets[i] || targets[j] != targets[j - 1]) {
+                        unique[i]++;
+                    }
+                }
+            }
+        });
+        int[] compactOffsets = new int[nodesQuantity + 1];
+        for (int i = 0; i < nodesQuantity; i++) {
+            compactOffsets[i + 1] = compactOffsets[i] + unique[i];
+        }
+
+        // Copia as listas sem repetição para as posições finais
+        int[] compactTargets = new int[compactOffsets[nodesQuantity]];
+        AtomicIntegerArray inDegrees = new AtomicIntegerArray(nodesQuantity);
+        ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int write = compactOffsets[i];
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    if (j == offsets[i] || targets[j] != targets[j - 1]) {
+                        compactTargets[write++] = targets[j];
+                        inDegrees.incrementAndGet(targets[j]);
+                    }
+                }
+            }
+        });
+
+        int[] heapInDegrees = new int[nodesQuantity];
+        for (int i = 0; i < nodesQuantity; i++) {
+            heapInDegrees[i] = inDegrees.get(i);
+        }
+        return new CsrStorage(compactOffsets, compactTargets, heapInDegrees);
+    }
+
+    /**
+     * Ordena a lista de vizinhos de cada vértice e remove arestas repetidas,
+     * reaproveitando os próprios vetores.
+     */
+    static CsrStorage compact(int nodesQuantity, int[] offsets, int[] targets) {
+        int[] inDegrees = new int[nodesQuantity];
+        int write = 0;
+        int start = offsets[0];
+
+        for (int i = 0; i < nodesQuantity; i++) {
+            int end = offsets[i + 1];
+            Arrays.sort(targets, start, end);
+            offsets[i] = write;
+            for (int j = start; j < end; j++) {
+                if (j == start || targets[j] != targets[j - 1]) {
+                    targets[write++] = targets[j];
+                    inDegrees[targets[j]]++;
+                }
+            }
+            start = end;
+        }
+        offsets[nodesQuantity] = write;
+
+        return new CsrStorage(offsets, targets, inDegrees);
+    }
+
+    @Override
+    public int capacity() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public void ensureCapacity(int nodesQuantity) {
+        int capacity = capacity();
+        if (nodesQuantity <= capacity) {
+            return;
+        }
+        // Os vértices novos começam com a lista de vizinhos vazia no final do vetor de destinos
+        int newCapacity = Math.max(nodesQuantity, capacity * 2);
+        offsets = Arrays.copyOf(offsets, newCapacity + 1);
+        Arrays.fill(offsets, capacity + 1, newCapacity + 1, edgeCount);
+        inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public boolean hasEdge(int origin, int destiny) {
+        return Arrays.binarySearch(targets, offsets[origin], offsets[origin + 1], destiny) >= 0;
+    }
+
+    @Override
+    public boolean addEdge(int origin, int destiny) {
+        int position = Arrays.binarySearch(targets, offsets[origin], offsets[origin + 1], destiny);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+
+        if (edgeCount == targets.length) {
+            targets = Arrays.copyOf(targets, Math.max(16, targets.length * 2));
+        }
+        // Abre espaço na posição ordenada e desloca o início das linhas seguintes
+        System.arraycopy(targets, position, targets, position + 1, edgeCount - position);
+        targets[position] = destiny;
+        for (int i = origin + 1; i < offsets.length; i++) {
+            offsets[i]++;
+        }
+        inDegrees[destiny]++;
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(int origin, int destiny) {
+        int position = Arrays.binarySearch(targets, offsets[origin], offsets[origin + 1], destiny);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(targets, position + 1, targets, position, edgeCount - position - 1);
+        for (int i = origin + 1; i < offsets.length; i++) {
+            offsets[i]--;
+        }
+        inDegrees[destiny]--;
+        edgeCount--;
+        return true;
+    }
+
+    @Override
+    public int outDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    @Override
+    public int inDegree(int node) {
+        return inDegrees[node];
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        return offsets[node] < offsets[node + 1] ? offsets[node] : -1;
+    }
+
+    @Override
+    public int nextEdge(int node, int edge) {
+        return edge + 1 < offsets[node + 1] ? edge + 1 : -1;
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return targets[edge];
+    }
+}
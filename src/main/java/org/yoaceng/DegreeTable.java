@@ -0,0 +1,117 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Graus de emissão e de recepção de cada vértice guardados em vetores,
+ * atualizados pelo Graph a cada aresta adicionada ou removida. A consulta
+ * do grau fica O(1) em qualquer estrutura (na matriz de adjacência seria
+ * uma varredura da linha e, para a recepção, da coluna inteira).
+ *
+ * @author Cayo Cutrim
+ */
+class DegreeTable {
+    private int[] outDegrees;   // Grau de emissão de cada vértice
+    private int[] inDegrees;    // Grau de recepção de cada vértice
+
+    /**
+     * Calcula os graus a partir das arestas já existentes na estrutura, em O(V + E).
+     */
+    DegreeTable(GraphStorage storage, int nodesQuantity) {
+        this.outDegrees = new int[Math.max(nodesQuantity, 1)];
+        this.inDegrees = new int[Math.max(nodesQuantity, 1)];
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                outDegrees[i]++;
+                inDegrees[storage.edgeTarget(i, e)]++;
+            }
+        }
+    }
+
+    void ensureCapacity(int nodesQuantity) {
+        if (nodesQuantity > outDegrees.length) {
+            int newCapacity = Math.max(nodesQuantity, outDegrees.length * 2);
+            outDegrees = Arrays.copyOf(outDegrees, newCapacity);
+            inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+        }
+    }
+
+    void edgeAdded(int origin, int destiny) {
+        outDegrees[origin]++;
+        inDegrees[destiny]++;
+    }
+
+    void edgeRemoved(int origin, int destiny) {
+        outDegrees[origin]--;
+        inDegrees[destiny]--;
+    }
+
+    int outDegree(int node) {
+        return outDegrees[node];
+    }
+
+    int inDegree(int node) {
+        return inDegrees[node];
+    }
+
+    /**
+     * Conta quantos vértices existentes têm cada grau.
+     * @param inbound Se usa o grau de recepção em vez do grau de emissão.
+     * @return histogram[d] = quantidade de vértices com grau d (tamanho = maior grau + 1).
+     */
+    int[] histogram(NodeSymbolTable nodes, boolean inbound) {
+        int[] degrees = inbound ? inDegrees : outDegrees;
+        int maxDegree = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                maxDegree = Math.max(maxDegree, degrees[i]);
+            }
+        }
+
+        int[] histogram = new int[maxDegree + 1];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                histogram[degrees[i]]++;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Seleciona os k vértices de maior grau sem ordenar todos os vértices:
+     * o histograma indica o menor grau que entra na resposta e uma única
+     * passada distribui os vértices por grau (contagem), em O(V + maior grau).
+     * @param inbound Se usa o grau de recepção em vez do grau de emissão.
+     * @return Os índices dos vértices em ordem decrescente de grau (empates pelo menor índice).
+     */
+    int[] top(NodeSymbolTable nodes, int k, boolean inbound) {
+        int[] degrees = inbound ? inDegrees : outDegrees;
+        int[] histogram = histogram(nodes, inbound);
+        k = Math.min(k, nodes.count());
+        if (k <= 0) {
+            return new int[0];
+        }
+
+        // Menor grau que ainda entra entre os k maiores
+        int threshold = histogram.length - 1;
+        int selected = histogram[threshold];
+        while (selected < k) {
+            selected += histogram[--threshold];
+        }
+
+        // Posição inicial de cada grau na resposta, do maior para o menor
+        int[] start = new int[histogram.length];
+        for (int d = histogram.length - 2, position = histogram[histogram.length - 1]; d >= threshold; d--) {
+            start[d] = position;
+            position += histogram[d];
+        }
+
+        int[] top = new int[k];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null && degrees[i] >= threshold && start[degrees[i]] < k) {
+                top[start[degrees[i]]++] = i;
+            }
+        }
+        return top;
+    }
+}
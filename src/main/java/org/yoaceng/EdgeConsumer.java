@@ -0,0 +1,12 @@
+package org.yoaceng;
+
+/**
+ * Ação executada para cada aresta (origem, destino) pelos endereços dos vértices,
+ * sem criar objetos por aresta.
+ *
+ * @author Cayo Cutrim
+ */
+@FunctionalInterface
+public interface EdgeConsumer {
+    void accept(int origin, int destiny);
+}
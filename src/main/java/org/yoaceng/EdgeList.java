@@ -0,0 +1,58 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Lista de arestas em vetores de inteiros (origem e destino), usada durante
+ * a leitura do grafo antes de decidir qual estrutura vai armazená-lo.
+ *
+ * @author Cayo Cutrim
+ */
+class EdgeList {
+    private int[] origins;
+    private int[] destinies;
+    private int size;
+
+    EdgeList() {
+        this(16);
+    }
+
+    EdgeList(int initialCapacity) {
+        this.origins = new int[Math.max(initialCapacity, 1)];
+        this.destinies = new int[Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    void add(int origin, int destiny) {
+        if (size == origins.length) {
+            // Dobra a capacidade para manter a inserção O(1) amortizada
+            origins = Arrays.copyOf(origins, size * 2);
+            destinies = Arrays.copyOf(destinies, size * 2);
+        }
+        origins[size] = origin;
+        destinies[size] = destiny;
+        size++;
+    }
+
+    int origin(int index) {
+        return origins[index];
+    }
+
+    int destiny(int index) {
+        return destinies[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Troca os vértices de todas as arestas pelos valores do mapeamento (vértice -> novo vértice).
+     */
+    void remap(int[] mapping) {
+        for (int i = 0; i < size; i++) {
+            origins[i] = mapping[origins[i]];
+            destinies[i] = mapping[destinies[i]];
+        }
+    }
+}
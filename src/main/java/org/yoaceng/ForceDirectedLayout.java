@@ -0,0 +1,310 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Posicionamento por forças (Fruchterman–Reingold) com a aproximação de Barnes–Hut.
+ *
+ * Vértices ligados se atraem (d² / k) e todos os pares se repelem (k² · pesos / d).
+ * A repulsão entre todos os pares custaria O(V²) por iteração; em vez disso os
+ * vértices são colocados em uma quadtree e um grupo distante (tamanho da célula
+ * dividido pela distância menor que THETA) age como um único corpo no seu centro
+ * de massa, o que deixa cada iteração em O(V log V + E).
+ *
+ * A quadtree é montada por uma thread e depois só é lida; as forças de cada vértice
+ * são calculadas em paralelo no pool (cada vértice escreve apenas o próprio
+ * deslocamento, e a atração usa as duas direções de cada aresta guardadas na estrutura).
+ * O deslocamento de cada iteração é limitado por uma temperatura que esfria a cada passo.
+ *
+ * @author Cayo Cutrim
+ */
+public class ForceDirectedLayout {
+    private static final double THETA = 0.8;            // Critério de abertura das células de Barnes–Hut
+    private static final double GRAVITY = 0.05;         // Atração fraca para o centro, que mantém componentes próximas
+    private static final double COOLING = 0.95;         // Fator de resfriamento da temperatura a cada iteração
+    private static final int MAX_DEPTH = 48;            // Profundidade máxima da quadtree (vértices quase coincidentes)
+    private static final int PARALLEL_GRAIN = 256;      // Vértices mínimos por tarefa paralela
+
+    /**
+     * Recebe as posições a cada iteração, na thread que executa o posicionamento.
+     */
+    public interface Listener {
+        /**
+         * @return false para interromper o posicionamento.
+         */
+        boolean iterationDone(int iteration, double[] x, double[] y);
+    }
+
+    private final GraphStorage storage;     // Arestas nos dois sentidos
+    private final int nodesQuantity;
+    private final double[] weights;         // Peso de cada vértice na repulsão
+    private final double k;                 // Distância ideal entre vértices ligados
+    private final double[] x;
+    private final double[] y;
+    private final double[] dx;
+    private final double[] dy;
+    private double temperature;
+
+    // Quadtree em vetores: célula -> primeiro dos 4 filhos (-1 = folha) e vértice da folha (-1 = vazia)
+    private int cells;
+    private int[] firstChild = new int[64];
+    private int[] body = new int[64];
+    private double[] mass = new double[64];
+    private double[] massX = new double[64];        // Soma de peso * x (centro de massa ao final da montagem)
+    private double[] massY = new double[64];
+    private double[] cellX = new double[64];        // Centro geométrico da célula
+    private double[] cellY = new double[64];
+    private double[] half = new double[64];         // Metade do lado da célula
+
+    /**
+     * @param storage Estrutura com as arestas nos dois sentidos (grafo não dirigido).
+     * @param nodesQuantity Quantidade de vértices.
+     * @param weights Peso de cada vértice (ex.: tamanho do bloco que ele representa) ou null para 1.
+     * @param distance Distância ideal entre vértices ligados.
+     * @param seed Semente das posições iniciais.
+     */
+    public ForceDirectedLayout(GraphStorage storage, int nodesQuantity, double[] weights, double distance, long seed) {
+        this.storage = storage;
+        this.nodesQuantity = nodesQuantity;
+        this.weights = weights;
+        this.k = distance;
+        this.x = new double[nodesQuantity];
+        this.y = new double[nodesQuantity];
+        this.dx = new double[nodesQuantity];
+        this.dy = new double[nodesQuantity];
+
+        // Posições iniciais aleatórias em um quadrado com área proporcional à quantidade de vértices
+        double side = Math.sqrt(Math.max(nodesQuantity, 1)) * distance;
+        Random random = new Random(seed);
+        for (int i = 0; i < nodesQuantity; i++) {
+            x[i] = random.nextDouble() * side;
+            y[i] = random.nextDouble() * side;
+        }
+        this.temperature = side / 10;
+    }
+
+    /**
+     * Executa as iterações no pool informado.
+     * @param iterations Quantidade máxima de iterações.
+     * @param pool Pool onde as forças são calculadas.
+     * @param listener Recebe as posições a cada iteração (pode ser null).
+     */
+    public void run(int iterations, ForkJoinPool pool, Listener listener) {
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            step(pool);
+            if (listener != null && !listener.iterationDone(iteration, x, y)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Uma iteração: monta a quadtree, calcula as forças em paralelo e move os vértices.
+     */
+    public void step(ForkJoinPool pool) {
+        if (nodesQuantity == 0) {
+            return;
+        }
+        buildTree();
+
+        double centerX = massX[0];
+        double centerY = massY[0];
+        ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+            int[] stack = new int[3 * MAX_DEPTH + 4];
+            for (int i = from; i < to; i++) {
+                computeForces(i, stack, centerX, centerY);
+            }
+        });
+
+        for (int i = 0; i < nodesQuantity; i++) {
+            double length = Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+            if (length > 0) {
+                double limited = Math.min(length, temperature);
+                x[i] += dx[i] / length * limited;
+                y[i] += dy[i] / length * limited;
+            }
+        }
+        temperature = Math.max(temperature * COOLING, k / 100);
+    }
+
+    private double weight(int node) {
+        return weights == null ? 1 : weights[node];
+    }
+
+    private void computeForces(int i, int[] stack, double centerX, double centerY) {
+        double forceX = 0;
+        double forceY = 0;
+        double wi = weight(i);
+
+        // Repulsão pela quadtree
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            if (mass[cell] == 0 || body[cell] == i && firstChild[cell] == -1) {
+                continue;
+            }
+            double distX = x[i] - massX[cell];
+            double distY = y[i] - massY[cell];
+            double distanceSquared = distX * distX + distY * distY;
+
+            if (firstChild[cell] == -1 || 4 * half[cell] * half[cell] < THETA * THETA * distanceSquared) {
+                if (distanceSquared < 1e-9) {
+                    // Vértices sobrepostos: empurra em uma direção qualquer, mas fixa para cada par
+                    distX = ((i * 31 + cell) & 1) == 0 ? 0.01 : -0.01;
+                    distY = ((i * 17 + cell) & 2) == 0 ? 0.01 : -0.01;
+                    distanceSquared = 2e-4;
+                }
+                // k² · m_i · m_j / d, na direção de d (dividir por d² normaliza o vetor)
+                double force = k * k * wi * mass[cell] / distanceSquared;
+                forceX += distX * force;
+                forceY += distY * force;
+            } else {
+                int child = firstChild[cell];
+                stack[top++] = child;
+                stack[top++] = child + 1;
+                stack[top++] = child + 2;
+                stack[top++] = child + 3;
+            }
+        }
+
+        // Atração pelas arestas: d² / k, na direção do vizinho
+        for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+            int j = storage.edgeTarget(i, e);
+            if (j == i) {
+                continue;
+            }
+            double distX = x[j] - x[i];
+            double distY = y[j] - y[i];
+            double distance = Math.sqrt(distX * distX + distY * distY);
+            forceX += distX * distance / k;
+            forceY += distY * distance / k;
+        }
+
+        // Gravidade para o centro de massa do desenho
+        forceX -= GRAVITY * wi * (x[i] - centerX);
+        forceY -= GRAVITY * wi * (y[i] - centerY);
+
+        dx[i] = forceX;
+        dy[i] = forceY;
+    }
+
+    /**
+     * Monta a quadtree com todos os vértices e calcula o centro de massa de cada célula.
+     */
+    private void buildTree() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < nodesQuantity; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        cells = 0;
+        double side = Math.max(Math.max(maxX - minX, maxY - minY), 1e-6);
+        newCell((minX + maxX) / 2, (minY + maxY) / 2, side / 2 * 1.0001);
+        for (int i = 0; i < nodesQuantity; i++) {
+            insert(i);
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (mass[cell] > 0) {
+                massX[cell] /= mass[cell];
+                massY[cell] /= mass[cell];
+            }
+        }
+    }
+
+    private void insert(int node) {
+        double w = weight(node);
+        int cell = 0;
+        for (int depth = 0; ; depth++) {
+            if (firstChild[cell] == -1) {
+                if (body[cell] == -1) {
+                    body[cell] = node;
+                    addMass(cell, node, w);
+                    return;
+                }
+                if (depth >= MAX_DEPTH) {
+                    // Vértices praticamente no mesmo ponto ficam juntos na mesma folha
+                    addMass(cell, node, w);
+                    return;
+                }
+                split(cell);
+            }
+            addMass(cell, node, w);
+            cell = firstChild[cell] + quadrant(cell, x[node], y[node]);
+        }
+    }
+
+    /**
+     * Transforma a folha ocupada em uma célula interna, descendo o vértice dela para o filho certo.
+     */
+    private void split(int cell) {
+        double quarter = half[cell] / 2;
+        int child = cells;
+        newCell(cellX[cell] - quarter, cellY[cell] - quarter, quarter);
+        newCell(cellX[cell] + quarter, cellY[cell] - quarter, quarter);
+        newCell(cellX[cell] - quarter, cellY[cell] + quarter, quarter);
+        newCell(cellX[cell] + quarter, cellY[cell] + quarter, quarter);
+        firstChild[cell] = child;
+
+        int old = body[cell];
+        body[cell] = -1;
+        int target = child + quadrant(cell, x[old], y[old]);
+        body[target] = old;
+        mass[target] = mass[cell];
+        massX[target] = massX[cell];
+        massY[target] = massY[cell];
+    }
+
+    private int quadrant(int cell, double px, double py) {
+        return (px < cellX[cell] ? 0 : 1) + (py < cellY[cell] ? 0 : 2);
+    }
+
+    private void addMass(int cell, int node, double w) {
+        mass[cell] += w;
+        massX[cell] += w * x[node];
+        massY[cell] += w * y[node];
+    }
+
+    private void newCell(double centerX, double centerY, double halfSide) {
+        if (cells == firstChild.length) {
+            int capacity = cells * 2;
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            body = Arrays.copyOf(body, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            massX = Arrays.copyOf(massX, capacity);
+            massY = Arrays.copyOf(massY, capacity);
+            cellX = Arrays.copyOf(cellX, capacity);
+            cellY = Arrays.copyOf(cellY, capacity);
+            half = Arrays.copyOf(half, capacity);
+        }
+        firstChild[cells] = -1;
+        body[cells] = -1;
+        mass[cells] = 0;
+        massX[cells] = 0;
+        massY[cells] = 0;
+        cellX[cells] = centerX;
+        cellY[cells] = centerY;
+        half[cells] = halfSide;
+        cells++;
+    }
+
+    public int size() {
+        return nodesQuantity;
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+}
@@ -1,42 +1,59 @@
 package org.yoaceng;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 
 /**
- * Classe que representa um grafo como uma matriz de adjacência
- * e faz operações para obter informações sobre o mesmo.
+ * Classe que representa um grafo e faz operações para obter informações sobre o mesmo.
+ * As arestas ficam em um GraphStorage, que pode ser uma matriz de adjacência
+ * (de int ou compactada em bits, para grafos densos) ou CSR (grafos esparsos).
+ *
+ * A classe não é thread-safe. Para consultas concorrentes use uma cópia imutável
+ * (snapshot) ou, com escritas concorrentes, o ConcurrentGraph.
  *
  * @author Cayo Cutrim
  */
 public class Graph {
     private boolean driven;             // Representa se o grafo é dirigido ou não
-    private int[][] adjacencyMatrix;    // Estrutura de dados responsável por armazenar o grafo
-    private Map<String, Integer> nodesIndexes;     // Coleção que mapeia o nome dos vértices e suas posições na estrutura
-    private int nodesCounter;           // Quantidade de vértices
+    private GraphStorage storage;       // Estrutura de dados responsável por armazenar o grafo
+    private NodeSymbolTable nodes;      // Tabela que mapeia o nome dos vértices e suas posições na estrutura (nos dois sentidos)
+    private BiconnectivityAnalyzer analyzer;   // Busca em profundidade reaproveitada entre as análises
+    private IncrementalBiconnectivity incremental;  // Articulações mantidas a cada aresta nova (null = desligado)
+    private DegreeTable degrees;        // Graus de cada vértice, calculados na primeira consulta (null = ainda não)
+    private BlockCutTree blockCutTree;  // Árvore bloco-articulação da última análise (null = desatualizada)
+    private int[] originalIndexes;      // Endereço de cada vértice antes da primeira renumeração (null = nunca renumerado)
+    private long modifications;         // Quantidade de alterações, usada como versão pelo cache de consultas
+    private QueryCache queryCache;      // Resultados de consultas repetidas (null = desligado)
 
-    // Variáveis adicionais para a busca em profundidade
-    private int time;                   // Para marcar o tempo de descoberta de cada vértice
-    private int[] discoveryTime;        // Armazena o tempo de descoberta
-    private int[] low;                  // Armazena o menor índice alcançável
-    private boolean[] visited;          // Marca se um vértice foi visitado ou não
-    private int[] parent;               // Armazena os pais dos vértices na árvore de DFS
+    /**
+     * Cria um grafo sem tamanho pré-definido, armazenado em listas de adjacência
+     * que crescem conforme os vértices e arestas são adicionados.
+     */
+    public Graph(boolean driven) {
+        this(driven, new AdjacencyListStorage());
+    }
 
     public Graph(boolean driven, int nodesQuantity) {
+        this(driven, new BitMatrixStorage(nodesQuantity));
+    }
+
+    public Graph(boolean driven, GraphStorage storage) {
         this.driven = driven;
-        this.adjacencyMatrix = new int[nodesQuantity][nodesQuantity];
-        this.nodesIndexes = new HashMap<>();
-        this.nodesCounter = 0;
+        this.storage = storage;
+        this.nodes = new NodeSymbolTable(storage.capacity());
+        this.analyzer = new BiconnectivityAnalyzer();
     }
 
     /**
      * Identifica e exibe todos os pontos de articulação (vértices de corte) no grafo.
      * Um ponto de articulação é um vértice cuja remoção aumenta o número de componentes conectados no grafo.
-     * Este método utiliza a busca em profundidade (DFS) para identificar tais pontos.
+     * Este método utiliza a busca em profundidade (DFS) iterativa do BiconnectivityAnalyzer para identificar tais pontos.
      *
      * A estratégia para encontrar pontos de articulação é baseada no conceito de tempos de descoberta
      * e valores 'low' durante a execução do DFS. Um vértice 'u' é um ponto de articulação se satisfaz uma das seguintes condições:
@@ -45,76 +62,220 @@ public class Graph {
      *    tem uma aresta de volta para um ancestral de 'u'.
      */
     public void findArticulationPoints() {
-        time = 0;
-        discoveryTime = new int[nodesCounter];
-        low = new int[nodesCounter];
-        visited = new boolean[nodesCounter];
-        parent = new int[nodesCounter];
-        Arrays.fill(parent, -1);
-
-        // Executar DFS em cada vértice não visitado
-        for (int i = 0; i < nodesCounter; i++) {
-            if (!visited[i]) {
-                dfs(i);
-            }
+        // Cada vértice aparece uma única vez, mesmo que tenha vários filhos que o tornem articulação
+        for (int node : getArticulationPoints()) {
+            System.out.println(getNodeName(node) + " é um vértice de articulação");
+        }
+    }
+
+    /**
+     * Identifica e exibe todas as pontes (arestas de corte) do grafo, ou seja,
+     * as arestas cuja remoção aumenta o número de componentes conectados.
+     * Usa a mesma DFS dos pontos de articulação: a aresta u - v da árvore DFS
+     * é uma ponte quando nenhum vértice da subárvore de v tem uma aresta de volta
+     * para u ou para um ancestral de u (low[v] > tempo de descoberta de u).
+     */
+    public void findBridges() {
+        BiconnectivityResult result = analyzeBiconnectivity();
+        String separator = driven ? " -> " : " -- ";
+        for (int i = 0; i < result.getBridgesCount(); i++) {
+            System.out.println(getNodeName(result.getBridgeOrigin(i)) + separator
+                    + getNodeName(result.getBridgeDestiny(i)) + " é uma ponte");
+        }
+        System.out.println("Total de pontes: " + result.getBridgesCount());
+    }
+
+    /**
+     * Retorna as pontes sem imprimir nada.
+     * @return Pares (origem, destino) consecutivos com os endereços dos vértices de cada ponte.
+     */
+    public int[] getBridges() {
+        return analyzeBiconnectivity().getBridges();
+    }
+
+    /**
+     * Retorna a árvore bloco-articulação do grafo, montada a partir de uma análise
+     * de biconectividade e guardada até a próxima alteração (addNode, addEdge, removeEdge).
+     * Disponível apenas para grafos não dirigidos.
+     */
+    public BlockCutTree getBlockCutTree() {
+        if (driven) {
+            throw new IllegalStateException("Árvore bloco-articulação disponível apenas para grafos não dirigidos");
+        }
+        if (blockCutTree == null) {
+            blockCutTree = BlockCutTree.build(analyzeBiconnectivity(), nodes.size());
+        }
+        return blockCutTree;
+    }
+
+    /**
+     * Responde se dois vértices continuam conectados caso um terceiro vértice falhe.
+     * A primeira consulta depois de uma alteração monta a árvore bloco-articulação
+     * em O(V + E); as seguintes custam O(log grau).
+     * @param failed O nome do vértice que falhou.
+     * @param origin O nome de um dos vértices.
+     * @param destiny O nome do outro vértice.
+     * @return Se existe um caminho entre origin e destiny que não passa por failed.
+     */
+    public boolean isConnectedWithout(String failed, String origin, String destiny) {
+        long start = GraphMetrics.start();
+        int failedIndex = nodes.indexOf(failed);
+        int originIndex = nodes.indexOf(origin);
+        int destinyIndex = nodes.indexOf(destiny);
+        boolean connected;
+        if (originIndex == -1 || destinyIndex == -1) {
+            connected = false;
+        } else if (failedIndex == -1) {
+            connected = getBlockCutTree().isConnected(originIndex, destinyIndex);
+        } else {
+            connected = getBlockCutTree().isConnectedWithout(failedIndex, originIndex, destinyIndex);
         }
+        GraphMetrics.stop(GraphMetrics.Operation.CONNECTED_WITHOUT, start);
+        return connected;
     }
 
     /**
-     * Método privado para realizar a busca em profundidade (DFS) a partir de um vértice específico.
-     * Durante a execução da DFS, calcula os tempos de descoberta e os valores 'low' para cada vértice.
-     * Esses valores são utilizados para identificar pontos de articulação.
+     * Retorna os pontos de articulação sem imprimir nada. Caso a manutenção
+     * incremental esteja ligada a resposta vem dela, sem refazer a DFS.
+     * @return Os endereços dos pontos de articulação em ordem crescente, sem repetições.
+     */
+    public int[] getArticulationPoints() {
+        long start = GraphMetrics.start();
+        int[] points = incremental != null ? incremental.getArticulationPoints()
+                                           : analyzeBiconnectivity().getArticulationPoints();
+        GraphMetrics.stop(GraphMetrics.Operation.ARTICULATION_POINTS, start);
+        return points;
+    }
+
+    /**
+     * Executa a busca em profundidade iterativa de Tarjan sobre o grafo e retorna,
+     * em uma única passada, os pontos de articulação (sem repetição), as pontes
+     * e as componentes biconexas. Não imprime nada, podendo ser usado por outros serviços.
      *
-     * @param u O índice do vértice a partir do qual a DFS é iniciada.
-     */
-    private void dfs(int u) {
-        // Marcar o vértice atual como visitado
-        visited[u] = true;
-        discoveryTime[u] = low[u] = ++time; // Definir tempo de descoberta e valor mínimo
-        int children = 0;                  // Contar os filhos na árvore DFS
-
-        // Verificar todos os vértices adjacentes ao vértice atual
-        for (int v = 0; v < nodesCounter; v++) {
-            if (adjacencyMatrix[u][v] != 0) {  // Verifica se existe uma aresta entre u e v
-                if (!visited[v]) {
-                    children++;
-                    parent[v] = u;
-                    dfs(v);  // Chamar DFS recursivamente para o vértice adjacente
-
-                    // Atualizar o valor mínimo do vértice atual
-                    low[u] = Math.min(low[u], low[v]);
-
-                    // Verificar se o vértice atual é um ponto de articulação
-                    // Caso 1: u é a raiz da DFS e tem dois ou mais filhos
-                    if (parent[u] == -1 && children > 1) {
-                        System.out.println(getNodeName(u) + " é um vértice de articulação");
-                    }
+     * @return O resultado da análise, com os vértices representados pelos seus índices.
+     */
+    public BiconnectivityResult analyzeBiconnectivity() {
+        if (queryCache != null) {
+            return queryCache.get(modifications, QueryCache.Query.BICONNECTIVITY, -1,
+                    () -> analyzer.analyze(storage, nodes.size(), this::exists));
+        }
+        return analyzer.analyze(storage, nodes.size(), this::exists);
+    }
+
+    /**
+     * Versão paralela de analyzeBiconnectivity: as componentes conexas são separadas
+     * e analisadas concorrentemente no pool informado. O resultado é o mesmo da versão
+     * sequencial. O grafo não deve ser alterado enquanto a análise estiver em andamento.
+     *
+     * Em digrafos a DFS segue o sentido das arestas, então o que cada busca alcança depende
+     * da ordem das raízes e atravessa as componentes; para manter o mesmo resultado a
+     * análise de digrafos é sempre sequencial.
+     *
+     * @param pool Pool onde a análise será executada (ex.: ForkJoinPool.commonPool()).
+     * @return O resultado da análise, com os vértices representados pelos seus índices.
+     */
+    public BiconnectivityResult analyzeBiconnectivity(ForkJoinPool pool) {
+        if (driven) {
+            return analyzeBiconnectivity();
+        }
+        if (queryCache != null) {
+            return queryCache.get(modifications, QueryCache.Query.BICONNECTIVITY, -1,
+                    () -> analyzer.analyzeParallel(storage, nodes.size(), this::exists, pool));
+        }
+        return analyzer.analyzeParallel(storage, nodes.size(), this::exists, pool);
+    }
 
-                    // Caso 2: Se u não é a raiz e o valor mínimo de um de seus filhos é maior ou igual ao tempo de descoberta de u
-                    if (parent[u] != -1 && low[v] >= discoveryTime[u]) {
-                        System.out.println(getNodeName(u) + " é um vértice de articulação");
+    /**
+     * Liga a manutenção incremental dos pontos de articulação: a partir daqui cada
+     * addEdge atualiza a estrutura bloco-articulação em tempo amortizado quase constante,
+     * e os pontos de articulação podem ser consultados a qualquer momento sem refazer a DFS.
+     * Disponível apenas para grafos não dirigidos.
+     *
+     * @return A estrutura incremental, já preenchida com as arestas atuais.
+     */
+    public IncrementalBiconnectivity enableIncrementalArticulation() {
+        if (driven) {
+            throw new IllegalStateException("Manutenção incremental de articulações disponível apenas para grafos não dirigidos");
+        }
+        if (incremental == null) {
+            IncrementalBiconnectivity structure = new IncrementalBiconnectivity(nodes.size());
+            if (nodes.size() > 0) {
+                structure.addNode(nodes.size() - 1);
+            }
+            for (int u = 0; u < nodes.size(); u++) {
+                for (int e = storage.firstEdge(u); e != -1; e = storage.nextEdge(u, e)) {
+                    int v = storage.edgeTarget(u, e);
+                    if (u < v) {
+                        structure.addEdge(u, v);
                     }
-                } else if (v != parent[u]) {
-                    // Atualiza o valor mínimo de u para o tempo de descoberta de v
-                    low[u] = Math.min(low[u], discoveryTime[v]);
                 }
             }
+            incremental = structure;
         }
+        return incremental;
+    }
+
+    /**
+     * @return A estrutura incremental de articulações ou null caso não esteja ligada.
+     */
+    public IncrementalBiconnectivity getIncrementalBiconnectivity() {
+        return incremental;
+    }
+
+    /**
+     * Liga o cache de resultados de consultas: a análise de biconectividade (usada por
+     * findArticulationPoints, getArticulationPoints, findBridges e getBridges) e os
+     * vizinhos de cada vértice passam a ser calculados uma única vez por versão do grafo.
+     * Qualquer alteração feita pelos métodos do Graph invalida os resultados guardados;
+     * alterações feitas direto na estrutura (getStorage) não são percebidas.
+     * Os graus não são guardados porque já são mantidos em O(1) pela tabela de graus.
+     *
+     * @param maxEntries Quantidade máxima de resultados guardados; acima dela o menos usado é descartado.
+     * @return O cache, que também informa acertos e faltas para ajustar o tamanho.
+     */
+    public QueryCache enableQueryCache(int maxEntries) {
+        if (queryCache == null || queryCache.getMaxEntries() != maxEntries) {
+            queryCache = new QueryCache(maxEntries);
+        }
+        return queryCache;
+    }
+
+    /**
+     * @return O cache de consultas ou null caso não esteja ligado.
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public void disableQueryCache() {
+        queryCache = null;
+    }
+
+    /**
+     * @return Quantidade de alterações feitas no grafo (vértices e arestas adicionados
+     * ou removidos e renumerações). Dois valores iguais indicam que o grafo não mudou.
+     */
+    public long getModificationCount() {
+        return modifications;
     }
 
     /**
      * Retorna o nome do vértice correspondente ao endereço na lista
-     * informado.
+     * informado, em O(1).
      * @param value Valor do vértice no mapeamento vértice - index.
      * @return Nome do vértice.
      */
     public String getNodeName(int value){
-        for(Map.Entry<String, Integer> entry : nodesIndexes.entrySet()) {
-            if(entry.getValue().equals(value)){
-                return entry.getKey();
-            }
-        }
-        return null;
+        return nodes.nameOf(value);
+    }
+
+    /**
+     * Retorna o endereço do vértice na estrutura.
+     * @param node Nome do vértice.
+     * @return Endereço do vértice ou -1 caso ele não exista.
+     */
+    public int getNodeIndex(String node) {
+        return nodes.indexOf(node);
     }
 
     /**
@@ -123,29 +284,231 @@ public class Graph {
      * @param node
      */
     public void addNode(String node) {
-        if (!nodesIndexes.containsKey(node)) {
-            nodesIndexes.put(node, nodesCounter);
-            nodesCounter++;
+        if (nodes.contains(node)) {
+            return;     // O grafo não muda, então os resultados guardados continuam valendo
+        }
+        int index = nodes.add(node);
+        if (index >= storage.capacity()) {
+            // A estrutura cresce dobrando de tamanho, então não é preciso saber a quantidade de vértices antes
+            mutableStorage().ensureCapacity(index + 1);
+        }
+        if (degrees != null) {
+            degrees.ensureCapacity(index + 1);
+        }
+        if (originalIndexes != null) {
+            // Um vértice criado depois da renumeração não tinha endereço antes dela, então fica com o próprio
+            if (index >= originalIndexes.length) {
+                originalIndexes = Arrays.copyOf(originalIndexes, Math.max(index + 1, originalIndexes.length * 2));
+            }
+            originalIndexes[index] = index;
+        }
+        blockCutTree = null;
+        modifications++;
+        if (incremental != null) {
+            incremental.addNode(index);
+        }
+    }
+
+    /**
+     * Remove o vértice e todas as arestas ligadas a ele. O endereço do vértice
+     * na estrutura fica livre e é reaproveitado pelo próximo vértice adicionado.
+     * Em digrafos as arestas que chegam no vértice são procuradas em todos os vértices (O(V)).
+     * @param node O nome do vértice.
+     */
+    public void removeNode(String node) {
+        int index = nodes.indexOf(node);
+        if (index == -1) {
+            return;
+        }
+
+        GraphStorage target = mutableStorage();
+        // Copia os vizinhos antes de remover, pois a remoção invalida os cursores
+        IntList neighbors = new IntList();
+        for (int e = target.firstEdge(index); e != -1; e = target.nextEdge(index, e)) {
+            neighbors.add(target.edgeTarget(index, e));
         }
+        for (int i = 0; i < neighbors.size(); i++) {
+            removeEdge(index, neighbors.get(i));
+        }
+        if (driven) {
+            for (int i = 0; i < nodes.size() && inDegree(index) > 0; i++) {
+                removeEdge(i, index);
+            }
+        }
+        nodes.remove(node);
+        modifications++;
     }
 
     /**
-     * Método para adicionar uma aresta na matriz de adjacência, utilizando
+     * Método para adicionar uma aresta na estrutura do grafo, utilizando
      * o mapeamento de chave valor dos endereços dos nós na matriz e o nó de origem
      * e de destino da aresta.
      * @param origin
      * @param destiny
+     * @throws IllegalArgumentException Caso algum dos vértices não exista no grafo.
      */
     public void addEdge(String origin, String destiny) {
-        int originIndex = nodesIndexes.get(origin);
-        int destinyIndex = nodesIndexes.get(destiny);
+        addEdge(requireNode(origin), requireNode(destiny));
+    }
 
-        adjacencyMatrix[originIndex][destinyIndex] = 1;
+    /**
+     * Adiciona uma aresta a partir dos endereços dos vértices na estrutura.
+     * @param originIndex
+     * @param destinyIndex
+     */
+    public void addEdge(int originIndex, int destinyIndex) {
+        long start = GraphMetrics.start();
+        GraphStorage target = mutableStorage();
+        if (target.addEdge(originIndex, destinyIndex) && degrees != null) {
+            degrees.edgeAdded(originIndex, destinyIndex);
+        }
 
         // Caso não seja um digrafo, adicionar tanto no destino quanto na origem
-        if (!driven) {
-            adjacencyMatrix[destinyIndex][originIndex] = 1;
+        if (!driven && target.addEdge(destinyIndex, originIndex) && degrees != null) {
+            degrees.edgeAdded(destinyIndex, originIndex);
+        }
+
+        if (incremental != null) {
+            incremental.addEdge(originIndex, destinyIndex);
+        }
+        blockCutTree = null;
+        modifications++;
+        GraphMetrics.stop(GraphMetrics.Operation.ADD_EDGE, start);
+    }
+
+    /**
+     * Remove a aresta entre os dois vértices (nos dois sentidos caso não seja um digrafo).
+     * @param origin
+     * @param destiny
+     * @throws IllegalArgumentException Caso algum dos vértices não exista no grafo.
+     */
+    public void removeEdge(String origin, String destiny) {
+        removeEdge(requireNode(origin), requireNode(destiny));
+    }
+
+    /**
+     * Remove uma aresta a partir dos endereços dos vértices na estrutura.
+     * A manutenção incremental de articulações não suporta remoções, então é desligada.
+     * @param originIndex
+     * @param destinyIndex
+     */
+    public void removeEdge(int originIndex, int destinyIndex) {
+        GraphStorage target = mutableStorage();
+        if (target.removeEdge(originIndex, destinyIndex) && degrees != null) {
+            degrees.edgeRemoved(originIndex, destinyIndex);
+        }
+        if (!driven && target.removeEdge(destinyIndex, originIndex) && degrees != null) {
+            degrees.edgeRemoved(destinyIndex, originIndex);
+        }
+        incremental = null;
+        blockCutTree = null;
+        modifications++;
+    }
+
+    /**
+     * Renumera os vértices para melhorar a localidade de memória (ver VertexOrdering).
+     * A estrutura é montada de novo com os novos endereços, já compactada (endereços
+     * livres de vértices removidos são descartados), e a tabela de símbolos acompanha a
+     * renumeração, então os nomes continuam resolvendo normalmente. Endereços obtidos
+     * antes da chamada deixam de valer; getOriginalIndex traduz para a numeração original.
+     * @param strategy A estratégia de ordenação.
+     */
+    public void reorder(VertexOrdering.Strategy strategy) {
+        long start = GraphMetrics.start();
+        int[] order = VertexOrdering.compute(storage, nodes, strategy);
+        int[] newIndex = new int[nodes.size()];
+        for (int i = 0; i < order.length; i++) {
+            newIndex[order[i]] = i;
+        }
+
+        // As arestas já estão nos dois sentidos, então são copiadas como arcos de um digrafo
+        EdgeList edges = new EdgeList(Math.max(storage.edgeCount(), 1));
+        NodeSymbolTable reordered = new NodeSymbolTable(order.length);
+        for (int i = 0; i < order.length; i++) {
+            int old = order[i];
+            reordered.add(nodes.nameOf(old));
+            for (int e = storage.firstEdge(old); e != -1; e = storage.nextEdge(old, e)) {
+                edges.add(i, newIndex[storage.edgeTarget(old, e)]);
+            }
+        }
+
+        int[] original = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            original[i] = originalIndexes == null ? order[i] : originalIndexes[order[i]];
+        }
+
+        storage = GraphStorage.fromEdges(order.length, edges, true);
+        nodes = reordered;
+        originalIndexes = original;
+        degrees = null;
+        blockCutTree = null;
+        modifications++;
+        if (incremental != null) {
+            incremental = null;
+            enableIncrementalArticulation();
+        }
+        GraphMetrics.stop(GraphMetrics.Operation.REORDER, start);
+    }
+
+    /**
+     * Volta o grafo para o conteúdo da cópia imutável, com os mesmos endereços de vértices.
+     * As estruturas derivadas são refeitas como depois de uma renumeração. Usado pelo
+     * ConcurrentGraph para descartar um grupo de alterações que falhou no meio.
+     */
+    void restore(GraphSnapshot snapshot) {
+        String[] names = new String[snapshot.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = snapshot.getNodeName(i);
+        }
+        storage = AdjacencyListStorage.copyOf(snapshot.getStorage());
+        nodes = NodeSymbolTable.of(names);
+        degrees = null;
+        blockCutTree = null;
+        modifications++;
+        if (incremental != null) {
+            incremental = null;
+            enableIncrementalArticulation();
+        }
+    }
+
+    /**
+     * @param nIndex O endereço atual do vértice.
+     * @return O endereço que o vértice tinha antes da primeira renumeração (reorder).
+     * Vértices adicionados depois de uma renumeração ficam com o endereço em que foram criados.
+     */
+    public int getOriginalIndex(int nIndex) {
+        return originalIndexes == null ? nIndex : originalIndexes[nIndex];
+    }
+
+    /**
+     * @return Se o endereço está ocupado por um vértice (os endereços de vértices removidos ficam livres).
+     */
+    private boolean exists(int nIndex) {
+        return nodes.nameOf(nIndex) != null;
+    }
+
+    /**
+     * @return O endereço do vértice.
+     * @throws IllegalArgumentException Caso o vértice não exista no grafo.
+     */
+    private int requireNode(String node) {
+        int index = nodes.indexOf(node);
+        if (index == -1) {
+            throw new IllegalArgumentException("Vértice inexistente: " + node);
         }
+        return index;
+    }
+
+    /**
+     * Retorna a estrutura pronta para ser alterada. O CSR dos carregadores e da renumeração
+     * (e o CSR mapeado do arquivo binário, que é somente leitura) desloca os vetores inteiros
+     * a cada aresta, então é copiado para uma lista de adjacência na primeira alteração.
+     */
+    private GraphStorage mutableStorage() {
+        if (storage instanceof CsrStorage || storage instanceof MappedCsrStorage) {
+            storage = AdjacencyListStorage.copyOf(storage);
+        }
+        return storage;
     }
 
     /**
@@ -155,19 +518,45 @@ public class Graph {
      * @param destiny O nome do vértice de destino.
      */
     public void checkNodesAdjacency(String origin, String destiny){
-        int nxIndex = nodesIndexes.get(origin);
-        int nyIndex = nodesIndexes.get(destiny);
+        if (!nodes.contains(origin) || !nodes.contains(destiny)) {
+            System.out.println("O vértice informado não existe no grafo. Vértices válidos: " + nodes.asMap().keySet());
+            return;
+        }
+
+        checkNodesAdjacency(nodes.indexOf(origin), nodes.indexOf(destiny));
+    }
 
-        boolean isAdjacent = driven ? adjacencyMatrix[nxIndex][nyIndex] != 0 :
-                                      adjacencyMatrix[nxIndex][nyIndex] != 0 && adjacencyMatrix[nyIndex][nxIndex] != 0;
+    /**
+     * Verifica a adjacência entre dois vértices a partir dos seus endereços na estrutura.
+     * @param nxIndex O endereço do vértice de origem.
+     * @param nyIndex O endereço do vértice de destino.
+     */
+    public void checkNodesAdjacency(int nxIndex, int nyIndex){
+        String origin = getNodeName(nxIndex);
+        String destiny = getNodeName(nyIndex);
 
-        if(isAdjacent){
+        if(isAdjacent(nxIndex, nyIndex)){
             System.out.println("Os vértices " + origin + " e " + destiny + " são adjacentes");
         } else{
             System.out.println("Os vértices " + origin + " e " + destiny + " não são adjacentes");
         }
     }
 
+    /**
+     * Verifica a adjacência entre dois vértices sem imprimir nada.
+     * Em digrafos verifica a aresta origem -> destino.
+     * @param nxIndex O endereço do vértice de origem.
+     * @param nyIndex O endereço do vértice de destino.
+     * @return Se os vértices são adjacentes.
+     */
+    public boolean isAdjacent(int nxIndex, int nyIndex) {
+        long start = GraphMetrics.start();
+        boolean adjacent = driven ? storage.hasEdge(nxIndex, nyIndex) :
+                                    storage.hasEdge(nxIndex, nyIndex) && storage.hasEdge(nyIndex, nxIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.IS_ADJACENT, start);
+        return adjacent;
+    }
+
     /**
      * Calcula e exibe o grau de um vértice em um grafo.
      * Para grafos direcionados, exibe graus de emissão e recepção.
@@ -176,48 +565,106 @@ public class Graph {
      * @param node O nome do vértice para calcular o grau.
      */
     public void calculateNodeDegree(String node){
-        if (!nodesIndexes.containsKey(node)) {
-            System.out.println("O vértice informado não existe no grafo obtido. Vértices válidos: " + nodesIndexes.keySet());
+        if (!nodes.contains(node)) {
+            System.out.println("O vértice informado não existe no grafo obtido. Vértices válidos: " + nodes.asMap().keySet());
             return;
         }
 
-        int nIndex= nodesIndexes.get(node);
+        calculateNodeDegree(nodes.indexOf(node));
+    }
+
+    /**
+     * Calcula e exibe o grau de um vértice a partir do seu endereço na estrutura.
+     *
+     * @param nIndex O endereço do vértice para calcular o grau.
+     */
+    public void calculateNodeDegree(int nIndex){
+        String node = getNodeName(nIndex);
 
         // Em caso de digrafo, calcular o gráu de emissão e de recepção
         if(driven){
-            int emissionDegree = 0;
-            int receptionDegree = 0;
-
-            // Quantos 1 tem na linha do nó na matriz
-            for(int i = 0; i < nodesCounter; i++){
-                if(adjacencyMatrix[nIndex][i] != 0){
-                    emissionDegree++;
-                }
-            }
-
-            // Quantos 1 tem na coluna do nó na matriz
-            for(int i = 0; i < nodesCounter; i++){
-                if(adjacencyMatrix[i][nIndex] != 0){
-                    receptionDegree++;
-                }
-            }
+            // Arestas que saem e que chegam no vértice
+            int emissionDegree = outDegree(nIndex);
+            int receptionDegree = inDegree(nIndex);
 
             System.out.println("O grau de emissão do vértice " + node + " é: " + emissionDegree);
             System.out.println("O grau de recepção do vértice " + node + " é: " + receptionDegree);
         } else {
-            int nodeDegree = 0;
             // No caso do grafo não direcionado o grau pode ser definido
-            // tanto pelas linhas quanto pelas colunas
-            for(int i = 0; i < nodesCounter; i++){
-                if(adjacencyMatrix[nIndex][i] != 0){
-                    nodeDegree++;
-                }
-            }
+            // tanto pelas arestas que saem quanto pelas que chegam
+            int nodeDegree = outDegree(nIndex);
 
             System.out.println("O grau do vértice " + node + " é: " + nodeDegree);
         }
     }
 
+    /**
+     * Retorna os graus mantidos a cada alteração. Na primeira consulta eles são
+     * calculados percorrendo a estrutura uma vez; depois disso addEdge, removeEdge
+     * e addNode os atualizam, então toda consulta de grau é O(1).
+     */
+    private DegreeTable degrees() {
+        if (degrees == null) {
+            degrees = new DegreeTable(storage, nodes.size());
+        }
+        return degrees;
+    }
+
+    /**
+     * @param nIndex O endereço do vértice.
+     * @return O grau de emissão do vértice (o grau, para grafos não dirigidos), em O(1).
+     */
+    public int outDegree(int nIndex) {
+        long start = GraphMetrics.start();
+        int degree = degrees().outDegree(nIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.DEGREE, start);
+        return degree;
+    }
+
+    /**
+     * @param nIndex O endereço do vértice.
+     * @return O grau de recepção do vértice (o grau, para grafos não dirigidos), em O(1).
+     */
+    public int inDegree(int nIndex) {
+        long start = GraphMetrics.start();
+        int degree = degrees().inDegree(nIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.DEGREE, start);
+        return degree;
+    }
+
+    /**
+     * Distribuição dos graus de emissão (ou dos graus, para grafos não dirigidos).
+     * @return histogram[d] = quantidade de vértices com grau d.
+     */
+    public int[] getDegreeHistogram() {
+        return degrees().histogram(nodes, false);
+    }
+
+    /**
+     * Distribuição dos graus de recepção.
+     * @return histogram[d] = quantidade de vértices com grau de recepção d.
+     */
+    public int[] getInDegreeHistogram() {
+        return degrees().histogram(nodes, true);
+    }
+
+    /**
+     * Os k vértices de maior grau de emissão (ou de maior grau, para grafos não dirigidos),
+     * em O(V + maior grau).
+     * @return Os endereços dos vértices em ordem decrescente de grau.
+     */
+    public int[] getTopDegreeNodes(int k) {
+        return degrees().top(nodes, k, false);
+    }
+
+    /**
+     * Os k vértices de maior grau de recepção, em O(V + maior grau).
+     * @return Os endereços dos vértices em ordem decrescente de grau de recepção.
+     */
+    public int[] getTopInDegreeNodes(int k) {
+        return degrees().top(nodes, k, true);
+    }
+
     /**
      * Retorna uma lista de vizinhos para um dado vértice.
      * Em um grafo dirigido, retorna todos os vértices sucessores.
@@ -227,104 +674,160 @@ public class Graph {
      * @return Lista de vizinhos do vértice.
      */
     public void nodeNeighborsSearch(String node) {
-        if (!nodesIndexes.containsKey(node)) {
-            System.out.println("O vértice informado não existe no grafo. Vértices válidos: " + nodesIndexes.keySet());
+        if (!nodes.contains(node)) {
+            System.out.println("O vértice informado não existe no grafo. Vértices válidos: " + nodes.asMap().keySet());
             return;
         }
 
-        int nIndex = nodesIndexes.get(node);
-        Set<String> neighbors = new HashSet<>();
+        nodeNeighborsSearch(nodes.indexOf(node));
+    }
 
-        // Para grafos dirigidos, um vértice adjacente é um vértice
-        // para o qual existem arestas saindo do vértice especificado
-        if (driven) {
-            for (int i = 0; i < nodesCounter; i++) {
-                if (adjacencyMatrix[nIndex][i] != 0) { // Destinos
-                    neighbors.add(getNodeName(i));
-                }
-            }
-        } else {
-            // Para grafos não dirigidos, adicionar quaisquer conexões bi-direcionais
-            for (int i = 0; i < nodesCounter; i++) {
-                if (adjacencyMatrix[nIndex][i] != 0 && adjacencyMatrix[i][nIndex] != 0) {
-                    neighbors.add(getNodeName(i));
-                }
-            }
-        }
+    /**
+     * Busca e exibe os vizinhos de um vértice a partir do seu endereço na estrutura.
+     *
+     * @param nIndex O endereço do vértice.
+     */
+    public void nodeNeighborsSearch(int nIndex) {
+        String node = getNodeName(nIndex);
+        List<String> neighbors = queryCache == null ? neighborNames(nIndex) :
+                queryCache.get(modifications, QueryCache.Query.NEIGHBORS, nIndex, () -> neighborNames(nIndex));
 
         // Imprimir os vizinhos
         System.out.println("Vizinhos do vértice " + node + ": " + neighbors);
     }
 
     /**
-     * Imprime todas as arestas do grafo.
+     * @return Os nomes dos vizinhos do vértice, em uma lista imutável.
      */
-    public void printAllEdges() {
-        if (driven) {
-            // Para grafos dirigidos
-            for (int i = 0; i < nodesCounter; i++) {
-                for (int j = 0; j < nodesCounter; j++) {
-                    if (adjacencyMatrix[i][j] != 0) {
-                        System.out.println(getNodeName(i) + " -> " + getNodeName(j));
-                    }
-                }
-            }
-        } else {
-            // Para grafos não dirigidos
-            for (int i = 0; i < nodesCounter; i++) {
-                for (int j = i; j < nodesCounter; j++) {
-                    if (adjacencyMatrix[i][j] != 0 && adjacencyMatrix[j][i] != 0) {
-                        System.out.println(getNodeName(i) + " -- " + getNodeName(j));
-                    }
+    private List<String> neighborNames(int nIndex) {
+        List<String> neighbors = new ArrayList<>(outDegree(nIndex));
+        forEachNeighbor(nIndex, neighbor -> neighbors.add(getNodeName(neighbor)));
+        return Collections.unmodifiableList(neighbors);
+    }
+
+    /**
+     * Executa a ação para cada vizinho do vértice, sem criar objetos.
+     * Para grafos dirigidos, um vértice adjacente é um vértice
+     * para o qual existem arestas saindo do vértice especificado.
+     * Para grafos não dirigidos as arestas são guardadas nos dois sentidos,
+     * então as arestas que saem já são todas as conexões.
+     * @param nIndex O endereço do vértice.
+     * @param action Recebe o endereço de cada vizinho.
+     */
+    public void forEachNeighbor(int nIndex, IntConsumer action) {
+        long start = GraphMetrics.start();
+        storage.forEachNeighbor(nIndex, action);
+        GraphMetrics.stop(GraphMetrics.Operation.NEIGHBORS, start);
+    }
+
+    /**
+     * Executa a ação para cada aresta do grafo, sem criar objetos.
+     * Em grafos não dirigidos cada aresta é visitada uma única vez, com origem <= destino.
+     * @param action Recebe os endereços da origem e do destino de cada aresta.
+     */
+    public void forEachEdge(EdgeConsumer action) {
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                int j = storage.edgeTarget(i, e);
+                if (driven || j >= i) {
+                    action.accept(i, j);
                 }
             }
         }
     }
 
     /**
-     * Converte a matriz de adjacência em uma lista de adjacência e salva em um arquivo.
+     * Imprime todas as arestas do grafo através do buffer do GraphExporter,
+     * sem uma chamada ao console por aresta.
+     */
+    public void printAllEdges() {
+        try (GraphExporter exporter = GraphExporter.toConsole()) {
+            exporter.writeEdges(this, driven ? " -> " : " -- ");
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao imprimir as arestas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte o grafo em uma lista de adjacência e salva em um arquivo.
      * Utilizado para a geração de um novo arquivo de texto contendo
      * essa estrutura de dados, não é exatamente necessário no escopo
      * desse projeto, pois a biblioteca jgraphx aceita matriz de adjacencia
      * como estrutura de dados também, mas a conversão é feita pois foi
      * requisitado pelo professor.
+     * A lista é escrita em UTF-8 enquanto a estrutura é percorrida (ver GraphExporter),
+     * sem montar o mapa de toAdjacencyList em memória.
      * @param filename O nome do arquivo para salvar a lista de adjacência.
      */
     public void saveAdjacencyListToFile(String filename) {
-        // Transforma a matriz de adjacencia em uma lista de adjacencia
-        Map<String, List<String>> adjacencyList = toAdjacencyList();
-        File file = new File(filename);
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) { // 'false' para não adicionar ao final do arquivo (sobrescrever)
-            // Escreve 'D' para grafo dirigido ou 'ND' para grafo não dirigido
-            writer.write(driven ? "D" : "ND");
-            writer.newLine();
-
-            for (Map.Entry<String, List<String>> entry : adjacencyList.entrySet()) {
-                String line = entry.getKey() + ": " + String.join(", ", entry.getValue());
-                writer.write(line);
-                writer.newLine();
-            }
+        try (GraphExporter exporter = GraphExporter.toFile(filename)) {
+            exporter.export(this, GraphExporter.Format.ADJACENCY_LIST);
         } catch (IOException e) {
             System.err.println("Ocorreu um erro ao salvar a lista de adjacência: " + e.getMessage());
         }
     }
 
     /**
-     * Converte a matriz de adjacência em uma lista de adjacência.
+     * Versão assíncrona de saveAdjacencyListToFile: uma cópia imutável do grafo é feita
+     * agora (O(V + E)) e o arquivo é gravado a partir dela no executor informado, então
+     * quem chamou não espera a escrita e pode continuar usando e alterando o grafo.
+     * @param filename O nome do arquivo para salvar a lista de adjacência.
+     * @param executor Onde a escrita será feita.
+     * @return Conclui quando o arquivo estiver gravado (ou com a falha da gravação).
+     */
+    public CompletableFuture<Void> saveAdjacencyListToFileAsync(String filename, Executor executor) {
+        GraphSnapshot copy = snapshot();
+        return CompletableFuture.runAsync(() -> {
+            try (GraphExporter exporter = GraphExporter.toFile(filename)) {
+                exporter.export(copy, GraphExporter.Format.ADJACENCY_LIST);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Salva o grafo no formato informado (lista de arestas, lista de adjacência, DOT ou GraphML).
+     * @param filename O nome do arquivo (sobrescrito caso exista).
+     * @param format O formato do arquivo.
+     */
+    public void exportToFile(String filename, GraphExporter.Format format) {
+        try (GraphExporter exporter = GraphExporter.toFile(filename)) {
+            exporter.export(this, format);
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao exportar o grafo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Salva o grafo no formato binário (ver GraphBinaryFormat), que pode ser
+     * carregado quase instantaneamente por GraphReader.readGraphFromBinaryFile.
+     * @param filename O nome do arquivo para salvar o grafo.
+     */
+    public void saveBinaryFile(String filename) {
+        try {
+            GraphBinaryFormat.write(this, filename);
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao salvar o grafo em formato binário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte o grafo em uma lista de adjacência.
      * @return A lista de adjacência do grafo.
      */
     public Map<String, List<String>> toAdjacencyList() {
         Map<String, List<String>> adjacencyList = new HashMap<>();
 
-        for (String node : nodesIndexes.keySet()) {
-            int nodeIndex = nodesIndexes.get(node);
+        for (int nodeIndex = 0; nodeIndex < nodes.size(); nodeIndex++) {
+            String node = getNodeName(nodeIndex);
+            if (node == null) {
+                continue;   // Endereço de um vértice removido
+            }
             List<String> adjacentNodes = new ArrayList<>();
 
-            for (int i = 0; i < adjacencyMatrix[nodeIndex].length; i++) {
-                if (adjacencyMatrix[nodeIndex][i] != 0) {
-                    adjacentNodes.add(getNodeName(i));
-                }
+            for (int e = storage.firstEdge(nodeIndex); e != -1; e = storage.nextEdge(nodeIndex, e)) {
+                adjacentNodes.add(getNodeName(storage.edgeTarget(nodeIndex, e)));
             }
 
             adjacencyList.put(node, adjacentNodes);
@@ -334,32 +837,86 @@ public class Graph {
     }
 
     /**
-     * Percorre as colunas e linhas da matriz e imprime-a
-     * no console.
+     * Percorre as linhas da matriz e imprime-a no console, uma linha
+     * inteira por vez através do buffer do GraphExporter.
      */
     public void printGraph() {
         System.out.println("Matriz de adjacência:");
-        for (int i = 0; i < nodesCounter; i++) {
-            for (int j = 0; j < nodesCounter; j++) {
-                System.out.print(adjacencyMatrix[i][j] + " ");
-            }
-            System.out.println();
+        try (GraphExporter exporter = GraphExporter.toConsole()) {
+            exporter.writeMatrix(this);
+        } catch (IOException e) {
+            System.err.println("Ocorreu um erro ao imprimir a matriz: " + e.getMessage());
         }
     }
 
+    /**
+     * Fecho transitivo do grafo (ver MatrixAlgebra.transitiveClosure): responde "existe
+     * caminho de A até B?" para todos os pares de uma vez, em vez de uma busca por vértice.
+     * @return A matriz de alcançabilidade, indexada pelos endereços dos vértices.
+     */
+    public BitMatrixStorage getTransitiveClosure() {
+        return MatrixAlgebra.transitiveClosure(storage, nodes.size(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param length Quantidade de arestas dos caminhos.
+     * @return counts[i][j] = quantidade de caminhos de i até j com exatamente length arestas (A^length).
+     */
+    public long[][] countPaths(int length) {
+        return MatrixAlgebra.pathCounts(storage, nodes.size(), length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return common[i][j] = quantidade de vizinhos em comum entre i e j (A · Aᵀ).
+     */
+    public int[][] getCommonNeighborCounts() {
+        return MatrixAlgebra.commonNeighbors(storage, nodes.size(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria uma cópia imutável do grafo que pode ser consultada por várias threads
+     * ao mesmo tempo (ver GraphSnapshot e BatchQueryExecutor).
+     */
+    public GraphSnapshot snapshot() {
+        return GraphSnapshot.of(this);
+    }
+
     public boolean isDriven() {
         return driven;
     }
 
+    /**
+     * Retorna a matriz de adjacência do grafo. Caso o grafo não esteja
+     * armazenado como matriz, uma matriz nova é montada a partir da estrutura.
+     * @return Matriz de adjacência.
+     */
     public int[][] getAdjacencyMatrix() {
+        if (storage instanceof AdjacencyMatrixStorage) {
+            return ((AdjacencyMatrixStorage) storage).getAdjacencyMatrix();
+        }
+
+        int[][] adjacencyMatrix = new int[storage.capacity()][storage.capacity()];
+        for (int i = 0; i < storage.capacity(); i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                adjacencyMatrix[i][storage.edgeTarget(i, e)] = 1;
+            }
+        }
         return adjacencyMatrix;
     }
 
+    public GraphStorage getStorage() {
+        return storage;
+    }
+
     public Map<String, Integer> getNodesIndexes() {
-        return nodesIndexes;
+        return nodes.asMap();
+    }
+
+    public NodeSymbolTable getNodes() {
+        return nodes;
     }
 
     public int getNodesCounter() {
-        return nodesCounter;
+        return nodes.count();
     }
 }
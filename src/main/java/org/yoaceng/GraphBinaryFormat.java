@@ -0,0 +1,236 @@
+package org.yoaceng;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Formato binário versionado do grafo, pensado para ser carregado quase
+ * instantaneamente mapeando o arquivo em memória, sem precisar interpretar texto.
+ *
+ * Layout (inteiros de 32 bits little-endian):
+ * <pre>
+ * cabeçalho:   MAGIC, VERSION, flags (bit 0 = dirigido), vértices V, arestas E, bytes dos nomes N
+ * nomes:       int[V + 1] início de cada nome, byte[N] nomes em UTF-8, completado até múltiplo de 4
+ * CSR:         int[V + 1] offsets, int[E] targets (vizinhos ordenados de cada vértice)
+ * </pre>
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphBinaryFormat {
+    static final int MAGIC = 0x52474d41;   // "AMGR" em little-endian
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int FLAG_DRIVEN = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private GraphBinaryFormat() {
+    }
+
+    /**
+     * Grava o grafo no formato binário. Os vizinhos são escritos direto da estrutura
+     * do grafo através de um buffer de tamanho fixo. Endereços de vértices removidos
+     * são descartados, renumerando os vértices restantes na mesma ordem.
+     * @param graph O grafo a ser gravado.
+     * @param filename O nome do arquivo (sobrescrito caso exista).
+     */
+    public static void write(Graph graph, String filename) throws IOException {
+        GraphStorage storage = graph.getStorage();
+        int indexLimit = graph.getNodes().size();
+        int nodesQuantity = graph.getNodesCounter();
+
+        // Novo índice de cada vértice existente, mantendo a ordem original
+        int[] newIndex = new int[indexLimit];
+        int[] oldIndex = new int[nodesQuantity];
+        byte[][] names = new byte[nodesQuantity][];
+        int namesLength = 0;
+        int edges = 0;
+        for (int i = 0, next = 0; i < indexLimit; i++) {
+            String name = graph.getNodeName(i);
+            newIndex[i] = name == null ? -1 : next;
+            if (name != null) {
+                oldIndex[next] = i;
+                names[next] = name.getBytes(StandardCharsets.UTF_8);
+                namesLength += names[next].length;
+                edges += storage.outDegree(i);
+                next++;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(graph.isDriven() ? FLAG_DRIVEN : 0)
+                  .putInt(nodesQuantity).putInt(edges).putInt(namesLength);
+
+            // Tabela de nomes
+            int position = 0;
+            for (int i = 0; i <= nodesQuantity; i++) {
+                putInt(channel, buffer, position);
+                position += i < nodesQuantity ? names[i].length : 0;
+            }
+            for (byte[] name : names) {
+                for (byte b : name) {
+                    if (!buffer.hasRemaining()) {
+                        flush(channel, buffer);
+                    }
+                    buffer.put(b);
+                }
+            }
+            for (int i = namesLength; i % Integer.BYTES != 0; i++) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.put((byte) 0);
+            }
+
+            // CSR: offsets e depois os destinos
+            position = 0;
+            for (int i = 0; i <= nodesQuantity; i++) {
+                putInt(channel, buffer, position);
+                position += i < nodesQuantity ? storage.outDegree(oldIndex[i]) : 0;
+            }
+            // Nem toda estrutura guarda os vizinhos ordenados, então cada linha é ordenada antes de gravar
+            int[] row = new int[16];
+            for (int i = 0; i < nodesQuantity; i++) {
+                int node = oldIndex[i];
+                int degree = 0;
+                for (int e = storage.firstEdge(node); e != -1; e = storage.nextEdge(node, e)) {
+                    if (degree == row.length) {
+                        row = Arrays.copyOf(row, degree * 2);
+                    }
+                    row[degree++] = newIndex[storage.edgeTarget(node, e)];
+                }
+                Arrays.sort(row, 0, degree);
+                for (int j = 0; j < degree; j++) {
+                    putInt(channel, buffer, row[j]);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Carrega um grafo gravado por write. O arquivo é mapeado em memória e
+     * a estrutura (MappedCsrStorage) lê os offsets e destinos direto do mapeamento;
+     * somente os nomes são convertidos para a tabela de símbolos. As tabelas de início
+     * dos nomes e dos vizinhos e os destinos são conferidos antes do uso, então um
+     * arquivo corrompido é recusado aqui e não em uma consulta posterior.
+     * @param filePath O caminho do arquivo.
+     * @return O grafo carregado.
+     * @throws IOException Caso o arquivo não possa ser lido, não esteja no formato,
+     * esteja truncado ou corrompido ou repita o nome de um vértice.
+     */
+    public static Graph read(String filePath) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo binário maior que 2 GB não suportado: " + filePath);
+            }
+            // O mapeamento continua válido depois que o canal é fechado
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("O arquivo não está no formato binário do grafo: " + filePath);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Versão do formato binário não suportada: " + version);
+        }
+        boolean driven = (buffer.getInt(8) & FLAG_DRIVEN) != 0;
+        int nodesQuantity = buffer.getInt(12);
+        int edges = buffer.getInt(16);
+        int namesLength = buffer.getInt(20);
+        if (nodesQuantity < 0 || edges < 0 || namesLength < 0) {
+            throw new IOException("Cabeçalho do arquivo binário inválido: " + filePath);
+        }
+
+        // Calculado em long para que valores absurdos no cabeçalho não deem a volta no int
+        long nameOffsetsStart = HEADER_SIZE;
+        long namesStart = nameOffsetsStart + (nodesQuantity + 1L) * Integer.BYTES;
+        long offsetsStart = namesStart + ((namesLength + 3L) & ~3L);
+        long targetsStart = offsetsStart + (nodesQuantity + 1L) * Integer.BYTES;
+        if (targetsStart + (long) edges * Integer.BYTES > buffer.capacity()) {
+            throw new IOException("Arquivo binário truncado: " + filePath);
+        }
+
+        IntBuffer nameOffsets = intView(buffer, (int) nameOffsetsStart, nodesQuantity + 1);
+        IntBuffer offsets = intView(buffer, (int) offsetsStart, nodesQuantity + 1);
+        IntBuffer targets = intView(buffer, (int) targetsStart, edges);
+        checkOffsets(nameOffsets, nodesQuantity, namesLength, "nomes", filePath);
+        checkOffsets(offsets, nodesQuantity, edges, "vizinhos", filePath);
+        for (int e = 0; e < edges; e++) {
+            if (targets.get(e) < 0 || targets.get(e) >= nodesQuantity) {
+                throw new IOException("Vizinho fora dos vértices do arquivo binário: " + targets.get(e));
+            }
+        }
+        Graph graph = new Graph(driven, new MappedCsrStorage(offsets, targets, nodesQuantity));
+
+        byte[] name = new byte[64];
+        for (int i = 0; i < nodesQuantity; i++) {
+            int start = nameOffsets.get(i);
+            int length = nameOffsets.get(i + 1) - start;
+            if (length > name.length) {
+                name = new byte[Math.max(length, name.length * 2)];
+            }
+            for (int b = 0; b < length; b++) {
+                name[b] = buffer.get((int) namesStart + start + b);
+            }
+            String node = new String(name, 0, length, StandardCharsets.UTF_8);
+            graph.addNode(node);
+            // addNode ignora nomes repetidos, o que deslocaria os índices de todos os vértices seguintes
+            if (graph.getNodesCounter() != i + 1) {
+                throw new IOException("Vértice repetido no arquivo binário: " + node);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Confere uma tabela de início de cada trecho: começa em 0, nunca diminui e termina
+     * no total informado, para que nenhum trecho saia da área correspondente do arquivo.
+     */
+    private static void checkOffsets(IntBuffer offsets, int nodesQuantity, int total, String table,
+                                     String filePath) throws IOException {
+        if (offsets.get(0) != 0 || offsets.get(nodesQuantity) != total) {
+            throw new IOException("Tabela de " + table + " inválida no arquivo binário: " + filePath);
+        }
+        for (int i = 0; i < nodesQuantity; i++) {
+            if (offsets.get(i + 1) < offsets.get(i)) {
+                throw new IOException("Tabela de " + table + " inválida no arquivo binário: " + filePath);
+            }
+        }
+    }
+
+    private static IntBuffer intView(ByteBuffer buffer, int start, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.limit(start + length * Integer.BYTES);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
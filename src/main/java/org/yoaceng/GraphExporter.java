@@ -0,0 +1,530 @@
+package org.yoaceng;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * Grava o grafo em texto percorrendo a estrutura diretamente, sem montar a saída
+ * em memória: tudo passa por um único buffer de bytes reaproveitado, que é
+ * descarregado no canal (arquivo ou console) sempre que enche. Os nomes são
+ * codificados em UTF-8 direto no buffer, sem criar Strings ou vetores por linha.
+ *
+ * Arquivos são sempre gravados em UTF-8 com '\n' no fim das linhas. No console
+ * o texto é codificado no charset do console e as linhas terminam com
+ * System.lineSeparator(), para que os nomes apareçam certos também em terminais
+ * que não usam UTF-8 (ex.: o console do Windows).
+ *
+ * Formatos:
+ * <pre>
+ * EDGE_LIST       "D" ou "ND" e uma linha "origem, destino" por aresta (o formato do graph.txt;
+ *                 vértices sem arestas não aparecem)
+ * ADJACENCY_LIST  "D" ou "ND" e uma linha "vértice: vizinho, vizinho, ..." por vértice
+ * DOT             Graphviz (graph/digraph), com todos os vértices declarados
+ * GRAPHML         XML do GraphML, com o nome de cada vértice no atributo "name"
+ * </pre>
+ *
+ * Também aceita uma GraphSnapshot, para gravar em segundo plano uma cópia
+ * consistente enquanto o grafo continua em uso.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphExporter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public enum Format {
+        EDGE_LIST,
+        ADJACENCY_LIST,
+        DOT,
+        GRAPHML
+    }
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;     // O console não é fechado, apenas descarregado
+    private final Charset charset;
+    private final CharsetEncoder encoder;   // Usado só para charsets diferentes de UTF-8 (null = UTF-8)
+    private final byte[] lineSeparator;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+
+    public GraphExporter(WritableByteChannel channel) {
+        this(channel, true, StandardCharsets.UTF_8, "\n");
+    }
+
+    /**
+     * @param charset Codificação do texto; números e a pontuação dos formatos são escritos
+     * como ASCII, então o charset tem que ser compatível com ASCII.
+     * @param lineSeparator Fim de linha usado no lugar de cada '\n' dos formatos.
+     */
+    GraphExporter(WritableByteChannel channel, boolean closeChannel, Charset charset, String lineSeparator) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.charset = charset;
+        this.encoder = charset.equals(StandardCharsets.UTF_8) ? null : charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.lineSeparator = lineSeparator.getBytes(charset);
+    }
+
+    /**
+     * @param filename O nome do arquivo (sobrescrito caso exista).
+     */
+    public static GraphExporter toFile(String filename) throws IOException {
+        return new GraphExporter(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Saída no console (System.out), no charset do console e com o fim de linha do sistema.
+     * Fechar o exportador apenas descarrega o buffer.
+     */
+    public static GraphExporter toConsole() {
+        return new GraphExporter(Channels.newChannel(System.out), false, consoleCharset(), System.lineSeparator());
+    }
+
+    /**
+     * O charset usado pelo System.out: stdout.encoding (Java 19+), sun.stdout.encoding
+     * (definido quando a saída é o console do Windows) ou o charset padrão da JVM.
+     */
+    static Charset consoleCharset() {
+        for (String property : new String[] {"stdout.encoding", "sun.stdout.encoding"}) {
+            String name = System.getProperty(property);
+            try {
+                if (name != null && Charset.isSupported(name)) {
+                    return Charset.forName(name);
+                }
+            } catch (IllegalArgumentException e) {
+                // Nome de charset inválido, tenta a próxima opção
+            }
+        }
+        return Charset.defaultCharset();
+    }
+
+    /**
+     * Grava o grafo inteiro no formato informado.
+     */
+    public void export(Graph graph, Format format) throws IOException {
+        export(Source.of(graph), format);
+    }
+
+    /**
+     * Grava a cópia imutável no formato informado; pode ser feito em outra thread
+     * enquanto o grafo original continua sendo usado.
+     */
+    public void export(GraphSnapshot snapshot, Format format) throws IOException {
+        export(Source.of(snapshot), format);
+    }
+
+    private void export(Source graph, Format format) throws IOException {
+        switch (format) {
+            case EDGE_LIST:
+                writeHeader(graph);
+                writeEdges(graph, ", ");
+                break;
+            case ADJACENCY_LIST:
+                writeHeader(graph);
+                writeAdjacencyList(graph);
+                break;
+            case DOT:
+                writeDot(graph);
+                break;
+            case GRAPHML:
+                writeGraphMl(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Formato desconhecido: " + format);
+        }
+    }
+
+    private void writeHeader(Source graph) throws IOException {
+        write(graph.driven ? "D" : "ND");
+        writeLineSeparator();
+    }
+
+    /**
+     * Uma linha "origem&lt;separator&gt;destino" por aresta, sem cabeçalho.
+     * Em grafos não dirigidos cada aresta aparece uma única vez.
+     */
+    public void writeEdges(Graph graph, String separator) throws IOException {
+        writeEdges(Source.of(graph), separator);
+    }
+
+    private void writeEdges(Source graph, String separator) throws IOException {
+        GraphStorage storage = graph.storage;
+        int nodesQuantity = graph.nodesQuantity;
+        for (int i = 0; i < nodesQuantity; i++) {
+            String origin = graph.nameOf(i);
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                int j = storage.edgeTarget(i, e);
+                if (graph.driven || j >= i) {
+                    write(origin);
+                    write(separator);
+                    write(graph.nameOf(j));
+                    writeLineSeparator();
+                }
+            }
+        }
+    }
+
+    private void writeAdjacencyList(Source graph) throws IOException {
+        GraphStorage storage = graph.storage;
+        int nodesQuantity = graph.nodesQuantity;
+        for (int i = 0; i < nodesQuantity; i++) {
+            String node = graph.nameOf(i);
+            if (node == null) {
+                continue;   // Endereço de um vértice removido
+            }
+            write(node);
+            write(": ");
+            String separator = "";
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                write(separator);
+                write(graph.nameOf(storage.edgeTarget(i, e)));
+                separator = ", ";
+            }
+            writeLineSeparator();
+        }
+    }
+
+    /**
+     * Matriz de adjacência com "0 " ou "1 " por célula, uma linha por vértice existente.
+     * Cada linha é montada a partir dos vizinhos (O(grau)) em vez de testar as V células,
+     * e escrita de uma vez.
+     */
+    public void writeMatrix(Graph graph) throws IOException {
+        writeMatrix(Source.of(graph));
+    }
+
+    private void writeMatrix(Source graph) throws IOException {
+        GraphStorage storage = graph.storage;
+        int nodesQuantity = graph.nodesQuantity;
+
+        // Coluna de cada endereço, pulando os endereços livres
+        int[] column = new int[nodesQuantity];
+        int columns = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            column[i] = graph.nameOf(i) != null ? columns++ : -1;
+        }
+        byte[] row = new byte[2 * columns + lineSeparator.length];
+        for (int c = 0; c < columns; c++) {
+            row[2 * c] = '0';
+            row[2 * c + 1] = ' ';
+        }
+        System.arraycopy(lineSeparator, 0, row, 2 * columns, lineSeparator.length);
+
+        for (int i = 0; i < nodesQuantity; i++) {
+            if (column[i] == -1) {
+                continue;   // Endereços de vértices removidos não aparecem na matriz
+            }
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                row[2 * column[storage.edgeTarget(i, e)]] = '1';
+            }
+            write(row, 0, row.length);
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                row[2 * column[storage.edgeTarget(i, e)]] = '0';
+            }
+        }
+    }
+
+    private void writeDot(Source graph) throws IOException {
+        write(graph.driven ? "digraph G {\n" : "graph G {\n");
+        int nodesQuantity = graph.nodesQuantity;
+        for (int i = 0; i < nodesQuantity; i++) {
+            String node = graph.nameOf(i);
+            if (node != null) {
+                write("  ");
+                writeDotId(node);
+                write(";\n");
+            }
+        }
+
+        GraphStorage storage = graph.storage;
+        String separator = graph.driven ? " -> " : " -- ";
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                int j = storage.edgeTarget(i, e);
+                if (graph.driven || j >= i) {
+                    write("  ");
+                    writeDotId(graph.nameOf(i));
+                    write(separator);
+                    writeDotId(graph.nameOf(j));
+                    write(";\n");
+                }
+            }
+        }
+        write("}\n");
+    }
+
+    private void writeDotId(String name) throws IOException {
+        write('"');
+        for (int i = 0; i < name.length(); i += Character.charCount(name.codePointAt(i))) {
+            int c = name.codePointAt(i);
+            if (c == '"' || c == '\\') {
+                write('\\');
+            }
+            writeCodePoint(c);
+        }
+        write('"');
+    }
+
+    private void writeGraphMl(Source graph) throws IOException {
+        write("<?xml version=\"1.0\" encoding=\"" + charset.name() + "\"?>\n");
+        write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+        write("  <key id=\"name\" for=\"node\" attr.name=\"name\" attr.type=\"string\"/>\n");
+        write(graph.driven ? "  <graph id=\"G\" edgedefault=\"directed\">\n"
+                               : "  <graph id=\"G\" edgedefault=\"undirected\">\n");
+
+        int nodesQuantity = graph.nodesQuantity;
+        for (int i = 0; i < nodesQuantity; i++) {
+            String node = graph.nameOf(i);
+            if (node != null) {
+                write("    <node id=\"n");
+                writeInt(i);
+                write("\"><data key=\"name\">");
+                writeXmlText(node);
+                write("</data></node>\n");
+            }
+        }
+
+        GraphStorage storage = graph.storage;
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                int j = storage.edgeTarget(i, e);
+                if (graph.driven || j >= i) {
+                    write("    <edge source=\"n");
+                    writeInt(i);
+                    write("\" target=\"n");
+                    writeInt(j);
+                    write("\"/>\n");
+                }
+            }
+        }
+        write("  </graph>\n</graphml>\n");
+    }
+
+    private void writeXmlText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            int c = text.codePointAt(i);
+            switch (c) {
+                case '&':
+                    write("&amp;");
+                    break;
+                case '<':
+                    write("&lt;");
+                    break;
+                case '>':
+                    write("&gt;");
+                    break;
+                case '"':
+                    write("&quot;");
+                    break;
+                default:
+                    writeCodePoint(c);
+            }
+        }
+    }
+
+    /**
+     * Codifica o texto direto no buffer (em UTF-8, sem passar pelo CharsetEncoder),
+     * trocando cada '\n' pelo fim de linha do exportador.
+     */
+    public void write(String text) throws IOException {
+        if (encoder != null) {
+            encode(text);
+            return;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                writeLineSeparator();
+            } else if (c < 0x80) {
+                if (position == BUFFER_SIZE) {
+                    drain();
+                }
+                bytes[position++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+            } else {
+                write(c);
+            }
+        }
+    }
+
+    private void write(char c) throws IOException {
+        writeCodePoint(c);
+    }
+
+    private void writeLineSeparator() throws IOException {
+        write(lineSeparator, 0, lineSeparator.length);
+    }
+
+    /**
+     * Codifica o texto no charset do exportador, linha a linha, com o CharsetEncoder.
+     * Caracteres que não existem no charset viram o caractere de substituição dele.
+     */
+    private void encode(String text) throws IOException {
+        int start = 0;
+        for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', start)) {
+            encode(CharBuffer.wrap(text, start, i));
+            writeLineSeparator();
+            start = i + 1;
+        }
+        encode(CharBuffer.wrap(text, start, text.length()));
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        CoderResult result;
+        do {
+            buffer.clear();
+            buffer.position(position);
+            result = encoder.encode(chars, buffer, true);
+            position = buffer.position();
+            if (result.isOverflow()) {
+                drain();
+            }
+        } while (result.isOverflow());
+        do {
+            buffer.clear();
+            buffer.position(position);
+            result = encoder.flush(buffer);
+            position = buffer.position();
+            if (result.isOverflow()) {
+                drain();
+            }
+        } while (result.isOverflow());
+        encoder.reset();
+    }
+
+    private void writeCodePoint(int codePoint) throws IOException {
+        if (encoder != null) {
+            encode(new String(Character.toChars(codePoint)));
+            return;
+        }
+        if (BUFFER_SIZE - position < 4) {
+            drain();
+        }
+        if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            codePoint = '?';    // Surrogates sozinhos não são válidos em UTF-8
+        }
+        if (codePoint < 0x80) {
+            bytes[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            bytes[position++] = (byte) (0xC0 | codePoint >> 6);
+            bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            bytes[position++] = (byte) (0xE0 | codePoint >> 12);
+            bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else {
+            bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        if (BUFFER_SIZE - position < 11) {
+            drain();
+        }
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;     // Os endereços nunca são Integer.MIN_VALUE
+        }
+        int start = position;
+        do {
+            bytes[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte swap = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = swap;
+        }
+    }
+
+    private void write(byte[] source, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == BUFFER_SIZE) {
+                drain();
+            }
+            int count = Math.min(length, BUFFER_SIZE - position);
+            System.arraycopy(source, offset, bytes, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Escreve o conteúdo do buffer no canal e o esvazia.
+     */
+    private void drain() throws IOException {
+        buffer.clear().limit(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        position = 0;
+    }
+
+    public void flush() throws IOException {
+        drain();
+        if (!closeChannel) {
+            System.out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * O que os formatos precisam do grafo ou da cópia imutável: a estrutura e os nomes.
+     */
+    private static final class Source {
+        final boolean driven;
+        final GraphStorage storage;
+        final int nodesQuantity;            // Limite dos endereços
+        final IntFunction<String> names;    // Endereço -> nome (null = endereço livre)
+
+        private Source(boolean driven, GraphStorage storage, int nodesQuantity, IntFunction<String> names) {
+            this.driven = driven;
+            this.storage = storage;
+            this.nodesQuantity = nodesQuantity;
+            this.names = names;
+        }
+
+        static Source of(Graph graph) {
+            return new Source(graph.isDriven(), graph.getStorage(), graph.getNodes().size(), graph::getNodeName);
+        }
+
+        static Source of(GraphSnapshot snapshot) {
+            return new Source(snapshot.isDriven(), snapshot.getStorage(), snapshot.size(), snapshot::getNodeName);
+        }
+
+        String nameOf(int nIndex) {
+            return names.apply(nIndex);
+        }
+    }
+}
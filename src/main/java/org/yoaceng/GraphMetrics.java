@@ -0,0 +1,286 @@
+package org.yoaceng;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Medições das operações do grafo: quantidade e latência de cada operação
+ * (histograma sem travas, ver LatencyHistogram) e os totais das análises de
+ * biconectividade (vértices visitados, arestas percorridas, maior profundidade da DFS).
+ *
+ * As medições ficam desligadas por padrão e são ligadas ao iniciar a JVM com
+ * -Dyoaceng.metrics=true. A opção é lida uma única vez para uma constante
+ * (static final), então com ela desligada o JIT remove as chamadas de start e
+ * stop dos métodos medidos e o caminho quente não paga nada. Ligadas, cada
+ * operação custa duas leituras de System.nanoTime e alguns incrementos atômicos.
+ *
+ * Os números podem ser lidos pelos getters desta classe, por JMX (os MXBeans são
+ * registrados na inicialização, em org.yoaceng:type=GraphMetrics) ou repassados
+ * a outro sistema por um MetricsSink.
+ *
+ * Uso nos métodos medidos:
+ * <pre>
+ *     long start = GraphMetrics.start();
+ *     ...
+ *     GraphMetrics.stop(GraphMetrics.Operation.ADD_EDGE, start);
+ * </pre>
+ *
+ * @author Cayo Cutrim
+ */
+public final class GraphMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("yoaceng.metrics");
+
+    private static final String DOMAIN = "org.yoaceng";
+
+    public enum Operation {
+        LOAD_PARSE,             // Leitura e separação do arquivo em arestas
+        LOAD_BUILD,             // Montagem da estrutura e da tabela de nomes
+        REORDER,                // Renumeração dos vértices (Graph.reorder)
+        ADD_EDGE,
+        BICONNECTIVITY,         // DFS de Tarjan completa (articulações, pontes, componentes)
+        ARTICULATION_POINTS,    // Graph.getArticulationPoints, incluindo o modo incremental
+        IS_ADJACENT,
+        DEGREE,
+        NEIGHBORS,
+        CONNECTED_WITHOUT       // Consulta de conectividade na árvore bloco-articulação
+    }
+
+    private static final OperationMetrics[] OPERATIONS = new OperationMetrics[Operation.values().length];
+    private static final Traversal TRAVERSAL = new Traversal();
+    private static volatile MetricsSink[] sinks = new MetricsSink[0];
+
+    static {
+        for (Operation operation : Operation.values()) {
+            OPERATIONS[operation.ordinal()] = new OperationMetrics();
+        }
+        if (ENABLED) {
+            registerMBeans();
+        }
+    }
+
+    private GraphMetrics() {
+    }
+
+    /**
+     * @return O instante inicial da operação, ou 0 com as medições desligadas.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Grava a duração da operação iniciada em start.
+     */
+    public static void stop(Operation operation, long start) {
+        if (ENABLED) {
+            long nanos = System.nanoTime() - start;
+            OPERATIONS[operation.ordinal()].histogram.record(nanos);
+            for (MetricsSink sink : sinks) {
+                sink.recordLatency(operation, nanos);
+            }
+        }
+    }
+
+    /**
+     * Grava os totais de uma análise de biconectividade.
+     */
+    static void recordTraversal(long visitedNodes, long scannedEdges, int maxDepth) {
+        if (ENABLED) {
+            TRAVERSAL.analyses.increment();
+            TRAVERSAL.visitedNodes.add(visitedNodes);
+            TRAVERSAL.scannedEdges.add(scannedEdges);
+            TRAVERSAL.maxDepth.accumulate(maxDepth);
+            for (MetricsSink sink : sinks) {
+                sink.recordTraversal(visitedNodes, scannedEdges, maxDepth);
+            }
+        }
+    }
+
+    /**
+     * Passa a repassar as medições para o destino informado.
+     */
+    public static synchronized void addSink(MetricsSink sink) {
+        MetricsSink[] current = sinks;
+        MetricsSink[] updated = new MetricsSink[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = sink;
+        sinks = updated;
+    }
+
+    public static synchronized void removeSink(MetricsSink sink) {
+        MetricsSink[] current = sinks;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == sink) {
+                MetricsSink[] updated = new MetricsSink[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                sinks = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return As medições da operação, que também podem ser lidas por JMX.
+     */
+    public static OperationMetricsMXBean get(Operation operation) {
+        return OPERATIONS[operation.ordinal()];
+    }
+
+    /**
+     * @return Os totais das análises de biconectividade.
+     */
+    public static GraphMetricsMXBean traversal() {
+        return TRAVERSAL;
+    }
+
+    /**
+     * Zera todas as medições.
+     */
+    public static void reset() {
+        TRAVERSAL.reset();
+    }
+
+    /**
+     * Registra os MXBeans no servidor JMX da plataforma. Chamado na inicialização
+     * quando as medições estão ligadas; chamadas repetidas não fazem nada.
+     */
+    public static synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName traversalName = new ObjectName(DOMAIN + ":type=GraphMetrics,name=Traversal");
+            if (!server.isRegistered(traversalName)) {
+                server.registerMBean(TRAVERSAL, traversalName);
+            }
+            for (Operation operation : Operation.values()) {
+                ObjectName name = new ObjectName(DOMAIN + ":type=GraphMetrics,operation=" + operation);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(OPERATIONS[operation.ordinal()], name);
+                }
+            }
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar as métricas no JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Uma linha por operação executada, com quantidade e latências, seguida dos totais da DFS.
+     */
+    public static String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            OperationMetrics metrics = OPERATIONS[operation.ordinal()];
+            if (metrics.getCount() > 0) {
+                builder.append(String.format("%-20s %10d chamadas  média %10.0f ns  p50 %10d ns  p99 %10d ns  máx %10d ns%n",
+                        operation, metrics.getCount(), metrics.getMeanNanos(), metrics.getP50Nanos(),
+                        metrics.getP99Nanos(), metrics.getMaxNanos()));
+            }
+        }
+        builder.append(String.format("DFS: %d análises, %d vértices visitados, %d arestas percorridas, profundidade máxima %d",
+                TRAVERSAL.getAnalyses(), TRAVERSAL.getVisitedNodes(), TRAVERSAL.getScannedEdges(),
+                TRAVERSAL.getMaxDfsDepth()));
+        return builder.toString();
+    }
+
+    /**
+     * Medições de uma operação.
+     */
+    private static final class OperationMetrics implements OperationMetricsMXBean {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return histogram.getTotalNanos();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return histogram.getMeanNanos();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return histogram.getMaxNanos();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return histogram.getPercentileNanos(50);
+        }
+
+        @Override
+        public long getP90Nanos() {
+            return histogram.getPercentileNanos(90);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return histogram.getPercentileNanos(99);
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return histogram.getPercentileNanos(99.9);
+        }
+
+        @Override
+        public void reset() {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Totais das análises de biconectividade.
+     */
+    private static final class Traversal implements GraphMetricsMXBean {
+        final LongAdder analyses = new LongAdder();
+        final LongAdder visitedNodes = new LongAdder();
+        final LongAdder scannedEdges = new LongAdder();
+        final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getAnalyses() {
+            return analyses.sum();
+        }
+
+        @Override
+        public long getVisitedNodes() {
+            return visitedNodes.sum();
+        }
+
+        @Override
+        public long getScannedEdges() {
+            return scannedEdges.sum();
+        }
+
+        @Override
+        public long getMaxDfsDepth() {
+            return maxDepth.get();
+        }
+
+        @Override
+        public void reset() {
+            analyses.reset();
+            visitedNodes.reset();
+            scannedEdges.reset();
+            maxDepth.reset();
+            for (OperationMetrics metrics : OPERATIONS) {
+                metrics.reset();
+            }
+        }
+    }
+}
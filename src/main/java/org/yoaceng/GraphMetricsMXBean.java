@@ -0,0 +1,30 @@
+package org.yoaceng;
+
+/**
+ * Interface JMX com os totais das análises de biconectividade, registrada como
+ * org.yoaceng:type=GraphMetrics,name=Traversal.
+ *
+ * @author Cayo Cutrim
+ */
+public interface GraphMetricsMXBean {
+    boolean isEnabled();
+
+    /**
+     * @return Quantidade de análises de biconectividade executadas.
+     */
+    long getAnalyses();
+
+    long getVisitedNodes();
+
+    long getScannedEdges();
+
+    /**
+     * @return Maior profundidade da pilha da DFS entre todas as análises.
+     */
+    long getMaxDfsDepth();
+
+    /**
+     * Zera os totais das análises e as medições de todas as operações.
+     */
+    void reset();
+}
@@ -0,0 +1,169 @@
+package org.yoaceng;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Cópia imutável do grafo em um determinado momento, que pode ser consultada
+ * por várias threads ao mesmo tempo sem sincronização.
+ *
+ * As arestas ficam em um CsrStorage próprio (listas de vizinhos ordenadas) que
+ * nunca é alterado depois de montado, e todos os campos são final: qualquer
+ * thread que receba a referência enxerga a cópia completa (publicação segura
+ * pelo modelo de memória do Java). As análises criam os seus vetores auxiliares
+ * a cada chamada, então também podem rodar em paralelo.
+ *
+ * @author Cayo Cutrim
+ */
+public final class GraphSnapshot {
+    private final boolean driven;
+    private final CsrStorage storage;               // Nunca alterado depois do construtor
+    private final String[] names;                   // Endereço -> nome (null = endereço livre)
+    private final Map<String, Integer> indexes;     // Nome -> endereço, somente leitura
+    private final int nodesQuantity;                // Limite dos endereços
+
+    private GraphSnapshot(boolean driven, CsrStorage storage, String[] names, Map<String, Integer> indexes) {
+        this.driven = driven;
+        this.storage = storage;
+        this.names = names;
+        this.indexes = indexes;
+        this.nodesQuantity = names.length;
+    }
+
+    /**
+     * Copia o grafo em O(V + E log grau). O grafo não deve ser alterado durante a cópia.
+     * @param graph O grafo de origem.
+     * @return A cópia imutável, com os mesmos endereços de vértices do grafo.
+     */
+    public static GraphSnapshot of(Graph graph) {
+        GraphStorage source = graph.getStorage();
+        int nodesQuantity = graph.getNodes().size();
+
+        String[] names = new String[nodesQuantity];
+        Map<String, Integer> indexes = new HashMap<>(Math.max(16, (int) (nodesQuantity / 0.75f) + 1));
+        int[] offsets = new int[nodesQuantity + 1];
+        for (int i = 0; i < nodesQuantity; i++) {
+            names[i] = graph.getNodeName(i);
+            if (names[i] != null) {
+                indexes.put(names[i], i);
+            }
+            offsets[i + 1] = offsets[i] + source.outDegree(i);
+        }
+
+        int[] targets = new int[offsets[nodesQuantity]];
+        for (int i = 0, position = 0; i < nodesQuantity; i++) {
+            for (int e = source.firstEdge(i); e != -1; e = source.nextEdge(i, e)) {
+                targets[position++] = source.edgeTarget(i, e);
+            }
+        }
+
+        // compact ordena cada lista de vizinhos, permitindo a busca binária em isAdjacent
+        CsrStorage storage = CsrStorage.compact(nodesQuantity, offsets, targets);
+        return new GraphSnapshot(graph.isDriven(), storage, names, Collections.unmodifiableMap(indexes));
+    }
+
+    public boolean isDriven() {
+        return driven;
+    }
+
+    /**
+     * @return A estrutura da cópia, que nunca é alterada.
+     */
+    GraphStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return Limite dos endereços dos vértices (todo endereço válido é menor que esse valor).
+     */
+    public int size() {
+        return nodesQuantity;
+    }
+
+    /**
+     * @return Quantidade de vértices existentes.
+     */
+    public int count() {
+        return indexes.size();
+    }
+
+    /**
+     * @return O endereço do vértice ou -1 caso ele não exista.
+     */
+    public int getNodeIndex(String node) {
+        Integer index = indexes.get(node);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return O nome do vértice ou null caso o endereço não exista.
+     */
+    public String getNodeName(int nIndex) {
+        return nIndex >= 0 && nIndex < nodesQuantity ? names[nIndex] : null;
+    }
+
+    /**
+     * Verifica a adjacência por busca binária na lista de vizinhos, em O(log grau).
+     * Em digrafos verifica a aresta origem -> destino.
+     */
+    public boolean isAdjacent(int nxIndex, int nyIndex) {
+        long start = GraphMetrics.start();
+        boolean adjacent = driven ? storage.hasEdge(nxIndex, nyIndex) :
+                                    storage.hasEdge(nxIndex, nyIndex) && storage.hasEdge(nyIndex, nxIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.IS_ADJACENT, start);
+        return adjacent;
+    }
+
+    public int outDegree(int nIndex) {
+        long start = GraphMetrics.start();
+        int degree = storage.outDegree(nIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.DEGREE, start);
+        return degree;
+    }
+
+    public int inDegree(int nIndex) {
+        long start = GraphMetrics.start();
+        int degree = storage.inDegree(nIndex);
+        GraphMetrics.stop(GraphMetrics.Operation.DEGREE, start);
+        return degree;
+    }
+
+    /**
+     * Executa a ação para cada vizinho do vértice, em ordem crescente de endereço.
+     */
+    public void forEachNeighbor(int nIndex, IntConsumer action) {
+        long start = GraphMetrics.start();
+        storage.forEachNeighbor(nIndex, action);
+        GraphMetrics.stop(GraphMetrics.Operation.NEIGHBORS, start);
+    }
+
+    /**
+     * Analisa a biconectividade da cópia. Cada chamada usa o seu próprio
+     * analisador, então threads diferentes podem analisar a mesma cópia ao mesmo tempo.
+     */
+    public BiconnectivityResult analyzeBiconnectivity() {
+        return new BiconnectivityAnalyzer().analyze(storage, nodesQuantity, nIndex -> names[nIndex] != null);
+    }
+
+    /**
+     * Versão paralela de analyzeBiconnectivity, executada no pool informado.
+     * Digrafos são analisados sequencialmente (ver Graph.analyzeBiconnectivity(ForkJoinPool)).
+     */
+    public BiconnectivityResult analyzeBiconnectivity(ForkJoinPool pool) {
+        if (driven) {
+            return analyzeBiconnectivity();
+        }
+        return new BiconnectivityAnalyzer().analyzeParallel(storage, nodesQuantity, nIndex -> names[nIndex] != null,
+                pool);
+    }
+
+    /**
+     * @return Os endereços dos pontos de articulação em ordem crescente, sem repetições.
+     */
+    public int[] getArticulationPoints() {
+        return analyzeBiconnectivity().getArticulationPoints();
+    }
+}
@@ -0,0 +1,120 @@
+package org.yoaceng;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Estrutura de dados responsável por armazenar as arestas do grafo.
+ * Os vértices são identificados apenas pelos seus índices, o mapeamento
+ * entre nome e índice continua sendo responsabilidade do Graph.
+ *
+ * A iteração sobre os vizinhos de um vértice é feita por meio de um cursor
+ * ("edge"): firstEdge devolve o primeiro cursor, nextEdge avança e edgeTarget
+ * devolve o vértice de destino. O significado do cursor depende da implementação
+ * (coluna da matriz, posição no vetor de destinos, ...), então o chamador não
+ * deve fazer suposições sobre ele.
+ *
+ * @author Cayo Cutrim
+ */
+public interface GraphStorage {
+    /**
+     * Densidade (arestas / vértices²) a partir da qual a matriz de bits
+     * passa a ser escolhida no lugar do CSR. A matriz gasta 1 bit por célula
+     * e o CSR 32 bits por aresta, então a partir de 1/32 a matriz ocupa menos.
+     */
+    double DENSE_THRESHOLD = 1.0 / 32;
+
+    /**
+     * @return Quantidade de vértices que a estrutura comporta.
+     */
+    int capacity();
+
+    /**
+     * Garante que a estrutura comporta a quantidade de vértices informada,
+     * crescendo pelo menos para o dobro da capacidade atual para que vários
+     * crescimentos seguidos custem O(1) amortizado por vértice.
+     */
+    void ensureCapacity(int nodesQuantity);
+
+    /**
+     * @return Quantidade de arestas armazenadas (arestas não dirigidas contam duas vezes).
+     */
+    int edgeCount();
+
+    /**
+     * Verifica se existe a aresta origin -> destiny.
+     */
+    boolean hasEdge(int origin, int destiny);
+
+    /**
+     * Adiciona a aresta origin -> destiny.
+     * @return true se a aresta ainda não existia.
+     */
+    boolean addEdge(int origin, int destiny);
+
+    /**
+     * Remove a aresta origin -> destiny.
+     * @return true se a aresta existia.
+     */
+    boolean removeEdge(int origin, int destiny);
+
+    /**
+     * @return Quantidade de arestas que saem do vértice.
+     */
+    int outDegree(int node);
+
+    /**
+     * @return Quantidade de arestas que chegam no vértice.
+     */
+    int inDegree(int node);
+
+    /**
+     * @return O primeiro cursor da lista de vizinhos do vértice ou -1 caso não tenha vizinhos.
+     */
+    int firstEdge(int node);
+
+    /**
+     * @return O cursor seguinte a 'edge' na lista de vizinhos do vértice ou -1 caso tenha acabado.
+     */
+    int nextEdge(int node, int edge);
+
+    /**
+     * @return O vértice de destino apontado pelo cursor.
+     */
+    int edgeTarget(int node, int edge);
+
+    /**
+     * Executa a ação para cada vizinho (sucessor) do vértice.
+     */
+    default void forEachNeighbor(int node, IntConsumer action) {
+        for (int e = firstEdge(node); e != -1; e = nextEdge(node, e)) {
+            action.accept(edgeTarget(node, e));
+        }
+    }
+
+    /**
+     * Escolhe a estrutura mais adequada para a densidade do grafo e a preenche
+     * com as arestas informadas. Grafos esparsos ficam em CSR, que ocupa O(V + E),
+     * e grafos densos ficam na matriz de adjacência compactada em bits.
+     * @param nodesQuantity Quantidade de vértices.
+     * @param edges Arestas lidas (apenas um sentido para grafos não dirigidos).
+     * @param driven Se o grafo é dirigido ou não.
+     * @return A estrutura preenchida.
+     */
+    static GraphStorage fromEdges(int nodesQuantity, EdgeList edges, boolean driven) {
+        long arcs = driven ? edges.size() : 2L * edges.size();
+        double density = nodesQuantity == 0 ? 0 : (double) arcs / ((double) nodesQuantity * nodesQuantity);
+
+        if (density < DENSE_THRESHOLD) {
+            return CsrStorage.fromEdges(nodesQuantity, edges, driven);
+        }
+
+        BitMatrixStorage matrix = new BitMatrixStorage(nodesQuantity);
+        for (int i = 0; i < edges.size(); i++) {
+            matrix.addEdge(edges.origin(i), edges.destiny(i));
+            if (!driven) {
+                matrix.addEdge(edges.destiny(i), edges.origin(i));
+            }
+        }
+        return matrix;
+    }
+}
@@ -1,59 +1,380 @@
 package org.yoaceng;
 
+import com.mxgraph.model.mxGeometry;
+import com.mxgraph.model.mxIGraphModel;
 import com.mxgraph.swing.mxGraphComponent;
 import com.mxgraph.view.mxGraph;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
  * Classe responsável pelas operações de visualização gráfica
  * do grafo a partir da biblioteca Jgraphx.
  *
+ * Grafos pequenos são desenhados vértice a vértice. Acima de DETAIL_NODES_LIMIT vértices
+ * (ou DETAIL_EDGES_LIMIT arestas) o desenho passa a ser resumido: cada componente biconexa
+ * vira um super-vértice e os pontos de articulação aparecem ligados aos blocos que os
+ * contêm (a árvore bloco-articulação), limitado aos MAX_CELLS maiores elementos.
+ * Os pontos de articulação ficam destacados em vermelho nos dois modos.
+ *
+ * O posicionamento (ForceDirectedLayout, com Barnes–Hut em paralelo) roda fora da
+ * thread de eventos do Swing, em um SwingWorker, e as posições são publicadas a cada
+ * FRAME_INTERVAL iterações: a janela abre logo e o desenho vai se ajeitando sem travar a tela.
+ *
  * @author Cayo Cutrim
  */
 public class GraphVisualizer {
+    private static final int DETAIL_NODES_LIMIT = 1000;     // Até aqui cada vértice é desenhado
+    private static final int DETAIL_EDGES_LIMIT = 5000;     // Até aqui cada aresta é desenhada
+    private static final int MAX_CELLS = 1500;              // Super-vértices e articulações na visão resumida
+    private static final int FRAME_INTERVAL = 10;           // Iterações do posicionamento entre duas atualizações da tela
+    private static final double DISTANCE = 90;              // Distância ideal entre vértices ligados
+    private static final long SEED = 42;
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    private static final String ARTICULATION_STYLE = "fillColor=#FF6666;strokeColor=#CC0000;fontStyle=1";
+    private static final String BLOCK_STYLE = "shape=ellipse;fillColor=#99CCFF;strokeColor=#3366CC";
+
     public static void displayGraph(Graph myGraph) {
-        mxGraph graph = new mxGraph();
-        Object parent = graph.getDefaultParent();
-        Random random = new Random();
-
-        graph.getModel().beginUpdate();
-        int width = 800;
-        int height = 600;
-        try {
-            // Adicionando vértices em posições aleatórias
-            Map<String, Integer> nodesIndexes = myGraph.getNodesIndexes();
-            Object[] vertices = new Object[nodesIndexes.size()];
-
-            for (String nodeName : nodesIndexes.keySet()) {
-                int x = random.nextInt(width - 100); // Deixando espaço para o tamanho do vértice
-                int y = random.nextInt(height - 100); // Deixando espaço para o tamanho do vértice
-                vertices[nodesIndexes.get(nodeName)] = graph.insertVertex(parent, null, nodeName, x, y, 80, 30);
-            }
-
-            // Adicionando arestas baseadas na lista de adjacência
-            Map<String, List<String>> adjacencyList = myGraph.toAdjacencyList();
-            for (String origin : adjacencyList.keySet()) {
-                int originIndex = nodesIndexes.get(origin);
-                for (String destination : adjacencyList.get(origin)) {
-                    int destinationIndex = nodesIndexes.get(destination);
-                    String edgeStyle = myGraph.isDriven() ? "endArrow=classic" : "endArrow=none";
-                    graph.insertEdge(parent, null, "", vertices[originIndex], vertices[destinationIndex], edgeStyle);
-                }
-            }
-        } finally {
-            graph.getModel().endUpdate();
-        }
-
-        // Códigos padrão da lib
-        mxGraphComponent graphComponent = new mxGraphComponent(graph);
-        JFrame frame = new JFrame();
-        frame.getContentPane().add(graphComponent);
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(width, height);
-        frame.setVisible(true);
+        displayGraph(myGraph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Abre a janela com o grafo. O que vai ser desenhado é extraído do grafo na thread
+     * que chamou (o grafo não é thread-safe); o posicionamento e o desenho seguem depois
+     * sem bloquear quem chamou.
+     * @param myGraph O grafo a ser exibido.
+     * @param pool Pool onde as forças do posicionamento são calculadas.
+     */
+    public static void displayGraph(Graph myGraph, ForkJoinPool pool) {
+        View view = View.of(myGraph);
+        SwingUtilities.invokeLater(() -> {
+            mxGraph graph = new mxGraph();
+
+            // Códigos padrão da lib
+            mxGraphComponent graphComponent = new mxGraphComponent(graph);
+            JFrame frame = new JFrame(view.title);
+            frame.getContentPane().add(graphComponent);
+            // Fechar a janela não encerra o programa, que pode ter gravações em segundo plano pendentes
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            frame.setSize(WIDTH, HEIGHT);
+
+            LayoutWorker worker = new LayoutWorker(view, graph, pool);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    worker.cancel(false);   // O posicionamento para junto com a janela
+                }
+            });
+            frame.setVisible(true);
+            worker.execute();
+        });
+    }
+
+    /**
+     * O que será desenhado: células (vértices ou super-vértices) com rótulo, estilo
+     * e tamanho, e as arestas entre elas, já nos dois sentidos para o posicionamento.
+     */
+    private static final class View {
+        final int size;
+        final String[] labels;
+        final String[] styles;
+        final double[] widths;
+        final double[] heights;
+        final double[] weights;         // Peso na repulsão (null = todos iguais)
+        final EdgeList edges;           // Arestas desenhadas, uma vez cada
+        final CsrStorage layoutStorage; // As mesmas arestas nos dois sentidos
+        final boolean driven;
+        final String title;
+
+        private View(int size, String[] labels, String[] styles, double[] widths, double[] heights,
+                     double[] weights, EdgeList edges, boolean driven, String title) {
+            this.size = size;
+            this.labels = labels;
+            this.styles = styles;
+            this.widths = widths;
+            this.heights = heights;
+            this.weights = weights;
+            this.edges = edges;
+            this.layoutStorage = CsrStorage.fromEdges(size, edges, false);
+            this.driven = driven;
+            this.title = title;
+        }
+
+        static View of(Graph graph) {
+            GraphStorage storage = graph.getStorage();
+            int nodesQuantity = graph.getNodes().size();
+
+            // Articulações e blocos são calculados sobre o grafo sem direção
+            GraphStorage undirected = storage;
+            if (graph.isDriven()) {
+                EdgeList arcs = new EdgeList(Math.max(storage.edgeCount(), 1));
+                graph.forEachEdge(arcs::add);
+                undirected = CsrStorage.fromEdges(nodesQuantity, arcs, false);
+            }
+            BiconnectivityResult result = new BiconnectivityAnalyzer().analyze(undirected, nodesQuantity,
+                    nIndex -> graph.getNodeName(nIndex) != null);
+
+            long edgesCount = graph.isDriven() ? storage.edgeCount() : storage.edgeCount() / 2;
+            if (graph.getNodesCounter() <= DETAIL_NODES_LIMIT && edgesCount <= DETAIL_EDGES_LIMIT) {
+                return detailed(graph, result, edgesCount);
+            }
+            return collapsed(graph, result);
+        }
+
+        /**
+         * Um vértice desenhado para cada vértice do grafo.
+         */
+        private static View detailed(Graph graph, BiconnectivityResult result, long edgesCount) {
+            int nodesQuantity = graph.getNodes().size();
+            int[] cellOf = new int[nodesQuantity];
+            int size = 0;
+            for (int i = 0; i < nodesQuantity; i++) {
+                cellOf[i] = graph.getNodeName(i) != null ? size++ : -1;
+            }
+
+            String[] labels = new String[size];
+            String[] styles = new String[size];
+            double[] widths = new double[size];
+            double[] heights = new double[size];
+            for (int i = 0; i < nodesQuantity; i++) {
+                int cell = cellOf[i];
+                if (cell != -1) {
+                    labels[cell] = graph.getNodeName(i);
+                    styles[cell] = result.isArticulationPoint(i) ? ARTICULATION_STYLE : null;
+                    widths[cell] = 80;
+                    heights[cell] = 30;
+                }
+            }
+
+            EdgeList edges = new EdgeList();
+            graph.forEachEdge((origin, destiny) -> {
+                if (origin != destiny) {
+                    edges.add(cellOf[origin], cellOf[destiny]);
+                }
+            });
+
+            String title = String.format("Grafo: %d vértices, %d arestas, %d articulações (em vermelho)",
+                    size, edgesCount, result.getArticulationPointsCount());
+            return new View(size, labels, styles, widths, heights, null, edges, graph.isDriven(), title);
+        }
+
+        /**
+         * Um super-vértice para cada componente biconexa (das maiores para as menores) e um
+         * vértice para cada articulação, ligado aos blocos que a contêm, até MAX_CELLS células.
+         */
+        private static View collapsed(Graph graph, BiconnectivityResult result) {
+            int nodesQuantity = graph.getNodes().size();
+            int blocks = result.getComponentsCount();
+
+            // Blocos em ordem decrescente de tamanho, como (tamanho << 32 | bloco)
+            long[] bySize = new long[blocks];
+            boolean[] inBlock = new boolean[nodesQuantity];
+            for (int block = 0; block < blocks; block++) {
+                int[] members = result.getComponent(block);
+                bySize[block] = (long) members.length << 32 | block;
+                for (int node : members) {
+                    inBlock[node] = true;
+                }
+            }
+            Arrays.sort(bySize);
+
+            int[] articulationCell = new int[nodesQuantity];
+            Arrays.fill(articulationCell, -1);
+            IntList cellNodes = new IntList();      // Bloco (>= 0) ou -(articulação + 1) de cada célula
+            EdgeList edges = new EdgeList();
+            int keptBlocks = 0;
+            for (int i = blocks - 1; i >= 0; i--) {
+                int block = (int) bySize[i];
+                int[] members = result.getComponent(block);
+                int newCells = 1;
+                for (int node : members) {
+                    if (result.isArticulationPoint(node) && articulationCell[node] == -1) {
+                        newCells++;
+                    }
+                }
+                if (cellNodes.size() + newCells > MAX_CELLS) {
+                    break;
+                }
+
+                int blockCell = cellNodes.size();
+                cellNodes.add(block);
+                keptBlocks++;
+                for (int node : members) {
+                    if (result.isArticulationPoint(node)) {
+                        if (articulationCell[node] == -1) {
+                            articulationCell[node] = cellNodes.size();
+                            cellNodes.add(-(node + 1));
+                        }
+                        edges.add(blockCell, articulationCell[node]);
+                    }
+                }
+            }
+
+            int size = cellNodes.size();
+            String[] labels = new String[size];
+            String[] styles = new String[size];
+            double[] widths = new double[size];
+            double[] heights = new double[size];
+            double[] weights = new double[size];
+            for (int cell = 0; cell < size; cell++) {
+                int value = cellNodes.get(cell);
+                if (value < 0) {
+                    labels[cell] = graph.getNodeName(-value - 1);
+                    styles[cell] = ARTICULATION_STYLE;
+                    widths[cell] = 80;
+                    heights[cell] = 30;
+                    weights[cell] = 1;
+                    continue;
+                }
+                int[] members = result.getComponent(value);
+                labels[cell] = blockLabel(graph, members);
+                styles[cell] = BLOCK_STYLE;
+                double log = Math.log(members.length) / Math.log(2);
+                widths[cell] = heights[cell] = 40 + 12 * log;
+                weights[cell] = 1 + log;
+            }
+
+            int isolated = 0;
+            for (int i = 0; i < nodesQuantity; i++) {
+                if (!inBlock[i] && graph.getNodeName(i) != null) {
+                    isolated++;
+                }
+            }
+            String title = String.format("Visão resumida de %d vértices: %d de %d blocos biconexos, %d articulações"
+                            + " (em vermelho), %d vértices isolados omitidos",
+                    graph.getNodesCounter(), keptBlocks, blocks, result.getArticulationPointsCount(), isolated);
+            return new View(size, labels, styles, widths, heights, weights, edges, false, title);
+        }
+
+        /**
+         * Blocos pequenos mostram os nomes dos vértices; os demais, a quantidade.
+         */
+        private static String blockLabel(Graph graph, int[] members) {
+            if (members.length > 3) {
+                return members.length + " vértices";
+            }
+            StringBuilder label = new StringBuilder();
+            for (int node : members) {
+                if (label.length() > 0) {
+                    label.append(", ");
+                }
+                label.append(graph.getNodeName(node));
+            }
+            return label.toString();
+        }
+    }
+
+    /**
+     * Calcula o posicionamento em segundo plano e atualiza o desenho na thread de eventos.
+     * Cada posição publicada é uma cópia (x0, y0, x1, y1, ...) das posições da iteração.
+     */
+    private static final class LayoutWorker extends SwingWorker<Void, double[]> {
+        private final View view;
+        private final mxGraph graph;
+        private final ForkJoinPool pool;
+        private Object[] cells;             // Células criadas no primeiro desenho (acessadas só na thread de eventos)
+
+        LayoutWorker(View view, mxGraph graph, ForkJoinPool pool) {
+            this.view = view;
+            this.graph = graph;
+            this.pool = pool;
+        }
+
+        @Override
+        protected Void doInBackground() {
+            ForceDirectedLayout layout = new ForceDirectedLayout(view.layoutStorage, view.size, view.weights, DISTANCE, SEED);
+            publish(positions(layout));
+
+            // Menos iterações para desenhos maiores, que já custam mais por iteração
+            int iterations = Math.max(100, 400 - view.size / 5);
+            layout.run(iterations, pool, (iteration, x, y) -> {
+                if (isCancelled()) {
+                    return false;
+                }
+                if (iteration % FRAME_INTERVAL == 0 || iteration == iterations) {
+                    publish(positions(layout));
+                }
+                return true;
+            });
+            return null;
+        }
+
+        private static double[] positions(ForceDirectedLayout layout) {
+            double[] positions = new double[2 * layout.size()];
+            for (int i = 0; i < layout.size(); i++) {
+                positions[2 * i] = layout.getX(i);
+                positions[2 * i + 1] = layout.getY(i);
+            }
+            return positions;
+        }
+
+        @Override
+        protected void process(List<double[]> frames) {
+            // Só a posição mais recente interessa se a tela ficou para trás
+            double[] positions = frames.get(frames.size() - 1);
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            for (int i = 0; i < view.size; i++) {
+                minX = Math.min(minX, positions[2 * i] - view.widths[i] / 2);
+                minY = Math.min(minY, positions[2 * i + 1] - view.heights[i] / 2);
+            }
+
+            mxIGraphModel model = graph.getModel();
+            model.beginUpdate();
+            try {
+                if (cells == null) {
+                    insertCells(positions, minX, minY);
+                } else {
+                    for (int i = 0; i < view.size; i++) {
+                        model.setGeometry(cells[i], new mxGeometry(left(positions, i, minX), top(positions, i, minY),
+                                view.widths[i], view.heights[i]));
+                    }
+                }
+            } finally {
+                model.endUpdate();
+            }
+        }
+
+        private void insertCells(double[] positions, double minX, double minY) {
+            Object parent = graph.getDefaultParent();
+            cells = new Object[view.size];
+            for (int i = 0; i < view.size; i++) {
+                cells[i] = graph.insertVertex(parent, null, view.labels[i], left(positions, i, minX),
+                        top(positions, i, minY), view.widths[i], view.heights[i], view.styles[i]);
+            }
+            String edgeStyle = view.driven ? "endArrow=classic" : "endArrow=none";
+            for (int i = 0; i < view.edges.size(); i++) {
+                graph.insertEdge(parent, null, "", cells[view.edges.origin(i)], cells[view.edges.destiny(i)], edgeStyle);
+            }
+        }
+
+        private double left(double[] positions, int cell, double minX) {
+            return positions[2 * cell] - view.widths[cell] / 2 - minX + 20;
+        }
+
+        private double top(double[] positions, int cell, double minY) {
+            return positions[2 * cell + 1] - view.heights[cell] / 2 - minY + 20;
+        }
+
+        @Override
+        protected void done() {
+            try {
+                if (!isCancelled()) {
+                    get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Erro ao posicionar o grafo: " + e.getMessage());
+            }
+        }
     }
-}
\ No newline at end of file
+}
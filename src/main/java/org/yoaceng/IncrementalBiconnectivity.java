@@ -0,0 +1,307 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Mantém os pontos de articulação de um grafo não dirigido atualizados
+ * enquanto arestas e vértices são adicionados, sem refazer a DFS inteira.
+ *
+ * A estrutura é uma floresta bloco-articulação: cada árvore corresponde a uma
+ * componente conexa e alterna nós de vértice e nós de bloco (componente biconexa).
+ * Um vértice é articulação quando pertence a dois ou mais blocos. Ao inserir a aresta u - v:
+ * - se u e v estão em componentes diferentes, a árvore menor é re-enraizada em u e
+ *   ligada a v por um bloco novo (a aresta é uma ponte);
+ * - se estão na mesma componente, todos os blocos do caminho entre u e v na árvore
+ *   passam a formar um único bloco (union-find sobre os blocos).
+ * Cada bloco é unido no máximo uma vez e só a árvore menor é re-enraizada, então o
+ * custo amortizado por inserção é quase constante (O(log V) no pior caso das ligações).
+ *
+ * @author Cayo Cutrim
+ */
+public class IncrementalBiconnectivity {
+    private int[] vertexParent;         // Bloco pai de cada vértice na floresta (-1 = raiz da árvore)
+    private int[] blockCount;           // Quantidade de blocos que contêm cada vértice
+    private int[] componentParent;      // Union-find das componentes conexas
+    private int[] componentSize;        // Quantidade de vértices de cada componente (válido na raiz)
+    private int[] vertexMark;           // Marcação da busca pelo caminho (época * 2 + lado)
+    private int[] vertexPosition;       // Posição do vértice no caminho do seu lado
+
+    private int[] blockParent;          // Vértice pai de cada bloco (válido no representante)
+    private int[] blockLink;            // Union-find dos blocos unidos
+    private int[] blockMark;
+    private int[] blockPosition;
+    private int blocksCounter;
+
+    private int nodesCounter;
+    private int epoch;                              // Época atual das marcações
+    private final BitSet articulationPoints;
+    private final IntList[] path = {new IntList(), new IntList()};  // Caminho de cada lado até o ancestral comum
+
+    public IncrementalBiconnectivity(int expectedNodes) {
+        int capacity = Math.max(expectedNodes, 16);
+        vertexParent = new int[capacity];
+        blockCount = new int[capacity];
+        componentParent = new int[capacity];
+        componentSize = new int[capacity];
+        vertexMark = new int[capacity];
+        vertexPosition = new int[capacity];
+        blockParent = new int[capacity];
+        blockLink = new int[capacity];
+        blockMark = new int[capacity];
+        blockPosition = new int[capacity];
+        articulationPoints = new BitSet(capacity);
+    }
+
+    /**
+     * Adiciona os vértices até o índice informado (inclusive), isolados.
+     */
+    public void addNode(int node) {
+        while (nodesCounter <= node) {
+            if (nodesCounter == vertexParent.length) {
+                int capacity = nodesCounter * 2;
+                vertexParent = Arrays.copyOf(vertexParent, capacity);
+                blockCount = Arrays.copyOf(blockCount, capacity);
+                componentParent = Arrays.copyOf(componentParent, capacity);
+                componentSize = Arrays.copyOf(componentSize, capacity);
+                vertexMark = Arrays.copyOf(vertexMark, capacity);
+                vertexPosition = Arrays.copyOf(vertexPosition, capacity);
+            }
+            vertexParent[nodesCounter] = -1;
+            componentParent[nodesCounter] = nodesCounter;
+            componentSize[nodesCounter] = 1;
+            nodesCounter++;
+        }
+    }
+
+    /**
+     * Atualiza a estrutura com a aresta não dirigida u - v.
+     */
+    public void addEdge(int u, int v) {
+        addNode(Math.max(u, v));
+        if (u == v) {
+            return;     // Laços não influenciam a conectividade
+        }
+
+        int componentU = findComponent(u);
+        int componentV = findComponent(v);
+        if (componentU != componentV) {
+            link(u, v, componentU, componentV);
+        } else {
+            condensePath(u, v);
+        }
+    }
+
+    public boolean isArticulationPoint(int node) {
+        return articulationPoints.get(node);
+    }
+
+    /**
+     * @return Os índices dos vértices de articulação em ordem crescente.
+     */
+    public int[] getArticulationPoints() {
+        return articulationPoints.stream().toArray();
+    }
+
+    public int getArticulationPointsCount() {
+        return articulationPoints.cardinality();
+    }
+
+    /**
+     * @return Se os dois vértices estão na mesma componente conexa.
+     */
+    public boolean isConnected(int a, int b) {
+        return findComponent(a) == findComponent(b);
+    }
+
+    /**
+     * Liga duas árvores diferentes por um bloco novo contendo apenas a aresta u - v.
+     */
+    private void link(int u, int v, int componentU, int componentV) {
+        // Re-enraiza a árvore menor no seu vértice da aresta e pendura ela no outro
+        if (componentSize[componentU] > componentSize[componentV]) {
+            int swap = u;
+            u = v;
+            v = swap;
+            swap = componentU;
+            componentU = componentV;
+            componentV = swap;
+        }
+        reroot(u);
+
+        int block = newBlock();
+        blockParent[block] = v;
+        vertexParent[u] = block;
+        changeBlockCount(u, 1);
+        changeBlockCount(v, 1);
+
+        componentParent[componentU] = componentV;
+        componentSize[componentV] += componentSize[componentU];
+    }
+
+    /**
+     * Inverte os ponteiros do caminho entre o vértice e a raiz da sua árvore,
+     * tornando-o a nova raiz.
+     */
+    private void reroot(int node) {
+        int child = node;
+        int block = vertexParent[node] == -1 ? -1 : findBlock(vertexParent[node]);
+        vertexParent[node] = -1;
+
+        while (block != -1) {
+            int up = blockParent[block];
+            int nextBlock = vertexParent[up] == -1 ? -1 : findBlock(vertexParent[up]);
+            blockParent[block] = child;
+            vertexParent[up] = block;
+            child = up;
+            block = nextBlock;
+        }
+    }
+
+    /**
+     * Encontra o caminho entre u e v na árvore e une todos os blocos dele em um só.
+     */
+    private void condensePath(int u, int v) {
+        epoch++;
+        path[0].clear();
+        path[1].clear();
+
+        // Sobe alternadamente pelos dois lados até um deles encontrar um nó marcado pelo outro,
+        // assim o custo é proporcional ao caminho e não à altura da árvore.
+        // Os nós são codificados como vértice = 2 * índice e bloco = 2 * índice + 1
+        int[] current = {2 * u, 2 * v};
+        mark(current[0], 0);
+        mark(current[1], 1);
+        int ancestor = -1;
+        while (ancestor == -1) {
+            boolean moved = false;
+            for (int side = 0; side < 2 && ancestor == -1; side++) {
+                int next = parentOf(current[side]);
+                if (next == -1) {
+                    continue;
+                }
+                moved = true;
+                if (markOf(next) == epoch * 2 + (1 - side)) {
+                    ancestor = next;
+                } else {
+                    current[side] = next;
+                    mark(next, side);
+                }
+            }
+            if (!moved && ancestor == -1) {
+                throw new IllegalStateException("Vértices " + u + " e " + v + " deveriam estar na mesma árvore");
+            }
+        }
+
+        // Corta cada lado na posição do ancestral comum (exclusive)
+        int[] length = new int[2];
+        for (int side = 0; side < 2; side++) {
+            length[side] = path[side].size();
+            int position = positionOf(ancestor, side);
+            if (position != -1) {
+                length[side] = position;
+            }
+        }
+
+        int blocks = (ancestor & 1) == 1 ? 1 : 0;
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < length[side]; i++) {
+                blocks += path[side].get(i) & 1;
+            }
+        }
+        if (blocks <= 1) {
+            return;     // u e v já estão no mesmo bloco
+        }
+
+        // O bloco resultante fica pendurado onde o caminho estava pendurado
+        int newParent = (ancestor & 1) == 1 ? blockParent[findBlock(ancestor >> 1)] : ancestor >> 1;
+        int representative = (ancestor & 1) == 1 ? findBlock(ancestor >> 1) : -1;
+
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < length[side]; i++) {
+                int node = path[side].get(i);
+                if ((node & 1) == 1) {
+                    int block = findBlock(node >> 1);
+                    if (representative == -1) {
+                        representative = block;
+                    } else if (block != representative) {
+                        blockLink[block] = representative;
+                    }
+                } else if (i > 0) {
+                    // Vértice interno do caminho: estava em dois blocos do caminho, agora em um
+                    changeBlockCount(node >> 1, -1);
+                }
+            }
+        }
+        if ((ancestor & 1) == 0 && length[0] > 0 && length[1] > 0) {
+            // O ancestral comum é um vértice ligado a um bloco do caminho de cada lado
+            changeBlockCount(ancestor >> 1, -1);
+        }
+        blockParent[representative] = newParent;
+    }
+
+    private int parentOf(int node) {
+        if ((node & 1) == 0) {
+            int block = vertexParent[node >> 1];
+            return block == -1 ? -1 : 2 * findBlock(block) + 1;
+        }
+        return 2 * blockParent[node >> 1];
+    }
+
+    private void mark(int node, int side) {
+        int index = node >> 1;
+        if ((node & 1) == 0) {
+            vertexMark[index] = epoch * 2 + side;
+            vertexPosition[index] = path[side].size();
+        } else {
+            blockMark[index] = epoch * 2 + side;
+            blockPosition[index] = path[side].size();
+        }
+        path[side].add(node);
+    }
+
+    private int markOf(int node) {
+        return (node & 1) == 0 ? vertexMark[node >> 1] : blockMark[node >> 1];
+    }
+
+    private int positionOf(int node, int side) {
+        if (markOf(node) != epoch * 2 + side) {
+            return -1;
+        }
+        return (node & 1) == 0 ? vertexPosition[node >> 1] : blockPosition[node >> 1];
+    }
+
+    private int newBlock() {
+        if (blocksCounter == blockParent.length) {
+            int capacity = blocksCounter * 2;
+            blockParent = Arrays.copyOf(blockParent, capacity);
+            blockLink = Arrays.copyOf(blockLink, capacity);
+            blockMark = Arrays.copyOf(blockMark, capacity);
+            blockPosition = Arrays.copyOf(blockPosition, capacity);
+        }
+        blockLink[blocksCounter] = blocksCounter;
+        blockMark[blocksCounter] = 0;
+        return blocksCounter++;
+    }
+
+    private void changeBlockCount(int node, int delta) {
+        blockCount[node] += delta;
+        articulationPoints.set(node, blockCount[node] >= 2);
+    }
+
+    private int findBlock(int block) {
+        while (blockLink[block] != block) {
+            blockLink[block] = blockLink[blockLink[block]];
+            block = blockLink[block];
+        }
+        return block;
+    }
+
+    private int findComponent(int node) {
+        while (componentParent[node] != node) {
+            componentParent[node] = componentParent[componentParent[node]];
+            node = componentParent[node];
+        }
+        return node;
+    }
+}
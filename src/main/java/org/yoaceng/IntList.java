@@ -0,0 +1,50 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Lista de inteiros primitivos que cresce dobrando de tamanho,
+ * evitando o boxing de uma List<Integer>.
+ *
+ * @author Cayo Cutrim
+ */
+class IntList {
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(16);
+    }
+
+    IntList(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
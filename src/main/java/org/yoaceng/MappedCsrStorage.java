@@ -0,0 +1,121 @@
+package org.yoaceng;
+
+import java.nio.IntBuffer;
+
+/**
+ * Estrutura CSR somente leitura apoiada diretamente nos buffers de um arquivo
+ * binário mapeado em memória (ver GraphBinaryFormat). Nenhum vetor é copiado
+ * na carga; o sistema operacional traz as páginas do arquivo sob demanda.
+ *
+ * Não aceita alterações: o Graph copia a estrutura para uma AdjacencyListStorage
+ * na primeira alteração.
+ *
+ * @author Cayo Cutrim
+ */
+public class MappedCsrStorage implements GraphStorage {
+    private final IntBuffer offsets;    // Início da lista de vizinhos de cada vértice (tamanho V + 1)
+    private final IntBuffer targets;    // Destinos de todas as arestas, agrupados por origem
+    private final int nodesQuantity;
+    private int[] inDegrees;            // Calculado apenas na primeira consulta
+
+    MappedCsrStorage(IntBuffer offsets, IntBuffer targets, int nodesQuantity) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.nodesQuantity = nodesQuantity;
+    }
+
+    @Override
+    public int capacity() {
+        return nodesQuantity;
+    }
+
+    @Override
+    public void ensureCapacity(int nodesQuantity) {
+        if (nodesQuantity > this.nodesQuantity) {
+            throw new UnsupportedOperationException("Estrutura mapeada é somente leitura, use toCsrStorage()");
+        }
+    }
+
+    @Override
+    public int edgeCount() {
+        return offsets.get(nodesQuantity);
+    }
+
+    @Override
+    public boolean hasEdge(int origin, int destiny) {
+        // Busca binária na lista ordenada de vizinhos
+        int low = offsets.get(origin);
+        int high = offsets.get(origin + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = targets.get(middle);
+            if (target < destiny) {
+                low = middle + 1;
+            } else if (target > destiny) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean addEdge(int origin, int destiny) {
+        throw new UnsupportedOperationException("Estrutura mapeada é somente leitura, use toCsrStorage()");
+    }
+
+    @Override
+    public boolean removeEdge(int origin, int destiny) {
+        throw new UnsupportedOperationException("Estrutura mapeada é somente leitura, use toCsrStorage()");
+    }
+
+    @Override
+    public int outDegree(int node) {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    @Override
+    public synchronized int inDegree(int node) {
+        if (inDegrees == null) {
+            int[] degrees = new int[nodesQuantity];
+            int edges = edgeCount();
+            for (int i = 0; i < edges; i++) {
+                degrees[targets.get(i)]++;
+            }
+            inDegrees = degrees;
+        }
+        return inDegrees[node];
+    }
+
+    @Override
+    public int firstEdge(int node) {
+        int start = offsets.get(node);
+        return start < offsets.get(node + 1) ? start : -1;
+    }
+
+    @Override
+    public int nextEdge(int node, int edge) {
+        return edge + 1 < offsets.get(node + 1) ? edge + 1 : -1;
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return targets.get(edge);
+    }
+
+    /**
+     * Copia a estrutura para vetores em memória, permitindo alterações.
+     */
+    public CsrStorage toCsrStorage() {
+        int[] heapOffsets = new int[nodesQuantity + 1];
+        int[] heapTargets = new int[edgeCount()];
+        int[] heapInDegrees = new int[nodesQuantity];
+        offsets.duplicate().get(heapOffsets);
+        targets.duplicate().get(heapTargets);
+        for (int target : heapTargets) {
+            heapInDegrees[target]++;
+        }
+        return new CsrStorage(heapOffsets, heapTargets, heapInDegrees);
+    }
+}
@@ -0,0 +1,157 @@
+package org.yoaceng;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitor do arquivo de arestas (graph.txt) em uma única passada.
+ *
+ * O arquivo é mapeado em memória pelo FileChannel e percorrido byte a byte,
+ * sem criar uma String por linha: os nomes dos vértices são procurados direto
+ * nos bytes e só viram String na primeira vez em que aparecem. As arestas são
+ * guardadas em uma EdgeList que cresce durante a leitura e, no final, a estrutura
+ * do grafo é escolhida pela densidade.
+ *
+ * Formato: a primeira linha é "D" ou "ND" e cada linha seguinte é "origem, destino".
+ *
+ * @author Cayo Cutrim
+ */
+public class MappedEdgeListLoader {
+    private static final int WINDOW_SIZE = 1 << 28;    // Tamanho máximo de cada trecho mapeado (256 MB)
+
+    private long bytesRead;             // Bytes lidos na última carga
+    private long elapsedNanos;          // Duração da última carga
+    private long buildNanos;            // Parte da última carga gasta montando a estrutura
+
+    /**
+     * Carrega o grafo do arquivo informado.
+     * @param filePath O caminho do arquivo a ser lido.
+     * @return O grafo carregado.
+     * @throws IOException Caso o arquivo não possa ser lido ou esteja vazio.
+     */
+    public Graph load(String filePath) throws IOException {
+        long start = System.nanoTime();
+        NameInterner names = new NameInterner();
+        EdgeList edges = new EdgeList();
+        Boolean driven = null;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+
+            // Mapeia o arquivo em trechos, sempre terminando o trecho no fim de uma linha
+            while (position < fileSize) {
+                long length = Math.min(WINDOW_SIZE, fileSize - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == fileSize;
+
+                int end = (int) length;
+                if (!lastWindow) {
+                    while (end > 0 && buffer.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("Linha maior que " + WINDOW_SIZE + " bytes na posição " + position);
+                    }
+                }
+
+                int lineStart = 0;
+                while (lineStart < end) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                        lineEnd++;
+                    }
+                    int next = lineEnd + 1;
+                    if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                        lineEnd--;
+                    }
+
+                    if (driven == null) {
+                        // A primeira linha indica se o grafo é dirigido
+                        driven = lineEnd - lineStart == 1 && buffer.get(lineStart) == 'D';
+                    } else if (lineEnd > lineStart) {
+                        readEdge(buffer, lineStart, lineEnd, names, edges);
+                    }
+                    lineStart = next;
+                }
+                position += end;
+            }
+            bytesRead = fileSize;
+        }
+
+        if (driven == null) {
+            throw new IOException("Arquivo vazio: " + filePath);
+        }
+        GraphMetrics.stop(GraphMetrics.Operation.LOAD_PARSE, start);
+
+        long buildStart = System.nanoTime();
+        Graph graph = new Graph(driven, GraphStorage.fromEdges(names.size(), edges, driven));
+        for (int i = 0; i < names.size(); i++) {
+            graph.addNode(names.nameOf(i));
+        }
+        GraphMetrics.stop(GraphMetrics.Operation.LOAD_BUILD, buildStart);
+        buildNanos = System.nanoTime() - buildStart;
+
+        elapsedNanos = System.nanoTime() - start;
+        return graph;
+    }
+
+    /**
+     * Separa a linha "origem, destino" e guarda a aresta pelos índices dos vértices.
+     */
+    private static void readEdge(MappedByteBuffer buffer, int lineStart, int lineEnd, NameInterner names, EdgeList edges)
+            throws IOException {
+        int separator = lineStart;
+        while (separator + 1 < lineEnd && (buffer.get(separator) != ',' || buffer.get(separator + 1) != ' ')) {
+            separator++;
+        }
+        if (separator + 1 >= lineEnd) {
+            throw new IOException("Linha sem o separador \", \"");
+        }
+
+        // Assim como o split(", "), ignora o que vier depois de um segundo separador
+        int destinyEnd = separator + 2;
+        while (destinyEnd + 1 < lineEnd && (buffer.get(destinyEnd) != ',' || buffer.get(destinyEnd + 1) != ' ')) {
+            destinyEnd++;
+        }
+        if (destinyEnd + 1 >= lineEnd) {
+            destinyEnd = lineEnd;
+        }
+
+        int origin = names.intern(buffer, lineStart, separator);
+        int destiny = names.intern(buffer, separator + 2, destinyEnd);
+        edges.add(origin, destiny);
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Parte da última carga gasta lendo e separando o arquivo.
+     */
+    public long getParseNanos() {
+        return elapsedNanos - buildNanos;
+    }
+
+    /**
+     * @return Parte da última carga gasta montando a estrutura e a tabela de nomes.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return Vazão da última carga em bytes por segundo.
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesRead * 1e9 / elapsedNanos;
+    }
+}
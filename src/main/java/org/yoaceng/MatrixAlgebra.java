@@ -0,0 +1,245 @@
+package org.yoaceng;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Operações sobre a matriz de adjacência inteira: fecho transitivo (alcançabilidade),
+ * contagem de caminhos de k passos (potência da matriz) e vizinhos em comum (A · Aᵀ).
+ *
+ * As linhas da matriz são empacotadas em bits (como no BitMatrixStorage), então uma
+ * operação entre duas linhas trata 64 colunas por instrução. Os núcleos são divididos
+ * em blocos que cabem no cache e os blocos de linhas são processados em paralelo no pool.
+ * Todas as operações guardam resultados V x V, então são indicadas para grafos densos
+ * ou de até algumas dezenas de milhares de vértices.
+ *
+ * @author Cayo Cutrim
+ */
+public final class MatrixAlgebra {
+    private static final int WORD_SHIFT = 6;        // 64 bits por palavra
+    private static final int PIVOT_BLOCK = 64;      // Linhas pivô do fecho tratadas por rodada (uma palavra de colunas)
+    private static final int ROW_BLOCK = 64;        // Linhas por bloco nos produtos de matrizes
+    private static final int COLUMN_BLOCK = 256;    // Colunas por bloco na multiplicação de matrizes
+    private static final int PARALLEL_GRAIN = 64;   // Linhas mínimas por tarefa paralela
+
+    private MatrixAlgebra() {
+    }
+
+    /**
+     * Empacota as linhas da estrutura em bits: o bit j da linha i indica a aresta i -> j.
+     */
+    static long[][] packRows(GraphStorage storage, int nodesQuantity, ForkJoinPool pool) {
+        int words = (nodesQuantity + 63) >>> WORD_SHIFT;
+        long[][] rows = new long[nodesQuantity][];
+        ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long[] row = new long[words];
+                for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                    int j = storage.edgeTarget(i, e);
+                    row[j >>> WORD_SHIFT] |= 1L << j;
+                }
+                rows[i] = row;
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Fecho transitivo pelo algoritmo de Warshall sobre as linhas de bits, em blocos.
+     *
+     * No Warshall, para cada pivô k toda linha i que alcança k recebe a linha de k
+     * (row_i |= row_k). Os pivôs são tratados em rodadas de PIVOT_BLOCK: primeiro as
+     * próprias linhas pivô da rodada são fechadas entre si (sequencial, é pouco trabalho);
+     * depois todas as outras linhas aplicam os pivôs da rodada em ordem, em paralelo,
+     * já que cada linha só lê as linhas pivô e escreve em si mesma. As linhas pivô da
+     * rodada (PIVOT_BLOCK x V bits) ficam no cache enquanto as outras linhas passam
+     * por elas, e há uma sincronização por rodada em vez de uma por vértice.
+     *
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Quantidade de vértices.
+     * @param pool Pool onde as rodadas são executadas.
+     * @return A matriz de alcançabilidade: i -> j existe se há um caminho de 1 ou mais
+     * arestas de i até j (i -> i apenas quando i está em um ciclo).
+     */
+    public static BitMatrixStorage transitiveClosure(GraphStorage storage, int nodesQuantity, ForkJoinPool pool) {
+        long[][] rows = packRows(storage, nodesQuantity, pool);
+
+        for (int blockStart = 0; blockStart < nodesQuantity; blockStart += PIVOT_BLOCK) {
+            int blockEnd = Math.min(blockStart + PIVOT_BLOCK, nodesQuantity);
+
+            // Fecha as linhas pivô da rodada entre si
+            for (int k = blockStart; k < blockEnd; k++) {
+                long[] pivot = rows[k];
+                for (int i = blockStart; i < blockEnd; i++) {
+                    if (i != k && testBit(rows[i], k)) {
+                        or(rows[i], pivot);
+                    }
+                }
+            }
+
+            // Aplica os pivôs da rodada nas demais linhas; os bits da rodada estão todos na mesma palavra
+            int start = blockStart;
+            int end = blockEnd;
+            int word = blockStart >>> WORD_SHIFT;
+            ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (i >= start && i < end) {
+                        continue;
+                    }
+                    long[] row = rows[i];
+                    for (int k = start; k < end; k++) {
+                        if ((row[word] & (1L << k)) != 0) {
+                            or(row, rows[k]);
+                        }
+                    }
+                }
+            });
+        }
+        return new BitMatrixStorage(rows, nodesQuantity);
+    }
+
+    private static boolean testBit(long[] row, int bit) {
+        return (row[bit >>> WORD_SHIFT] & (1L << bit)) != 0;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] |= source[w];
+        }
+    }
+
+    /**
+     * Conta os caminhos (passeios, podendo repetir vértices) com exatamente k arestas
+     * entre cada par de vértices, pela potência A^k da matriz de adjacência calculada
+     * por quadrados sucessivos (O(V³ log k)).
+     *
+     * Os valores são long e estouram (como toda conta em long) se passarem de
+     * Long.MAX_VALUE, o que pode acontecer com k grande em grafos densos.
+     *
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Quantidade de vértices.
+     * @param k Quantidade de arestas dos caminhos (0 = matriz identidade).
+     * @param pool Pool onde as multiplicações são executadas.
+     * @return counts[i][j] = quantidade de caminhos de i até j com k arestas.
+     */
+    public static long[][] pathCounts(GraphStorage storage, int nodesQuantity, int k, ForkJoinPool pool) {
+        if (k < 0) {
+            throw new IllegalArgumentException("A quantidade de arestas não pode ser negativa: " + k);
+        }
+        long[][] power = new long[nodesQuantity][nodesQuantity];
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                power[i][storage.edgeTarget(i, e)] = 1;
+            }
+        }
+
+        long[][] result = null;     // null = identidade, para não multiplicar por ela
+        for (int remaining = k; remaining > 0; remaining >>>= 1) {
+            if ((remaining & 1) != 0) {
+                result = result == null ? copy(power) : multiply(result, power, pool);
+            }
+            if (remaining > 1) {
+                power = multiply(power, power, pool);
+            }
+        }
+        if (result == null) {
+            result = new long[nodesQuantity][nodesQuantity];
+            for (int i = 0; i < nodesQuantity; i++) {
+                result[i][i] = 1;
+            }
+        }
+        return result;
+    }
+
+    private static long[][] copy(long[][] matrix) {
+        long[][] copy = new long[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Produto de matrizes quadradas em blocos: cada tarefa cuida de um grupo de linhas
+     * do resultado e percorre as colunas em faixas de COLUMN_BLOCK e o índice interno em
+     * faixas de ROW_BLOCK, para que o pedaço de b usado (ROW_BLOCK x COLUMN_BLOCK) fique
+     * no cache. Os zeros de a são pulados, o que ajuda bastante nas primeiras potências.
+     */
+    static long[][] multiply(long[][] a, long[][] b, ForkJoinPool pool) {
+        int n = a.length;
+        long[][] c = new long[n][n];
+        ParallelRange.run(pool, 0, n, PARALLEL_GRAIN, (from, to) -> {
+            for (int jj = 0; jj < n; jj += COLUMN_BLOCK) {
+                int jEnd = Math.min(jj + COLUMN_BLOCK, n);
+                for (int kk = 0; kk < n; kk += ROW_BLOCK) {
+                    int kEnd = Math.min(kk + ROW_BLOCK, n);
+                    for (int i = from; i < to; i++) {
+                        long[] rowA = a[i];
+                        long[] rowC = c[i];
+                        for (int k = kk; k < kEnd; k++) {
+                            long value = rowA[k];
+                            if (value == 0) {
+                                continue;
+                            }
+                            long[] rowB = b[k];
+                            for (int j = jj; j < jEnd; j++) {
+                                rowC[j] += value * rowB[j];
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return c;
+    }
+
+    /**
+     * Quantidade de vizinhos em comum entre cada par de vértices (A · Aᵀ): o tamanho
+     * da interseção das linhas i e j, contado com Long.bitCount(row_i & row_j) palavra
+     * por palavra. Como o resultado é simétrico só a metade j >= i é calculada, em blocos
+     * de ROW_BLOCK x ROW_BLOCK linhas para reaproveitar as linhas no cache.
+     * Em digrafos são os sucessores em comum.
+     *
+     * @param storage Estrutura com as arestas do grafo.
+     * @param nodesQuantity Quantidade de vértices.
+     * @param pool Pool onde os blocos são executados.
+     * @return common[i][j] = quantidade de vizinhos em comum (common[i][i] = grau de i).
+     */
+    public static int[][] commonNeighbors(GraphStorage storage, int nodesQuantity, ForkJoinPool pool) {
+        long[][] rows = packRows(storage, nodesQuantity, pool);
+        int[][] common = new int[nodesQuantity][nodesQuantity];
+        int blocks = (nodesQuantity + ROW_BLOCK - 1) / ROW_BLOCK;
+
+        // Cada tarefa calcula uma faixa de blocos de linhas; a metade espelhada é escrita depois
+        ParallelRange.run(pool, 0, blocks, 1, (fromBlock, toBlock) -> {
+            for (int block = fromBlock; block < toBlock; block++) {
+                int iStart = block * ROW_BLOCK;
+                int iEnd = Math.min(iStart + ROW_BLOCK, nodesQuantity);
+                for (int jStart = iStart; jStart < nodesQuantity; jStart += ROW_BLOCK) {
+                    int jEnd = Math.min(jStart + ROW_BLOCK, nodesQuantity);
+                    for (int i = iStart; i < iEnd; i++) {
+                        long[] rowI = rows[i];
+                        for (int j = Math.max(jStart, i); j < jEnd; j++) {
+                            common[i][j] = intersectionSize(rowI, rows[j]);
+                        }
+                    }
+                }
+            }
+        });
+        ParallelRange.run(pool, 0, nodesQuantity, PARALLEL_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < i; j++) {
+                    common[i][j] = common[j][i];
+                }
+            }
+        });
+        return common;
+    }
+
+    private static int intersectionSize(long[] rowA, long[] rowB) {
+        int count = 0;
+        for (int w = 0; w < rowA.length; w++) {
+            count += Long.bitCount(rowA[w] & rowB[w]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package org.yoaceng;
+
+/**
+ * Destino adicional das medições feitas por GraphMetrics, para repassá-las a outro
+ * sistema de monitoramento (registrado com GraphMetrics.addSink).
+ *
+ * Os métodos são chamados na thread que executou a operação, dentro do caminho
+ * medido, então devem ser rápidos, não bloquear e aceitar chamadas concorrentes.
+ *
+ * @author Cayo Cutrim
+ */
+public interface MetricsSink {
+    /**
+     * @param operation A operação medida.
+     * @param nanos A duração da operação em nanossegundos.
+     */
+    void recordLatency(GraphMetrics.Operation operation, long nanos);
+
+    /**
+     * Chamado ao final de cada análise de biconectividade.
+     * @param visitedNodes Vértices visitados pela DFS.
+     * @param scannedEdges Arestas percorridas pela DFS.
+     * @param maxDepth Maior profundidade alcançada pela pilha da DFS.
+     */
+    default void recordTraversal(long visitedNodes, long scannedEdges, int maxDepth) {
+    }
+}
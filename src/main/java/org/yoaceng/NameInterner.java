@@ -0,0 +1,126 @@
+package org.yoaceng;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tabela hash (endereçamento aberto) que associa os bytes do nome de um vértice
+ * ao seu índice, numerando os nomes na ordem em que aparecem. Os bytes de cada nome
+ * ficam copiados em um único vetor, então procurar um nome já conhecido não aloca
+ * nada, e a String de cada nome só é criada quando pedida em nameOf.
+ *
+ * O MappedEdgeListLoader usa uma tabela para o arquivo inteiro; o ParallelGraphBuilder
+ * usa uma por bloco e depois as junta, na ordem do arquivo, com merge.
+ *
+ * @author Cayo Cutrim
+ */
+final class NameInterner {
+    private int[] table = new int[1024];    // Índice do vértice + 1 em cada posição (0 = vazia)
+    private int[] hashes = new int[256];    // Hash do nome de cada vértice
+    private int[] offsets = new int[257];   // Início do nome de cada vértice em bytes
+    private byte[] bytes = new byte[4096];  // Bytes de todos os nomes, um após o outro
+    private String[] names = new String[256];
+    private int size = 0;
+
+    /**
+     * @return O índice do nome formado pelos bytes buffer[from .. to - 1].
+     */
+    int intern(ByteBuffer buffer, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        hash ^= hash >>> 16;
+        return intern(buffer, from, to, hash);
+    }
+
+    /**
+     * Acrescenta os nomes da outra tabela que ainda não existem nesta, na ordem da outra,
+     * comparando os bytes e reaproveitando os hashes já calculados.
+     * @return mapping[i] = índice nesta tabela do nome i da outra tabela.
+     */
+    int[] merge(NameInterner other) {
+        ByteBuffer source = ByteBuffer.wrap(other.bytes);
+        int[] mapping = new int[other.size];
+        for (int i = 0; i < other.size; i++) {
+            mapping[i] = intern(source, other.offsets[i], other.offsets[i + 1], other.hashes[i]);
+        }
+        return mapping;
+    }
+
+    private int intern(ByteBuffer buffer, int from, int to, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                int index = add(buffer, from, to, hash);
+                table[slot] = index + 1;
+                if (size * 2 > table.length) {
+                    rehash();
+                }
+                return index;
+            }
+            if (hashes[entry - 1] == hash && sameName(entry - 1, buffer, from, to)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private boolean sameName(int index, ByteBuffer buffer, int from, int to) {
+        int start = offsets[index];
+        if (offsets[index + 1] - start != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (bytes[start + i - from] != buffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int add(ByteBuffer buffer, int from, int to, int hash) {
+        int length = to - from;
+        if (size + 1 == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        int start = offsets[size];
+        if (start + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + length));
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[start + i] = buffer.get(from + i);
+        }
+        hashes[size] = hash;
+        offsets[size + 1] = start + length;
+        return size++;
+    }
+
+    private void rehash() {
+        int[] newTable = new int[table.length * 2];
+        int mask = newTable.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = index + 1;
+        }
+        table = newTable;
+    }
+
+    String nameOf(int index) {
+        if (names[index] == null) {
+            names[index] = new String(bytes, offsets[index], offsets[index + 1] - offsets[index],
+                    StandardCharsets.UTF_8);
+        }
+        return names[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
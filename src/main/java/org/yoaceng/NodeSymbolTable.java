@@ -0,0 +1,131 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabela de símbolos bidirecional dos vértices: nome -> índice pelo HashMap
+ * e índice -> nome por um vetor denso, ambos em O(1).
+ *
+ * Os índices de vértices removidos ficam livres e são reaproveitados pelos
+ * próximos vértices adicionados, então size() é o limite dos índices
+ * (alguns podem estar livres) e count() é a quantidade de vértices existentes.
+ *
+ * @author Cayo Cutrim
+ */
+public class NodeSymbolTable {
+    private final Map<String, Integer> indexes;     // Nome do vértice -> endereço na estrutura
+    private String[] names;                         // Endereço na estrutura -> nome do vértice
+    private int size;                               // Limite dos índices já usados
+    private final IntList freeIndexes;              // Índices de vértices removidos, para reaproveitar
+
+    public NodeSymbolTable() {
+        this(16);
+    }
+
+    public NodeSymbolTable(int expectedNodes) {
+        this.indexes = new HashMap<>(Math.max(16, (int) (expectedNodes / 0.75f) + 1));
+        this.names = new String[Math.max(expectedNodes, 1)];
+        this.size = 0;
+        this.freeIndexes = new IntList();
+    }
+
+    /**
+     * Monta a tabela com cada nome no endereço em que está no vetor.
+     * @param names Nome de cada endereço (null = endereço livre).
+     */
+    static NodeSymbolTable of(String[] names) {
+        NodeSymbolTable table = new NodeSymbolTable(names.length);
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (names[i] != null) {
+                table.names[i] = names[i];
+                table.indexes.put(names[i], i);
+            } else {
+                table.freeIndexes.add(i);   // Os menores endereços livres são reaproveitados primeiro
+            }
+        }
+        table.size = names.length;
+        return table;
+    }
+
+    /**
+     * Adiciona o vértice caso ainda não exista.
+     * @param name Nome do vértice.
+     * @return O índice do vértice.
+     */
+    public int add(String name) {
+        Integer index = indexes.get(name);
+        if (index != null) {
+            return index;
+        }
+
+        int newIndex;
+        if (freeIndexes.size() > 0) {
+            newIndex = freeIndexes.removeLast();
+        } else {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            newIndex = size++;
+        }
+        names[newIndex] = name;
+        indexes.put(name, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Remove o vértice, deixando o seu índice livre para o próximo vértice adicionado.
+     * @return O índice que o vértice ocupava ou -1 caso ele não exista.
+     */
+    public int remove(String name) {
+        Integer index = indexes.remove(name);
+        if (index == null) {
+            return -1;
+        }
+        names[index] = null;
+        freeIndexes.add(index);
+        return index;
+    }
+
+    /**
+     * @return O índice do vértice ou -1 caso ele não exista.
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return O nome do vértice ou null caso o índice não exista.
+     */
+    public String nameOf(int index) {
+        return index >= 0 && index < size ? names[index] : null;
+    }
+
+    public boolean contains(String name) {
+        return indexes.containsKey(name);
+    }
+
+    /**
+     * @return Limite dos índices (todo índice válido é menor que esse valor).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Quantidade de vértices existentes.
+     */
+    public int count() {
+        return indexes.size();
+    }
+
+    /**
+     * @return Visão somente leitura do mapeamento nome -> índice.
+     */
+    public Map<String, Integer> asMap() {
+        return Collections.unmodifiableMap(indexes);
+    }
+}
@@ -0,0 +1,28 @@
+package org.yoaceng;
+
+/**
+ * Interface JMX com as medições de uma operação do grafo, registrada como
+ * org.yoaceng:type=GraphMetrics,operation=NOME. Os tempos estão em nanossegundos
+ * e os percentis têm erro relativo de até 12,5% (ver LatencyHistogram).
+ *
+ * @author Cayo Cutrim
+ */
+public interface OperationMetricsMXBean {
+    long getCount();
+
+    long getTotalNanos();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    void reset();
+}
@@ -0,0 +1,311 @@
+package org.yoaceng;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monta o grafo de um arquivo de lista de adjacência usando várias threads.
+ *
+ * O arquivo é dividido em blocos que terminam sempre no fim de uma linha e cada
+ * bloco é lido e separado em vértices por uma tarefa do pool. Cada bloco numera os
+ * nomes que encontra em uma NameInterner própria, sem disputar nada com os outros blocos
+ * e sem criar Strings: os nomes são procurados direto nos bytes. Depois as tabelas são
+ * juntadas na ordem do arquivo (comparando os bytes, com os hashes já calculados) e as
+ * arestas de cada bloco são renumeradas para os índices finais, em paralelo. A estrutura é montada pela
+ * contagem paralela de CsrStorage.fromEdgesParallel. Grafos densos continuam indo
+ * para a matriz de bits, como em GraphStorage.fromEdges.
+ *
+ * Os índices seguem a ordem da primeira ocorrência de cada nome no arquivo, então
+ * não dependem da quantidade de threads nem da ordem em que elas terminam. Isso
+ * importa porque o resultado das buscas em digrafos depende da numeração.
+ *
+ * Formato: a primeira linha é "D" ou "ND" e cada linha seguinte é "vértice: vizinho, vizinho, ...".
+ *
+ * @author Cayo Cutrim
+ */
+public class ParallelGraphBuilder {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;     // Tamanho mínimo de cada bloco (1 MB)
+    private static final int MAX_CHUNK_SIZE = 1 << 26;     // Tamanho máximo de cada bloco (64 MB)
+    private static final int CHUNKS_PER_THREAD = 4;        // Blocos por thread, para equilibrar a carga
+
+    private final ForkJoinPool pool;
+    private long bytesRead;             // Bytes lidos na última carga
+    private long elapsedNanos;          // Duração da última carga
+    private long buildNanos;            // Parte da última carga gasta montando a estrutura
+
+    public ParallelGraphBuilder() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelGraphBuilder(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Carrega o grafo do arquivo de lista de adjacência informado.
+     * @param filePath O caminho do arquivo a ser lido.
+     * @return O grafo carregado.
+     * @throws IOException Caso o arquivo não possa ser lido ou esteja vazio.
+     */
+    public Graph loadAdjacencyList(String filePath) throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+
+            // A primeira linha indica se o grafo é dirigido
+            byte[] header = readLineAt(channel, 0, fileSize);
+            if (header == null) {
+                throw new IOException("Arquivo vazio: " + filePath);
+            }
+            int headerLength = header.length;
+            while (headerLength > 0 && (header[headerLength - 1] == '\n' || header[headerLength - 1] == '\r')) {
+                headerLength--;
+            }
+            boolean driven = headerLength == 1 && header[0] == 'D';
+
+            long[] bounds = chunkBounds(channel, header.length, fileSize);
+            int chunksCount = bounds.length - 1;
+            EdgeList[] chunks = new EdgeList[chunksCount];
+            NameInterner[] chunkNames = new NameInterner[chunksCount];
+            IOException[] failure = new IOException[1];
+
+            // Leitura e separação dos blocos em paralelo; FileChannel.read com posição é thread-safe
+            ParallelRange.run(pool, 0, chunksCount, 1, (from, to) -> {
+                for (int c = from; c < to; c++) {
+                    try {
+                        chunkNames[c] = new NameInterner();
+                        chunks[c] = parseChunk(channel, bounds[c], bounds[c + 1], chunkNames[c]);
+                    } catch (IOException e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+
+            // Junta as tabelas dos blocos na ordem do arquivo e renumera as arestas de cada bloco
+            NameInterner names = new NameInterner();
+            int[][] mappings = new int[chunksCount][];
+            for (int c = 0; c < chunksCount; c++) {
+                mappings[c] = names.merge(chunkNames[c]);
+                chunkNames[c] = null;
+            }
+            ParallelRange.run(pool, 0, chunksCount, 1, (from, to) -> {
+                for (int c = from; c < to; c++) {
+                    chunks[c].remap(mappings[c]);
+                }
+            });
+            GraphMetrics.stop(GraphMetrics.Operation.LOAD_PARSE, start);
+            long buildStart = System.nanoTime();
+
+            int nodesQuantity = names.size();
+            long edgesCount = 0;
+            for (EdgeList chunk : chunks) {
+                edgesCount += chunk.size();
+            }
+            long arcs = driven ? edgesCount : 2 * edgesCount;
+            double density = nodesQuantity == 0 ? 0 : (double) arcs / ((double) nodesQuantity * nodesQuantity);
+
+            GraphStorage storage;
+            if (density < GraphStorage.DENSE_THRESHOLD) {
+                storage = CsrStorage.fromEdgesParallel(nodesQuantity, chunks, driven, pool);
+            } else {
+                EdgeList edges = new EdgeList((int) edgesCount);
+                for (EdgeList chunk : chunks) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        edges.add(chunk.origin(i), chunk.destiny(i));
+                    }
+                }
+                storage = GraphStorage.fromEdges(nodesQuantity, edges, driven);
+            }
+
+            Graph graph = new Graph(driven, storage);
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addNode(names.nameOf(i));
+            }
+            GraphMetrics.stop(GraphMetrics.Operation.LOAD_BUILD, buildStart);
+            buildNanos = System.nanoTime() - buildStart;
+
+            bytesRead = fileSize;
+            elapsedNanos = System.nanoTime() - start;
+            return graph;
+        }
+    }
+
+    /**
+     * Divide o arquivo em blocos de tamanho parecido, cada um terminando logo depois de um '\n'.
+     * @return As posições de início de cada bloco, seguidas do fim do arquivo.
+     */
+    private long[] chunkBounds(FileChannel channel, long from, long fileSize) throws IOException {
+        long length = fileSize - from;
+        int parallelism = pool.getParallelism() * CHUNKS_PER_THREAD;
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, length / parallelism + 1));
+
+        LongList bounds = new LongList();
+        bounds.add(from);
+        long position = from;
+        while (fileSize - position > chunkSize) {
+            byte[] line = readLineAt(channel, position + chunkSize, fileSize);
+            long next = position + chunkSize + (line == null ? 0 : line.length);
+            if (next >= fileSize) {
+                break;
+            }
+            bounds.add(next);
+            position = next;
+        }
+        bounds.add(fileSize);
+        return bounds.toArray();
+    }
+
+    /**
+     * Lê a partir da posição até o primeiro '\n' (inclusive) ou até o fim do arquivo.
+     * @return Os bytes lidos ou null caso a posição já esteja no fim do arquivo.
+     */
+    private static byte[] readLineAt(FileChannel channel, long position, long fileSize) throws IOException {
+        if (position >= fileSize) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        int length = 0;
+        byte[] line = new byte[256];
+        while (position + length < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position + length);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                byte b = buffer.get(i);
+                line[length++] = b;
+                if (b == '\n') {
+                    return Arrays.copyOf(line, length);
+                }
+            }
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * Lê um bloco inteiro e separa as linhas "vértice: vizinho, vizinho, ..." em arestas.
+     */
+    private static EdgeList parseChunk(FileChannel channel, long from, long to, NameInterner names)
+            throws IOException {
+        int length = (int) (to - from);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                throw new IOException("Fim do arquivo inesperado na posição " + (from + buffer.position()));
+            }
+        }
+        byte[] bytes = buffer.array();
+
+        EdgeList edges = new EdgeList(Math.max(16, length / 8));
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                parseLine(buffer, lineStart, lineEnd, names, edges);
+            }
+            lineStart = next;
+        }
+        return edges;
+    }
+
+    private static void parseLine(ByteBuffer buffer, int lineStart, int lineEnd, NameInterner names, EdgeList edges) {
+        byte[] bytes = buffer.array();
+        // Assim como o split(": "), o vértice vai até o primeiro separador
+        int separator = indexOf(bytes, lineStart, lineEnd, (byte) ':');
+        int origin = names.intern(buffer, lineStart, separator);
+        if (separator + 2 > lineEnd) {
+            return;     // Vértice sem vizinhos
+        }
+
+        int tokenStart = separator + 2;
+        while (tokenStart < lineEnd) {
+            int tokenEnd = indexOf(bytes, tokenStart, lineEnd, (byte) ',');
+            if (tokenEnd > tokenStart) {
+                edges.add(origin, names.intern(buffer, tokenStart, tokenEnd));
+            }
+            tokenStart = tokenEnd + 2;
+        }
+    }
+
+    /**
+     * Posição do separador "&lt;marker&gt; " (o caractere seguido de espaço) ou o fim da linha.
+     */
+    private static int indexOf(byte[] bytes, int from, int to, byte marker) {
+        for (int i = from; i + 1 < to; i++) {
+            if (bytes[i] == marker && bytes[i + 1] == ' ') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Parte da última carga gasta lendo e separando o arquivo.
+     */
+    public long getParseNanos() {
+        return elapsedNanos - buildNanos;
+    }
+
+    /**
+     * @return Parte da última carga gasta montando a estrutura e a tabela de nomes.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return Vazão da última carga em bytes por segundo.
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesRead * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Lista de long que cresce dobrando de tamanho, para as posições dos blocos.
+     */
+    private static class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.yoaceng;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Divide um intervalo de índices em tarefas do ForkJoinPool até que cada
+ * trecho tenha no máximo grain posições, executando o corpo em cada trecho.
+ * Quando a chamada retorna, tudo o que os trechos escreveram está visível
+ * para quem chamou (o join das tarefas garante a ordem de memória).
+ *
+ * @author Cayo Cutrim
+ */
+@SuppressWarnings("serial")    // Tarefa do pool, nunca serializada
+final class ParallelRange extends RecursiveAction {
+    interface Body {
+        void run(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final Body body;
+
+    private ParallelRange(int from, int to, int grain, Body body) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.body = body;
+    }
+
+    static void run(ForkJoinPool pool, int from, int to, int grain, Body body) {
+        if (to - from <= grain) {
+            body.run(from, to);
+        } else {
+            pool.invoke(new ParallelRange(from, to, Math.max(grain, 1), body));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            body.run(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new ParallelRange(from, middle, grain, body), new ParallelRange(middle, to, grain, body));
+    }
+}
@@ -0,0 +1,148 @@
+package org.yoaceng;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos resultados das consultas do Graph (análise de biconectividade e
+ * vizinhos de cada vértice), com tamanho limitado e descarte do menos usado (LRU).
+ *
+ * Cada resultado vale para uma versão do grafo: o Graph conta as alterações
+ * (addNode, addEdge, removeEdge, reorder) e, quando a versão muda, o cache inteiro
+ * é descartado na próxima consulta. Com o grafo sem alterações, consultas repetidas
+ * viram uma busca no mapa. Os valores guardados são imutáveis, então podem ser
+ * devolvidos diretamente.
+ *
+ * Assim como o Graph, o cache não é thread-safe.
+ *
+ * @author Cayo Cutrim
+ */
+public final class QueryCache {
+    /**
+     * Tipos de consulta guardados, que junto com o vértice formam a chave.
+     */
+    enum Query {
+        BICONNECTIVITY,     // Resultado da DFS de Tarjan (articulações, pontes e componentes)
+        NEIGHBORS           // Nomes dos vizinhos de um vértice
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Long, Object> entries;
+    private long version = -1;      // Versão do grafo dos resultados guardados
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    QueryCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("O cache precisa de pelo menos uma entrada: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        // accessOrder = true: cada leitura move a entrada para o fim, e a mais antiga é a menos usada
+        this.entries = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retorna o resultado guardado da consulta ou o calcula e guarda.
+     * @param graphVersion A versão atual do grafo; resultados de outras versões são descartados.
+     * @param query O tipo da consulta.
+     * @param node O vértice consultado (qualquer valor para consultas do grafo inteiro).
+     * @param compute Calcula o resultado quando ele não está no cache.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(long graphVersion, Query query, int node, Supplier<T> compute) {
+        if (graphVersion != version) {
+            if (!entries.isEmpty()) {
+                invalidations++;
+                entries.clear();
+            }
+            version = graphVersion;
+        }
+
+        Long key = ((long) query.ordinal() << 32) | (node & 0xFFFFFFFFL);
+        Object value = entries.get(key);
+        if (value != null) {
+            hits++;
+            return (T) value;
+        }
+        misses++;
+        T computed = compute.get();
+        entries.put(key, computed);
+        return computed;
+    }
+
+    /**
+     * Descarta todos os resultados guardados, mantendo as estatísticas.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Zera as estatísticas de acertos, faltas, descartes e invalidações.
+     */
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        invalidations = 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return Consultas respondidas com um resultado guardado.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Consultas que precisaram ser calculadas.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Resultados descartados por falta de espaço. Muitos descartes indicam que o cache está pequeno.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Vezes em que o cache foi esvaziado por uma alteração no grafo.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache de consultas: %d/%d entradas, %d acertos, %d faltas (%.1f%% de acerto), %d descartes, %d invalidações",
+                entries.size(), maxEntries, hits, misses, getHitRate() * 100, evictions, invalidations);
+    }
+}
@@ -0,0 +1,141 @@
+package org.yoaceng;
+
+import java.util.Arrays;
+
+/**
+ * Calcula uma nova numeração dos vértices para que vértices vizinhos fiquem
+ * em endereços próximos, melhorando o uso de cache nas buscas e varreduras.
+ * Os endereços que vêm da leitura dependem da ordem em que os nomes aparecem
+ * no arquivo (ou da ordem de um HashSet), o que espalha os vizinhos pela estrutura.
+ *
+ * @author Cayo Cutrim
+ */
+public final class VertexOrdering {
+    public enum Strategy {
+        REVERSE_CUTHILL_MCKEE,  // BFS a partir do vértice de menor grau, vizinhos por grau crescente, ordem invertida
+        DEGREE,                 // Maior grau primeiro: as listas mais acessadas ficam juntas no início
+        BFS                     // Ordem de descoberta de uma busca em largura
+    }
+
+    private VertexOrdering() {
+    }
+
+    /**
+     * Calcula a ordem dos vértices existentes (endereços com nome) no grafo.
+     * @param storage A estrutura do grafo.
+     * @param nodes A tabela de símbolos, para ignorar os endereços livres.
+     * @param strategy A estratégia de ordenação.
+     * @return order[novo endereço] = endereço atual, com nodes.count() posições.
+     */
+    public static int[] compute(GraphStorage storage, NodeSymbolTable nodes, Strategy strategy) {
+        switch (strategy) {
+            case REVERSE_CUTHILL_MCKEE:
+                int[] order = breadthFirst(storage, nodes, true);
+                for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                }
+                return order;
+            case DEGREE:
+                return byDegree(storage, nodes, true);
+            case BFS:
+                return breadthFirst(storage, nodes, false);
+            default:
+                throw new IllegalArgumentException("Estratégia desconhecida: " + strategy);
+        }
+    }
+
+    /**
+     * Ordena os vértices existentes pelo grau de emissão usando contagem, em O(V + maior grau).
+     * @param descending Se os vértices de maior grau vêm primeiro.
+     */
+    private static int[] byDegree(GraphStorage storage, NodeSymbolTable nodes, boolean descending) {
+        int maxDegree = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                maxDegree = Math.max(maxDegree, storage.outDegree(i));
+            }
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                int degree = storage.outDegree(i);
+                start[(descending ? maxDegree - degree : degree) + 1]++;
+            }
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            start[d + 1] += start[d];
+        }
+
+        int[] order = new int[nodes.count()];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                int degree = storage.outDegree(i);
+                order[start[descending ? maxDegree - degree : degree]++] = i;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Busca em largura por todas as componentes. Cada componente começa pelo primeiro
+     * vértice ainda não visitado na ordem das raízes.
+     * @param cuthillMcKee Se as raízes e os vizinhos de cada vértice são visitados por grau
+     *                     crescente (Cuthill–McKee) ou na ordem da estrutura.
+     */
+    private static int[] breadthFirst(GraphStorage storage, NodeSymbolTable nodes, boolean cuthillMcKee) {
+        int[] roots = cuthillMcKee ? byDegree(storage, nodes, false) : existing(nodes);
+        boolean[] visited = new boolean[nodes.size()];
+        int[] order = new int[nodes.count()];
+        long[] neighbors = new long[16];    // Vizinhos de um vértice como (grau << 32 | vértice), para ordenar
+        int head = 0;
+        int tail = 0;
+
+        for (int root : roots) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            order[tail++] = root;
+
+            // A própria resposta serve de fila da busca
+            while (head < tail) {
+                int u = order[head++];
+                int count = 0;
+                for (int e = storage.firstEdge(u); e != -1; e = storage.nextEdge(u, e)) {
+                    int v = storage.edgeTarget(u, e);
+                    if (visited[v]) {
+                        continue;
+                    }
+                    visited[v] = true;
+                    if (!cuthillMcKee) {
+                        order[tail++] = v;
+                        continue;
+                    }
+                    if (count == neighbors.length) {
+                        neighbors = Arrays.copyOf(neighbors, count * 2);
+                    }
+                    neighbors[count++] = (long) storage.outDegree(v) << 32 | v;
+                }
+                if (cuthillMcKee) {
+                    Arrays.sort(neighbors, 0, count);
+                    for (int i = 0; i < count; i++) {
+                        order[tail++] = (int) neighbors[i];
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] existing(NodeSymbolTable nodes) {
+        int[] existing = new int[nodes.count()];
+        for (int i = 0, next = 0; i < nodes.size(); i++) {
+            if (nodes.nameOf(i) != null) {
+                existing[next++] = i;
+            }
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,131 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Testes do executor de consultas em lote: as respostas saem na ordem das consultas
+ * mesmo com vários blocos em andamento, e as consultas inválidas viram linhas de erro
+ * no lugar certo, sem interromper o lote.
+ *
+ * @author Cayo Cutrim
+ */
+public class BatchQueryExecutorTest extends TestCase {
+    private ExecutorService pool;
+
+    @Override
+    protected void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void testRespostasNaOrdemDasConsultas() throws IOException {
+        // Ciclo v0 - v1 - ... - v99 - v0 com cordas v(i) - v(i + 10) para i múltiplo de 10
+        Graph graph = new Graph(false);
+        for (int i = 0; i < 100; i++) {
+            graph.addNode("v" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            graph.addEdge(i, (i + 1) % 100);
+            if (i % 10 == 0) {
+                graph.addEdge(i, (i + 10) % 100);
+            }
+        }
+
+        GraphSnapshot snapshot = graph.snapshot();
+
+        // Bem mais consultas que 2 * 4 blocos de 4096, para o executor esperar blocos no meio da leitura
+        int total = 50000;
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int q = 0; q < total; q++) {
+            int node = q % 100;
+            int other = (q * 7) % 100;
+            switch (q % 3) {
+                case 0:
+                    input.append("adjacentes v").append(node).append(" v").append(other).append('\n');
+                    expected.append("adjacentes v").append(node).append(" v").append(other).append('\t')
+                            .append(graph.isAdjacent(node, other)).append('\n');
+                    break;
+                case 1:
+                    input.append("grau v").append(node).append('\n');
+                    expected.append("grau v").append(node).append('\t').append(graph.outDegree(node)).append('\n');
+                    break;
+                default:
+                    input.append("vizinhos v").append(node).append('\n');
+                    expected.append("vizinhos v").append(node).append('\t');
+                    StringBuilder neighbors = new StringBuilder();
+                    snapshot.forEachNeighbor(node, neighbor ->
+                            neighbors.append(neighbors.length() > 0 ? ", v" : "v").append(neighbor));
+                    expected.append(neighbors).append('\n');
+            }
+        }
+
+        StringWriter output = new StringWriter();
+        BatchQueryStats stats = new BatchQueryExecutor(snapshot, pool, 4)
+                .execute(new BufferedReader(new StringReader(input.toString())), output);
+        assertEquals(expected.toString(), output.toString());
+        assertEquals(total, stats.getQueries());
+        assertEquals(0, stats.getErrors());
+    }
+
+    public void testLinhasDeErroNoLugarDaConsulta() throws IOException {
+        Graph graph = new Graph(true);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addEdge("A", "B");
+
+        String input = "# comentário\n"
+                + "adjacentes A B\n"
+                + "\n"
+                + "adjacentes A\n"
+                + "  grau   A  \n"
+                + "grau X\n"
+                + "adjacentes A Y\n"
+                + "vizinhos\n"
+                + "caminho A B\n"
+                + "vizinhos A\n"
+                + "adjacentes B A";
+        String expected = "adjacentes A B\ttrue\n"
+                + "adjacentes A\terro: uso: adjacentes <vértice> <vértice>\n"
+                + "grau   A\t1 0\n"
+                + "grau X\terro: vértice inexistente: X\n"
+                + "adjacentes A Y\terro: vértice inexistente: Y\n"
+                + "vizinhos\terro: uso: vizinhos <vértice>\n"
+                + "caminho A B\terro: consulta desconhecida: caminho\n"
+                + "vizinhos A\tB\n"
+                + "adjacentes B A\tfalse\n";
+
+        StringWriter output = new StringWriter();
+        BatchQueryStats stats = new BatchQueryExecutor(graph.snapshot(), pool, 4)
+                .execute(new BufferedReader(new StringReader(input)), output);
+        assertEquals(expected, output.toString());
+        // Comentários e linhas vazias não contam como consultas
+        assertEquals(9, stats.getQueries());
+        assertEquals(5, stats.getErrors());
+    }
+
+    public void testCopiaNaoVeAlteracoesPosteriores() throws IOException {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        GraphSnapshot snapshot = graph.snapshot();
+        graph.addEdge("A", "B");
+        graph.addNode("C");
+
+        StringWriter output = new StringWriter();
+        new BatchQueryExecutor(snapshot, pool, 1)
+                .execute(new BufferedReader(new StringReader("adjacentes A B\ngrau C\n")), output);
+        assertEquals("adjacentes A B\tfalse\ngrau C\terro: vértice inexistente: C\n", output.toString());
+    }
+}
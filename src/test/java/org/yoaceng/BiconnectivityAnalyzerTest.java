@@ -0,0 +1,247 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Testes da análise de biconectividade: a versão paralela tem que dar exatamente
+ * o mesmo resultado da sequencial, e as articulações e pontes têm que bater com a remoção
+ * de cada vértice e de cada aresta.
+ *
+ * @author Cayo Cutrim
+ */
+public class BiconnectivityAnalyzerTest extends TestCase {
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void testParaleloIgualAoSequencialComMuitasComponentes() {
+        Random random = new Random(8);
+        for (int round = 0; round < 20; round++) {
+            Graph graph = manyComponents(random, 200 + random.nextInt(300), false);
+            assertSameResult(graph);
+        }
+    }
+
+    public void testParaleloIgualAoSequencialEmDigrafos() {
+        Random random = new Random(9);
+        for (int round = 0; round < 10; round++) {
+            Graph graph = manyComponents(random, 100 + random.nextInt(100), true);
+            assertSameResult(graph);
+        }
+    }
+
+    public void testDigrafoAnalisadoSequencialmenteNaCopiaImutavel() {
+        // 2 -> 0 -> 1: a DFS a partir de 0 não alcança 2, então o resultado depende da ordem das raízes
+        Graph graph = new Graph(true);
+        for (int i = 0; i < 3; i++) {
+            graph.addNode("v" + i);
+        }
+        graph.addEdge(2, 0);
+        graph.addEdge(0, 1);
+        assertSameResult(graph.analyzeBiconnectivity(), graph.snapshot().analyzeBiconnectivity(pool));
+
+        Random random = new Random(11);
+        for (int round = 0; round < 10; round++) {
+            GraphSnapshot snapshot = manyComponents(random, 100 + random.nextInt(100), true).snapshot();
+            assertSameResult(snapshot.analyzeBiconnectivity(), snapshot.analyzeBiconnectivity(pool));
+        }
+    }
+
+    public void testParaleloComUmaComponenteGrande() {
+        Random random = new Random(10);
+        Graph graph = new Graph(false);
+        int nodesQuantity = 20_000;
+        for (int i = 0; i < nodesQuantity; i++) {
+            graph.addNode("v" + i);
+        }
+        // Caminho longo com alguns atalhos: muitas articulações e pontes, DFS profunda
+        for (int i = 0; i + 1 < nodesQuantity; i++) {
+            graph.addEdge(i, i + 1);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int a = random.nextInt(nodesQuantity);
+            graph.addEdge(a, Math.min(nodesQuantity - 1, a + 1 + random.nextInt(5)));
+        }
+        assertSameResult(graph);
+    }
+
+    public void testGrafoVazio() {
+        Graph graph = new Graph(false);
+        assertSameResult(graph);
+        assertEquals(0, graph.analyzeBiconnectivity(pool).getComponentsCount());
+    }
+
+    public void testArticulacoesIguaisAForcaBruta() {
+        Random random = new Random(11);
+        for (int round = 0; round < 100; round++) {
+            int nodesQuantity = 1 + random.nextInt(40);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, random.nextInt(2 * nodesQuantity));
+            int[] expected = GraphOracle.articulationPoints(graph.getStorage(), nodesQuantity);
+            assertTrue(Arrays.equals(expected, graph.analyzeBiconnectivity().getArticulationPoints()));
+            assertTrue(Arrays.equals(expected, graph.analyzeBiconnectivity(pool).getArticulationPoints()));
+        }
+    }
+
+    public void testPontesEComponentes2ArestaIguaisAForcaBruta() {
+        Random random = new Random(23);
+        for (int round = 0; round < 150; round++) {
+            int nodesQuantity = 1 + random.nextInt(30);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, random.nextInt(2 * nodesQuantity));
+            // Alguns vértices removidos deixam endereços livres no meio da numeração
+            for (int i = random.nextInt(3); i > 0; i--) {
+                graph.removeNode("v" + random.nextInt(nodesQuantity));
+            }
+            assertBridgesAndTwoEdgeComponents(graph, graph.analyzeBiconnectivity());
+            assertBridgesAndTwoEdgeComponents(graph, graph.analyzeBiconnectivity(pool));
+        }
+    }
+
+    public void testEnderecoLivreNaoViraComponente() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addNode("C");
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.removeNode("C");
+
+        for (BiconnectivityResult result : new BiconnectivityResult[] {graph.analyzeBiconnectivity(),
+                graph.analyzeBiconnectivity(pool), graph.snapshot().analyzeBiconnectivity()}) {
+            // A - B é uma ponte, então A e B ficam em componentes separadas; o endereço de C não aparece
+            assertEquals(2, result.getTwoEdgeComponentsCount());
+            for (int c = 0; c < result.getTwoEdgeComponentsCount(); c++) {
+                for (int node : result.getTwoEdgeComponent(c)) {
+                    assertNotNull(graph.getNodeName(node));
+                }
+            }
+            assertEquals(-1, result.getTwoEdgeComponentOf(2));
+            assertEquals(1, result.getBridgesCount());
+            assertEquals(1, result.getComponentsCount());
+        }
+    }
+
+    /**
+     * Várias componentes pequenas, de um vértice isolado até algumas dezenas de vértices,
+     * com os vértices de cada componente espalhados pela numeração.
+     */
+    private static Graph manyComponents(Random random, int components, boolean driven) {
+        int[] sizes = new int[components];
+        int nodesQuantity = 0;
+        for (int c = 0; c < components; c++) {
+            sizes[c] = 1 + random.nextInt(random.nextInt(4) == 0 ? 40 : 6);
+            nodesQuantity += sizes[c];
+        }
+        int[] permutation = new int[nodesQuantity];
+        for (int i = 0; i < nodesQuantity; i++) {
+            permutation[i] = i;
+        }
+        for (int i = nodesQuantity - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+
+        Graph graph = new Graph(driven);
+        for (int i = 0; i < nodesQuantity; i++) {
+            graph.addNode("v" + i);
+        }
+        int first = 0;
+        for (int size : sizes) {
+            // Árvore aleatória (componente conexa) e mais algumas arestas internas
+            for (int i = 1; i < size; i++) {
+                graph.addEdge(permutation[first + random.nextInt(i)], permutation[first + i]);
+            }
+            int extra = random.nextInt(size + 1);
+            for (int i = 0; i < extra; i++) {
+                graph.addEdge(permutation[first + random.nextInt(size)], permutation[first + random.nextInt(size)]);
+            }
+            first += size;
+        }
+        return graph;
+    }
+
+    /**
+     * Compara as pontes com a remoção de cada aresta e as componentes 2-aresta-conexas
+     * com as componentes conexas do grafo sem as pontes.
+     */
+    private static void assertBridgesAndTwoEdgeComponents(Graph graph, BiconnectivityResult result) {
+        GraphStorage storage = graph.getStorage();
+        int nodesQuantity = graph.getNodes().size();
+        long[] expected = GraphOracle.bridges(storage, nodesQuantity);
+        long[] actual = new long[result.getBridgesCount()];
+        for (int b = 0; b < actual.length; b++) {
+            actual[b] = GraphOracle.pair(result.getBridgeOrigin(b), result.getBridgeDestiny(b));
+        }
+        Arrays.sort(actual);
+        assertTrue(Arrays.equals(expected, actual));
+
+        // Componentes do grafo sem as pontes, numeradas pela busca em largura
+        int[] component = new int[nodesQuantity];
+        Arrays.fill(component, -1);
+        int components = 0;
+        for (int root = 0; root < nodesQuantity; root++) {
+            if (graph.getNodeName(root) == null || component[root] != -1) {
+                continue;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            component[root] = components;
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                for (int e = storage.firstEdge(u); e != -1; e = storage.nextEdge(u, e)) {
+                    int v = storage.edgeTarget(u, e);
+                    if (component[v] == -1 && Arrays.binarySearch(expected, GraphOracle.pair(u, v)) < 0) {
+                        component[v] = components;
+                        queue.add(v);
+                    }
+                }
+            }
+            components++;
+        }
+
+        assertEquals(components, result.getTwoEdgeComponentsCount());
+        for (int u = 0; u < nodesQuantity; u++) {
+            if (graph.getNodeName(u) == null) {
+                assertEquals(-1, result.getTwoEdgeComponentOf(u));
+                continue;
+            }
+            for (int v = 0; v < nodesQuantity; v++) {
+                if (graph.getNodeName(v) != null) {
+                    assertEquals(u + ", " + v, component[u] == component[v],
+                            result.getTwoEdgeComponentOf(u) == result.getTwoEdgeComponentOf(v));
+                }
+            }
+        }
+    }
+
+    private void assertSameResult(Graph graph) {
+        assertSameResult(graph.analyzeBiconnectivity(), graph.analyzeBiconnectivity(pool));
+    }
+
+    private static void assertSameResult(BiconnectivityResult sequential, BiconnectivityResult parallel) {
+        assertTrue(Arrays.equals(sequential.getArticulationPoints(), parallel.getArticulationPoints()));
+        assertTrue(Arrays.equals(sequential.getBridges(), parallel.getBridges()));
+        assertEquals(sequential.getComponentsCount(), parallel.getComponentsCount());
+        for (int c = 0; c < sequential.getComponentsCount(); c++) {
+            assertTrue(Arrays.equals(sequential.getComponent(c), parallel.getComponent(c)));
+        }
+        assertEquals(sequential.getTwoEdgeComponentsCount(), parallel.getTwoEdgeComponentsCount());
+        for (int c = 0; c < sequential.getTwoEdgeComponentsCount(); c++) {
+            assertTrue(Arrays.equals(sequential.getTwoEdgeComponent(c), parallel.getTwoEdgeComponent(c)));
+        }
+    }
+}
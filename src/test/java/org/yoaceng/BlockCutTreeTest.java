@@ -0,0 +1,98 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * Testes das consultas de conectividade com um vértice em falha (Graph.isConnectedWithout),
+ * comparadas com a remoção do vértice seguida de uma busca em largura.
+ *
+ * @author Cayo Cutrim
+ */
+public class BlockCutTreeTest extends TestCase {
+
+    public void testTodosOsTriosEmGrafosAleatorios() {
+        Random random = new Random(5);
+        for (int round = 0; round < 150; round++) {
+            int nodesQuantity = 1 + random.nextInt(14);
+            // Poucas arestas deixam várias componentes e vértices isolados
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, random.nextInt(2 * nodesQuantity));
+            assertAllTriples(graph);
+        }
+    }
+
+    public void testVariasComponentesEVerticesIsolados() {
+        Graph graph = new Graph(false);
+        for (String node : new String[] {"A", "B", "C", "D", "E", "F", "G", "H", "I"}) {
+            graph.addNode(node);
+        }
+        // Caminho A - B - C, triângulo D - E - F ligado a G por F, H e I isolados
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("D", "E");
+        graph.addEdge("E", "F");
+        graph.addEdge("F", "D");
+        graph.addEdge("F", "G");
+
+        assertFalse(graph.isConnectedWithout("B", "A", "C"));
+        assertTrue(graph.isConnectedWithout("E", "D", "G"));
+        assertFalse(graph.isConnectedWithout("F", "D", "G"));
+        assertFalse(graph.isConnectedWithout("H", "A", "D"));
+        assertFalse(graph.isConnectedWithout("A", "H", "I"));
+        assertTrue(graph.isConnectedWithout("A", "H", "H"));
+        assertAllTriples(graph);
+    }
+
+    public void testVerticeEmFalhaIgualAUmaPonta() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addEdge("A", "B");
+        assertFalse(graph.isConnectedWithout("A", "A", "B"));
+        assertFalse(graph.isConnectedWithout("B", "A", "B"));
+        assertFalse(graph.isConnectedWithout("A", "A", "A"));
+    }
+
+    public void testNomesInexistentes() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addNode("C");
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+
+        // Sem o vértice em falha, a consulta vira uma consulta de conectividade simples
+        assertTrue(graph.isConnectedWithout("X", "A", "C"));
+        assertFalse(graph.isConnectedWithout("B", "A", "X"));
+        assertFalse(graph.isConnectedWithout("B", "X", "C"));
+        assertFalse(graph.isConnectedWithout("X", "Y", "Z"));
+    }
+
+    public void testArvoreRemontadaDepoisDeAlteracoes() {
+        Random random = new Random(6);
+        Graph graph = GraphOracle.randomGraph(random, 12, 8);
+        for (int i = 0; i < 30; i++) {
+            assertAllTriples(graph);
+            graph.addEdge(random.nextInt(12), random.nextInt(12));
+            if (i % 5 == 4) {
+                graph.removeEdge(random.nextInt(12), random.nextInt(12));
+            }
+        }
+    }
+
+    private static void assertAllTriples(Graph graph) {
+        GraphStorage storage = graph.getStorage();
+        int nodesQuantity = graph.getNodes().size();
+        for (int failed = 0; failed < nodesQuantity; failed++) {
+            for (int a = 0; a < nodesQuantity; a++) {
+                for (int b = 0; b < nodesQuantity; b++) {
+                    boolean expected = GraphOracle.isConnected(storage, nodesQuantity, a, b, failed);
+                    boolean actual = graph.isConnectedWithout(graph.getNodeName(failed), graph.getNodeName(a),
+                            graph.getNodeName(b));
+                    assertEquals("sem " + failed + ": " + a + " - " + b, expected, actual);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testes do modo não interativo: leitura dos argumentos, códigos de saída e o formato
+ * das linhas de resultado.
+ *
+ * @author Cayo Cutrim
+ */
+public class CommandLineRunnerTest extends TestCase {
+    private File graphFile;
+    private File outputFile;
+    private File exportFile;
+    private PrintStream errorConsole;
+    private ByteArrayOutputStream errors;
+
+    @Override
+    protected void setUp() throws IOException {
+        graphFile = File.createTempFile("grafo", ".txt");
+        outputFile = File.createTempFile("resultado", ".txt");
+        exportFile = File.createTempFile("exportado", ".txt");
+        // Dois triângulos ligados pela ponte C - D, no formato do graph.txt
+        try (PrintWriter writer = new PrintWriter(graphFile, "UTF-8")) {
+            writer.println("ND");
+            for (String edge : new String[] {"A, B", "B, C", "C, A", "C, D", "D, E", "E, F", "F, D"}) {
+                writer.println(edge);
+            }
+        }
+        errorConsole = System.err;
+        errors = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errors, true, "UTF-8"));
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setErr(errorConsole);
+        graphFile.delete();
+        outputFile.delete();
+        exportFile.delete();
+    }
+
+    public void testOperacoesConsultasETempos() throws IOException {
+        int code = CommandLineRunner.run(new String[] {
+            graphFile.getPath(), "pontes", "--consulta", "grau C", "resumo", "articulacoes",
+            "--consulta", "adjacentes A X", "componentes", "--threads", "2",
+            "--exportar", "edge_list", exportFile.getPath(), "--saida", outputFile.getPath()
+        });
+        assertEquals(errors(), 0, code);
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        // Operações na ordem dos argumentos, depois as consultas e por último os tempos
+        assertEquals("pontes\t1\tC -- D", lines.get(0));
+        assertEquals("resumo\tnao_dirigido\t6\t7", lines.get(1));
+        assertEquals("articulacoes\t2\tC, D", lines.get(2));
+        assertEquals("componentes\t3", lines.get(3));
+        assertEquals("grau C\t3", lines.get(4));
+        assertEquals("adjacentes A X\terro: vértice inexistente: X", lines.get(5));
+
+        List<String> phases = new ArrayList<>();
+        for (String line : lines.subList(6, lines.size())) {
+            String[] fields = line.split("\t");
+            assertEquals("tempo", fields[0]);
+            assertTrue(line, Double.parseDouble(fields[2]) >= 0);
+            phases.add(fields[1]);
+        }
+        assertEquals("[carga, montagem, analise, consultas, saida, total]", phases.toString());
+
+        // O arquivo exportado é lido de volta com as mesmas arestas
+        Graph exported = new MappedEdgeListLoader().load(exportFile.getPath());
+        assertEquals(6, exported.getNodesCounter());
+        assertTrue(exported.isAdjacent(exported.getNodeIndex("C"), exported.getNodeIndex("D")));
+    }
+
+    public void testFormatoDeAdjacenciaERenumeracao() throws IOException {
+        Graph graph = new MappedEdgeListLoader().load(graphFile.getPath());
+        try (GraphExporter exporter = GraphExporter.toFile(exportFile.getPath())) {
+            exporter.export(graph, GraphExporter.Format.ADJACENCY_LIST);
+        }
+
+        int code = CommandLineRunner.run(new String[] {
+            exportFile.getPath(), "--formato", "adjacencia", "--ordem", "bfs", "pontes",
+            "--saida", outputFile.getPath()
+        });
+        assertEquals(errors(), 0, code);
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        assertTrue(lines.get(0), lines.get(0).equals("pontes\t1\tC -- D") || lines.get(0).equals("pontes\t1\tD -- C"));
+        assertTrue(lines.get(1).startsWith("tempo\tcarga\t"));
+        assertTrue(lines.get(3).startsWith("tempo\trenumeracao\t"));
+    }
+
+    public void testArgumentosInvalidos() {
+        String path = graphFile.getPath();
+        String[][] invalid = {
+            {},
+            {"--saida", outputFile.getPath()},
+            {path, "--formato", "xml"},
+            {path, "--formato"},
+            {path, "--ordem", "ALEATORIA"},
+            {path, "--threads", "0"},
+            {path, "--threads", "muitas"},
+            {path, "--exportar", "DOT"},
+            {path, "--exportar", "PNG", "saida.png"},
+            {path, "--verboso"},
+            {path, "caminhos"}
+        };
+        for (String[] args : invalid) {
+            errors.reset();
+            assertEquals(String.join(" ", args), 2, CommandLineRunner.run(args));
+            String message = errors();
+            assertTrue(message, message.contains("Uso: App <arquivo>"));
+        }
+        assertFalse(outputFile.length() > 0);
+
+        errors.reset();
+        CommandLineRunner.run(new String[] {path, "caminhos"});
+        assertTrue(errors().startsWith("Operação desconhecida: caminhos"));
+        errors.reset();
+        CommandLineRunner.run(new String[] {path, "--threads", "muitas"});
+        assertTrue(errors().startsWith("Quantidade de threads inválida: muitas"));
+    }
+
+    public void testErroDeLeituraSai1() {
+        File missing = new File(graphFile.getPath() + ".inexistente");
+        assertEquals(1, CommandLineRunner.run(new String[] {missing.getPath(), "resumo"}));
+        assertTrue(errors().startsWith("Erro ao processar o grafo: "));
+
+        // Consultas em um arquivo que não existe também são erro de leitura
+        errors.reset();
+        assertEquals(1, CommandLineRunner.run(new String[] {
+            graphFile.getPath(), "--consultas", missing.getPath(), "--saida", outputFile.getPath()
+        }));
+        assertTrue(errors().startsWith("Erro ao processar o grafo: "));
+    }
+
+    private String errors() {
+        return new String(errors.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
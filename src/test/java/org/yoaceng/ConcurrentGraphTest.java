@@ -0,0 +1,206 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Testes do ConcurrentGraph: cada época publicada é uma cópia que não muda mais,
+ * e as leituras nunca enxergam um grupo de alterações pela metade.
+ *
+ * @author Cayo Cutrim
+ */
+public class ConcurrentGraphTest extends TestCase {
+
+    public void testEpocaAntigaNaoMuda() {
+        ConcurrentGraph graph = new ConcurrentGraph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addEdge("A", "B");
+        GraphSnapshot before = graph.snapshot();
+        long epoch = graph.getEpoch();
+        assertEquals(3, epoch);
+
+        graph.update(g -> {
+            g.addNode("C");
+            g.addEdge("B", "C");
+            g.removeEdge("A", "B");
+        });
+        assertEquals(epoch + 1, graph.getEpoch());
+
+        // A cópia antiga continua com o grafo da época em que foi obtida
+        assertEquals(2, before.count());
+        assertEquals(-1, before.getNodeIndex("C"));
+        assertTrue(before.isAdjacent(before.getNodeIndex("A"), before.getNodeIndex("B")));
+        assertEquals(0, before.getArticulationPoints().length);
+
+        assertFalse(graph.isAdjacent("A", "B"));
+        assertTrue(graph.isAdjacent("C", "B"));
+        assertEquals(0, graph.outDegree("A"));
+        assertEquals(-1, graph.outDegree("X"));
+    }
+
+    public void testFalhaNoMeioNaoPublica() {
+        ConcurrentGraph graph = new ConcurrentGraph(false);
+        graph.update(g -> {
+            g.addNode("A");
+            g.addNode("B");
+            g.addNode("C");
+            g.addEdge("A", "B");
+        });
+        GraphSnapshot before = graph.snapshot();
+        long epoch = graph.getEpoch();
+
+        try {
+            graph.update(g -> {
+                g.addEdge("B", "C");
+                g.removeNode("A");
+                g.addEdge("C", "X");    // Vértice inexistente: falha depois de duas alterações
+            });
+            fail("A exceção das alterações não foi repassada");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("X"));
+        }
+        assertEquals(epoch, graph.getEpoch());
+        assertSame(before, graph.snapshot());
+
+        // A próxima época parte do grafo publicado, sem as alterações do grupo que falhou
+        graph.addNode("D");
+        assertEquals(epoch + 1, graph.getEpoch());
+        assertTrue(graph.isAdjacent("A", "B"));
+        assertFalse(graph.isAdjacent("B", "C"));
+        assertEquals(4, graph.snapshot().count());
+        String[] points = graph.getArticulationPoints();
+        assertEquals(0, points.length);
+    }
+
+    public void testFalhaDepoisDeRemoverVerticesMantemOsEnderecos() {
+        ConcurrentGraph graph = new ConcurrentGraph(false);
+        graph.update(g -> {
+            for (String node : new String[] {"A", "B", "C", "D"}) {
+                g.addNode(node);
+            }
+            g.addEdge("A", "B");
+            g.addEdge("B", "C");
+            g.removeNode("D");
+        });
+        GraphSnapshot before = graph.snapshot();
+
+        try {
+            graph.update(g -> {
+                g.removeNode("B");
+                throw new IllegalStateException("falha");
+            });
+            fail("A exceção das alterações não foi repassada");
+        } catch (IllegalStateException e) {
+            // Esperado
+        }
+
+        graph.update(g -> {
+            g.addNode("E");     // Reaproveita o endereço livre de D, como antes da falha
+            g.addEdge("C", "E");
+        });
+        GraphSnapshot after = graph.snapshot();
+        for (String node : new String[] {"A", "B", "C"}) {
+            assertEquals(before.getNodeIndex(node), after.getNodeIndex(node));
+        }
+        assertEquals(3, after.getNodeIndex("E"));
+        String[] points = graph.getArticulationPoints();
+        assertEquals(2, points.length);
+        assertEquals("B", points[0]);
+        assertEquals("C", points[1]);
+    }
+
+    public void testLeiturasConcorrentesDuranteAlteracoes() throws InterruptedException {
+        ConcurrentGraph graph = new ConcurrentGraph(false);
+        int batches = 300;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(4);
+
+        // Cada grupo acrescenta um par de vértices ligados; um grupo pela metade deixaria um vértice sozinho
+        Thread writer = new Thread(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (int i = 0; i < batches; i++) {
+                int batch = i;
+                graph.update(g -> {
+                    g.addNode("a" + batch);
+                    g.addNode("b" + batch);
+                    g.addEdge("a" + batch, "b" + batch);
+                });
+                if (i % 10 == 0) {
+                    try {
+                        graph.update(g -> {
+                            g.addNode("x" + batch);
+                            throw new IllegalStateException("falha");
+                        });
+                    } catch (IllegalStateException e) {
+                        // Esperado, nada deve ser publicado
+                    }
+                }
+            }
+            done.set(true);
+        });
+
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                started.countDown();
+                long lastEpoch = -1;
+                while (!done.get() && failure.get() == null) {
+                    long epoch = graph.getEpoch();
+                    GraphSnapshot snapshot = graph.snapshot();
+                    if (epoch < lastEpoch) {
+                        failure.set("Época voltou de " + lastEpoch + " para " + epoch);
+                    }
+                    lastEpoch = epoch;
+                    String problem = checkPairs(snapshot);
+                    if (problem != null) {
+                        failure.set(problem);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(batches, graph.getEpoch());
+        assertEquals(2 * batches, graph.snapshot().count());
+        assertNull(checkPairs(graph.snapshot()));
+    }
+
+    /**
+     * @return A descrição do problema ou null se todo vértice "aN" estiver ligado ao seu "bN".
+     */
+    private static String checkPairs(GraphSnapshot snapshot) {
+        if (snapshot.count() % 2 != 0) {
+            return "Quantidade ímpar de vértices: " + snapshot.count();
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            String name = snapshot.getNodeName(i);
+            if (name == null) {
+                continue;
+            }
+            if (name.startsWith("x")) {
+                return "Vértice de um grupo que falhou: " + name;
+            }
+            String pair = (name.charAt(0) == 'a' ? "b" : "a") + name.substring(1);
+            int other = snapshot.getNodeIndex(pair);
+            if (other == -1 || !snapshot.isAdjacent(i, other)) {
+                return "Grupo pela metade: " + name + " sem " + pair;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,183 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testes dos graus mantidos pelo Graph: depois de arestas, remoções de vértices e
+ * reaproveitamento dos endereços livres, os graus, os histogramas e os vértices de
+ * maior grau têm que ser os mesmos obtidos varrendo a estrutura.
+ *
+ * @author Cayo Cutrim
+ */
+public class DegreeTableTest extends TestCase {
+
+    public void testGrausDepoisDeRemoverEReaproveitarVertices() {
+        for (boolean driven : new boolean[] {false, true}) {
+            Random random = new Random(driven ? 41 : 42);
+            Graph graph = new Graph(driven);
+            // Consulta antes de tudo, para os graus passarem a ser mantidos a cada alteração
+            assertEquals(1, graph.getDegreeHistogram().length);
+
+            int created = 0;
+            for (int step = 0; step < 600; step++) {
+                int operation = random.nextInt(10);
+                if (operation < 3 || graph.getNodesCounter() < 2) {
+                    graph.addNode("v" + created++);
+                } else if (operation < 8) {
+                    int origin = existing(graph, random);
+                    int destiny = existing(graph, random);
+                    graph.addEdge(origin, destiny);
+                } else if (operation < 9) {
+                    graph.removeEdge(existing(graph, random), existing(graph, random));
+                } else {
+                    graph.removeNode(graph.getNodeName(existing(graph, random)));
+                }
+                if (step % 50 == 0) {
+                    assertDegrees(graph);
+                }
+            }
+            assertDegrees(graph);
+        }
+    }
+
+    public void testEnderecoReaproveitadoComecaSemArestas() {
+        Graph graph = new Graph(true);
+        for (String node : new String[] {"A", "B", "C", "D"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("C", "B");
+        graph.addEdge("B", "D");
+        assertEquals(2, graph.inDegree(graph.getNodeIndex("B")));
+
+        int freed = graph.getNodeIndex("B");
+        graph.removeNode("B");
+        assertEquals(0, graph.outDegree(graph.getNodeIndex("A")));
+        assertEquals(0, graph.inDegree(graph.getNodeIndex("D")));
+        // O endereço livre não entra no histograma
+        assertTrue(Arrays.equals(new int[] {3}, graph.getDegreeHistogram()));
+
+        graph.addNode("E");
+        assertEquals(freed, graph.getNodeIndex("E"));
+        assertEquals(0, graph.outDegree(freed));
+        assertEquals(0, graph.inDegree(freed));
+        graph.addEdge("E", "A");
+        assertTrue(Arrays.equals(new int[] {3, 1}, graph.getInDegreeHistogram()));
+        assertDegrees(graph);
+    }
+
+    public void testMaioresGrausComEmpatesPeloMenorEndereco() {
+        Graph graph = new Graph(false);
+        for (int i = 0; i < 8; i++) {
+            graph.addNode("v" + i);
+        }
+        // Graus: v0 = 3, v1 = 1, v2 = 3, v3 = 2, v4 = 1, v5 = 1, v6 = 1, v7 = 0
+        graph.addEdge("v0", "v1");
+        graph.addEdge("v0", "v2");
+        graph.addEdge("v0", "v3");
+        graph.addEdge("v2", "v3");
+        graph.addEdge("v2", "v4");
+        graph.addEdge("v5", "v6");
+
+        assertTrue(Arrays.equals(new int[] {0, 2}, graph.getTopDegreeNodes(2)));
+        assertTrue(Arrays.equals(new int[] {0, 2, 3, 1}, graph.getTopDegreeNodes(4)));
+        assertTrue(Arrays.equals(new int[] {0, 2, 3, 1, 4, 5, 6, 7}, graph.getTopDegreeNodes(100)));
+        assertEquals(0, graph.getTopDegreeNodes(0).length);
+
+        // Sem v0, v2 e v3 passam à frente e o endereço livre não aparece
+        graph.removeNode("v0");
+        assertTrue(Arrays.equals(new int[] {2, 3}, graph.getTopDegreeNodes(2)));
+        assertEquals(7, graph.getTopDegreeNodes(100).length);
+        graph.addNode("w");
+        graph.addEdge("w", "v1");
+        graph.addEdge("w", "v4");
+        graph.addEdge("w", "v7");
+        assertTrue(Arrays.equals(new int[] {0, 2}, graph.getTopDegreeNodes(2)));
+        assertDegrees(graph);
+    }
+
+    public void testGrausCalculadosDepoisDasAlteracoes() {
+        // Sem consulta antes, a tabela é montada da estrutura já com as remoções
+        Graph graph = new Graph(true);
+        for (int i = 0; i < 6; i++) {
+            graph.addNode("v" + i);
+        }
+        for (int i = 0; i < 6; i++) {
+            graph.addEdge(i, (i + 1) % 6);
+            graph.addEdge(i, (i + 2) % 6);
+        }
+        graph.removeNode("v3");
+        graph.addNode("x");
+        graph.addEdge("x", "v0");
+        assertDegrees(graph);
+    }
+
+    private static int existing(Graph graph, Random random) {
+        int index;
+        do {
+            index = random.nextInt(graph.getNodes().size());
+        } while (graph.getNodeName(index) == null);
+        return index;
+    }
+
+    /**
+     * Compara os graus, os histogramas e os maiores graus com os calculados pela estrutura.
+     */
+    private static void assertDegrees(Graph graph) {
+        GraphStorage storage = graph.getStorage();
+        int size = graph.getNodes().size();
+        int[] outDegrees = new int[size];
+        int[] inDegrees = new int[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (storage.hasEdge(i, j)) {
+                    outDegrees[i]++;
+                    inDegrees[j]++;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (graph.getNodeName(i) != null) {
+                assertEquals("v" + i, outDegrees[i], graph.outDegree(i));
+                assertEquals("v" + i, inDegrees[i], graph.inDegree(i));
+            } else {
+                assertEquals("Endereço livre com arestas", 0, outDegrees[i] + inDegrees[i]);
+            }
+        }
+        assertHistogram(graph, outDegrees, graph.getDegreeHistogram());
+        assertHistogram(graph, inDegrees, graph.getInDegreeHistogram());
+        assertTop(graph, outDegrees, graph.getTopDegreeNodes(graph.getNodesCounter()));
+        assertTop(graph, inDegrees, graph.getTopInDegreeNodes(graph.getNodesCounter()));
+    }
+
+    private static void assertHistogram(Graph graph, int[] degrees, int[] histogram) {
+        int maxDegree = 0;
+        int[] expected = new int[degrees.length + 1];
+        for (int i = 0; i < degrees.length; i++) {
+            if (graph.getNodeName(i) != null) {
+                expected[degrees[i]]++;
+                maxDegree = Math.max(maxDegree, degrees[i]);
+            }
+        }
+        assertTrue(Arrays.equals(Arrays.copyOf(expected, maxDegree + 1), histogram));
+    }
+
+    /**
+     * Todos os vértices existentes, em ordem decrescente de grau e, nos empates, de endereço.
+     */
+    private static void assertTop(Graph graph, int[] degrees, int[] top) {
+        assertEquals(graph.getNodesCounter(), top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertNotNull(graph.getNodeName(top[i]));
+            if (i > 0) {
+                int previous = degrees[top[i - 1]];
+                assertTrue(previous > degrees[top[i]]
+                        || previous == degrees[top[i]] && top[i - 1] < top[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Testes do formato binário: gravar e ler de volta tem que dar o mesmo grafo, e a
+ * estrutura mapeada do arquivo tem que ser copiada para a memória na primeira alteração.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphBinaryFormatTest extends TestCase {
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("grafo", ".bin");
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testIdaEVoltaNaoDirigido() throws IOException {
+        assertRoundTrip(sample(false));
+    }
+
+    public void testIdaEVoltaDirigido() throws IOException {
+        assertRoundTrip(sample(true));
+    }
+
+    public void testIdaEVoltaAleatorio() throws IOException {
+        Random random = new Random(12);
+        for (int round = 0; round < 30; round++) {
+            boolean driven = round % 2 == 0;
+            int nodesQuantity = 1 + random.nextInt(60);
+            Graph graph = new Graph(driven);
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addNode("v" + i);
+            }
+            for (int i = random.nextInt(3 * nodesQuantity); i > 0; i--) {
+                graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+            }
+            assertRoundTrip(graph);
+        }
+    }
+
+    public void testGrafoSemArestas() throws IOException {
+        Graph graph = new Graph(false);
+        graph.addNode("sozinho");
+        assertRoundTrip(graph);
+    }
+
+    public void testVerticesRemovidosSaoDescartados() throws IOException {
+        Graph graph = sample(false);
+        graph.removeNode("B");
+        GraphBinaryFormat.write(graph, file.getPath());
+
+        Graph read = GraphBinaryFormat.read(file.getPath());
+        assertEquals(graph.getNodesCounter(), read.getNodes().size());
+        assertEquals(-1, read.getNodeIndex("B"));
+        assertEdgesByName(graph, read);
+    }
+
+    public void testAddEdgeCopiaAEstruturaMapeada() throws IOException {
+        GraphBinaryFormat.write(sample(false), file.getPath());
+        Graph read = GraphBinaryFormat.read(file.getPath());
+        assertTrue(read.getStorage() instanceof MappedCsrStorage);
+
+        read.addEdge("ação", "isolado");
+        assertFalse(read.getStorage() instanceof MappedCsrStorage);
+        assertTrue(read.isAdjacent(read.getNodeIndex("ação"), read.getNodeIndex("isolado")));
+        Graph expected = sample(false);
+        expected.addEdge("ação", "isolado");
+        assertEdgesByName(expected, read);
+
+        // O arquivo continua com o grafo original
+        assertEdgesByName(sample(false), GraphBinaryFormat.read(file.getPath()));
+    }
+
+    public void testRemoveEdgeCopiaAEstruturaMapeada() throws IOException {
+        GraphBinaryFormat.write(sample(true), file.getPath());
+        Graph read = GraphBinaryFormat.read(file.getPath());
+        read.removeEdge("A", "B");
+        assertFalse(read.getStorage() instanceof MappedCsrStorage);
+        assertFalse(read.isAdjacent(read.getNodeIndex("A"), read.getNodeIndex("B")));
+        assertEquals(sample(true).getStorage().edgeCount() - 1, read.getStorage().edgeCount());
+    }
+
+    public void testArquivoInvalido() throws IOException {
+        Files.write(file.toPath(), "ND\nA, B\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            GraphBinaryFormat.read(file.getPath());
+            fail("Arquivo de texto aceito como binário");
+        } catch (IOException e) {
+            // Esperado
+        }
+    }
+
+    public void testArquivoCorrompido() throws IOException {
+        GraphBinaryFormat.write(sample(false), file.getPath());
+        byte[] original = Files.readAllBytes(file.toPath());
+        int nodesQuantity = 6;
+        int nameOffsets = 6 * Integer.BYTES;
+        int names = nameOffsets + (nodesQuantity + 1) * Integer.BYTES;
+        int namesLength = ByteBuffer.wrap(original).order(ByteOrder.LITTLE_ENDIAN).getInt(20);
+        int offsets = names + ((namesLength + 3) & ~3);
+        int targets = offsets + (nodesQuantity + 1) * Integer.BYTES;
+
+        // Início de um nome além da área dos nomes
+        assertRejected(original, nameOffsets + 2 * Integer.BYTES, 1 << 20);
+        // Nomes fora de ordem (o segundo terminaria antes de começar)
+        assertRejected(original, nameOffsets + 2 * Integer.BYTES, 0);
+        // Final da tabela de nomes diferente do tamanho do cabeçalho
+        assertRejected(original, nameOffsets + nodesQuantity * Integer.BYTES, namesLength - 1);
+        // Cabeçalho com quantidades negativas ou maiores que o arquivo
+        assertRejected(original, 12, -1);
+        assertRejected(original, 12, Integer.MAX_VALUE);
+        assertRejected(original, 20, Integer.MAX_VALUE);
+        // Vizinhos: tabela fora de ordem, total diferente e destino inexistente
+        assertRejected(original, offsets + Integer.BYTES, 1 << 20);
+        assertRejected(original, offsets + nodesQuantity * Integer.BYTES, 0);
+        assertRejected(original, targets, nodesQuantity);
+        assertRejected(original, targets, -1);
+    }
+
+    public void testNomeRepetidoRecusado() throws IOException {
+        GraphBinaryFormat.write(sample(false), file.getPath());
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        // "A" e "B" são os dois primeiros nomes, com um byte cada: B vira um segundo A
+        int names = 6 * Integer.BYTES + 7 * Integer.BYTES;
+        assertEquals('B', bytes[names + 1]);
+        bytes[names + 1] = 'A';
+        Files.write(file.toPath(), bytes);
+        try {
+            GraphBinaryFormat.read(file.getPath());
+            fail("Nome repetido aceito");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("repetido"));
+        }
+    }
+
+    /**
+     * Grava o arquivo com o inteiro da posição informada trocado e confere que a leitura o recusa.
+     */
+    private void assertRejected(byte[] original, int position, int value) throws IOException {
+        byte[] bytes = original.clone();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(position, value);
+        Files.write(file.toPath(), bytes);
+        try {
+            GraphBinaryFormat.read(file.getPath());
+            fail("Arquivo corrompido aceito: " + value + " na posição " + position);
+        } catch (IOException e) {
+            // Esperado
+        }
+    }
+
+    /**
+     * Nomes fora do ASCII (acentos, ideogramas e emoji), um laço e um vértice isolado.
+     */
+    private static Graph sample(boolean driven) {
+        Graph graph = new Graph(driven);
+        for (String node : new String[] {"A", "B", "ação", "東京", "🚀", "isolado"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "ação");
+        graph.addEdge("ação", "東京");
+        graph.addEdge("東京", "🚀");
+        graph.addEdge("🚀", "A");
+        graph.addEdge("B", "B");
+        return graph;
+    }
+
+    private void assertRoundTrip(Graph graph) throws IOException {
+        GraphBinaryFormat.write(graph, file.getPath());
+        Graph read = GraphBinaryFormat.read(file.getPath());
+
+        assertEquals(graph.isDriven(), read.isDriven());
+        assertEquals(graph.getNodes().size(), read.getNodes().size());
+        for (int i = 0; i < graph.getNodes().size(); i++) {
+            assertEquals(graph.getNodeName(i), read.getNodeName(i));
+            assertEquals(graph.outDegree(i), read.outDegree(i));
+            assertEquals(graph.inDegree(i), read.inDegree(i));
+        }
+        assertEquals(graph.getStorage().edgeCount(), read.getStorage().edgeCount());
+        assertEdgesByName(graph, read);
+    }
+
+    /**
+     * Compara as arestas pelos nomes dos vértices, que não dependem da numeração.
+     */
+    private static void assertEdgesByName(Graph expected, Graph actual) {
+        int nodesQuantity = expected.getNodes().size();
+        int edges = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            String origin = expected.getNodeName(i);
+            if (origin == null) {
+                continue;
+            }
+            for (int j = 0; j < nodesQuantity; j++) {
+                String destiny = expected.getNodeName(j);
+                if (destiny == null) {
+                    continue;
+                }
+                boolean edge = expected.getStorage().hasEdge(i, j);
+                assertEquals(origin + " -> " + destiny, edge,
+                        actual.getStorage().hasEdge(actual.getNodeIndex(origin), actual.getNodeIndex(destiny)));
+                if (edge) {
+                    edges++;
+                }
+            }
+        }
+        assertEquals(edges, actual.getStorage().edgeCount());
+    }
+}
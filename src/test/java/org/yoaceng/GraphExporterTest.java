@@ -0,0 +1,334 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Testes do exportador: os formatos de texto lidos de volta pelos carregadores têm que
+ * dar o mesmo grafo, e o DOT e o GraphML têm que escapar os nomes.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphExporterTest extends TestCase {
+    /**
+     * Nomes com acentos, ideogramas, emoji e os caracteres especiais do DOT e do XML.
+     * Os separadores dos formatos de texto (", " e ": ") não podem aparecer nos nomes.
+     */
+    private static final String[] NAMES = {"A", "ação", "東京", "🚀", "a\"b", "<x&y>", "c\\d", "👩‍💻", "isolado"};
+
+    private File file;
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("exportado", ".txt");
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+        pool.shutdown();
+    }
+
+    public void testListaDeArestasLidaPeloCarregador() throws IOException {
+        for (boolean driven : new boolean[] {false, true}) {
+            Random random = new Random(driven ? 13 : 14);
+            for (int round = 0; round < 20; round++) {
+                Graph graph = randomGraph(random, driven);
+                export(graph, GraphExporter.Format.EDGE_LIST);
+
+                Graph read = new MappedEdgeListLoader().load(file.getPath());
+                assertEquals(driven, read.isDriven());
+                assertEquals(edgesByName(graph), edgesByName(read));
+                // Vértices sem arestas não aparecem na lista de arestas
+                for (int i = 0; i < read.getNodes().size(); i++) {
+                    assertTrue(read.outDegree(i) + read.inDegree(i) > 0);
+                }
+            }
+        }
+    }
+
+    public void testListaDeAdjacenciaLidaPeloCarregadorParalelo() throws IOException {
+        for (boolean driven : new boolean[] {false, true}) {
+            Random random = new Random(driven ? 15 : 16);
+            for (int round = 0; round < 20; round++) {
+                Graph graph = randomGraph(random, driven);
+                export(graph, GraphExporter.Format.ADJACENCY_LIST);
+
+                Graph read = new ParallelGraphBuilder(pool).loadAdjacencyList(file.getPath());
+                assertEquals(driven, read.isDriven());
+                assertEquals(names(graph), names(read));
+                assertEquals(edgesByName(graph), edgesByName(read));
+            }
+        }
+    }
+
+    public void testListaDeAdjacenciaSemOsVerticesRemovidos() throws IOException {
+        Graph graph = sample(false);
+        graph.removeNode("ação");
+        export(graph, GraphExporter.Format.ADJACENCY_LIST);
+
+        Graph read = new ParallelGraphBuilder(pool).loadAdjacencyList(file.getPath());
+        assertEquals(names(graph), names(read));
+        assertEquals(edgesByName(graph), edgesByName(read));
+    }
+
+    public void testDotEscapaOsNomes() throws IOException {
+        for (boolean driven : new boolean[] {false, true}) {
+            Graph graph = sample(driven);
+            String dot = exportToString(graph, GraphExporter.Format.DOT);
+
+            assertTrue(dot.startsWith(driven ? "digraph G {\n" : "graph G {\n"));
+            assertTrue(dot.contains("  \"a\\\"b\";\n"));
+            assertTrue(dot.contains("  \"c\\\\d\";\n"));
+            assertTrue(dot.contains("  \"<x&y>\";\n"));
+            assertTrue(dot.contains("  \"🚀\";\n"));
+            assertTrue(dot.contains("  \"👩‍💻\";\n"));
+
+            // Lidos de volta, os identificadores têm que dar os nomes e as arestas originais
+            Set<String> nodes = new HashSet<>();
+            Set<List<String>> edges = new HashSet<>();
+            String arrow = driven ? "->" : "--";
+            for (String line : dot.split("\n")) {
+                List<String> ids = dotIds(line);
+                if (ids.size() == 1) {
+                    nodes.add(ids.get(0));
+                } else if (ids.size() == 2) {
+                    assertTrue(line.contains(arrow));
+                    edges.add(edge(ids.get(0), ids.get(1), driven));
+                }
+            }
+            assertEquals(names(graph), nodes);
+            assertEquals(edgesByName(graph), edges);
+        }
+    }
+
+    public void testGraphMlEscapaOsNomes() throws Exception {
+        for (boolean driven : new boolean[] {false, true}) {
+            Graph graph = sample(driven);
+            String graphMl = exportToString(graph, GraphExporter.Format.GRAPHML);
+
+            assertTrue(graphMl.contains("<data key=\"name\">a&quot;b</data>"));
+            assertTrue(graphMl.contains("<data key=\"name\">&lt;x&amp;y&gt;</data>"));
+            assertTrue(graphMl.contains("<data key=\"name\">🚀</data>"));
+
+            // O documento tem que ser XML válido e devolver os nomes e as arestas originais
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(graphMl.getBytes(StandardCharsets.UTF_8)));
+            Element graphElement = (Element) document.getElementsByTagName("graph").item(0);
+            assertEquals(driven ? "directed" : "undirected", graphElement.getAttribute("edgedefault"));
+
+            Map<String, String> nodes = new HashMap<>();
+            NodeList nodeList = document.getElementsByTagName("node");
+            for (int i = 0; i < nodeList.getLength(); i++) {
+                Element node = (Element) nodeList.item(i);
+                nodes.put(node.getAttribute("id"), node.getTextContent());
+            }
+            assertEquals(names(graph), new HashSet<>(nodes.values()));
+
+            Set<List<String>> edges = new HashSet<>();
+            NodeList edgeList = document.getElementsByTagName("edge");
+            for (int i = 0; i < edgeList.getLength(); i++) {
+                Element edge = (Element) edgeList.item(i);
+                edges.add(edge(nodes.get(edge.getAttribute("source")), nodes.get(edge.getAttribute("target")), driven));
+            }
+            assertEquals(edgesByName(graph), edges);
+        }
+    }
+
+    public void testCopiaImutavelIgualAoGrafo() throws IOException {
+        Graph graph = sample(true);
+        for (GraphExporter.Format format : GraphExporter.Format.values()) {
+            String fromGraph = exportToString(graph, format);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (GraphExporter exporter = new GraphExporter(Channels.newChannel(output))) {
+                exporter.export(graph.snapshot(), format);
+            }
+            assertEquals(format.toString(), fromGraph, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public void testConsoleComFimDeLinhaDoSistema() throws IOException {
+        Graph graph = new Graph(false);
+        for (String node : new String[] {"A", "B", "C"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+
+        PrintStream console = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+        try {
+            graph.printAllEdges();
+            graph.printGraph();
+        } finally {
+            System.setOut(console);
+        }
+        String separator = System.lineSeparator();
+        String printed = new String(output.toByteArray(), GraphExporter.consoleCharset());
+        assertTrue(printed, printed.startsWith("A -- B" + separator + "B -- C" + separator));
+        // Depois do título impresso pelo println, as linhas da matriz
+        assertTrue(printed, printed.endsWith(separator + "0 1 0 " + separator + "1 0 1 " + separator + "0 1 0 " + separator));
+    }
+
+    public void testCharsetDoConsoleDiferenteDeUtf8() throws IOException {
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        for (GraphExporter.Format format : GraphExporter.Format.values()) {
+            Graph graph = sample(false);
+            String text = exportToString(graph, format);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (GraphExporter exporter = new GraphExporter(Channels.newChannel(output), true, latin1, "\r\n")) {
+                exporter.export(graph, format);
+            }
+            // Acentos em ISO-8859-1, '?' no que não existe nele e "\r\n" no fim das linhas
+            String expected = text.replace("\n", "\r\n").replace("encoding=\"UTF-8\"", "encoding=\"ISO-8859-1\"");
+            assertTrue(format.toString(), Arrays.equals(expected.getBytes(latin1), output.toByteArray()));
+            assertTrue(new String(output.toByteArray(), latin1).contains("ação"));
+        }
+    }
+
+    public void testCharsetDoConsoleMaiorQueOBuffer() throws IOException {
+        // Bem mais que 1 MB de texto, para o CharsetEncoder encher o buffer no meio de um nome
+        Graph graph = new Graph(true);
+        String prefix = new String(new char[200]).replace('\0', 'é');
+        for (int i = 0; i < 20_000; i++) {
+            graph.addNode(prefix + i);
+            if (i > 0) {
+                graph.addEdge(i - 1, i);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GraphExporter exporter = new GraphExporter(Channels.newChannel(output), true,
+                StandardCharsets.ISO_8859_1, "\r\n")) {
+            exporter.export(graph, GraphExporter.Format.ADJACENCY_LIST);
+        }
+        String expected = exportToString(graph, GraphExporter.Format.ADJACENCY_LIST).replace("\n", "\r\n");
+        assertEquals(expected, new String(output.toByteArray(), StandardCharsets.ISO_8859_1));
+    }
+
+    private static Graph sample(boolean driven) {
+        Graph graph = new Graph(driven);
+        for (String node : NAMES) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "ação");
+        graph.addEdge("ação", "東京");
+        graph.addEdge("東京", "🚀");
+        graph.addEdge("🚀", "a\"b");
+        graph.addEdge("a\"b", "<x&y>");
+        graph.addEdge("<x&y>", "A");
+        graph.addEdge("c\\d", "👩‍💻");
+        graph.addEdge("👩‍💻", "👩‍💻");
+        return graph;
+    }
+
+    private static Graph randomGraph(Random random, boolean driven) {
+        Graph graph = new Graph(driven);
+        for (String node : NAMES) {
+            graph.addNode(node);
+        }
+        int extra = random.nextInt(30);
+        for (int i = 0; i < extra; i++) {
+            graph.addNode("v" + i);
+        }
+        int nodesQuantity = graph.getNodes().size();
+        for (int i = random.nextInt(3 * nodesQuantity); i > 0; i--) {
+            graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+        }
+        return graph;
+    }
+
+    private void export(Graph graph, GraphExporter.Format format) throws IOException {
+        try (GraphExporter exporter = GraphExporter.toFile(file.getPath())) {
+            exporter.export(graph, format);
+        }
+    }
+
+    private static String exportToString(Graph graph, GraphExporter.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GraphExporter exporter = new GraphExporter(Channels.newChannel(output))) {
+            exporter.export(graph, format);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Os identificadores entre aspas da linha, desfazendo o escape de \" e \\.
+     */
+    private static List<String> dotIds(String line) {
+        List<String> ids = new ArrayList<>();
+        StringBuilder id = null;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (id == null) {
+                if (c == '"') {
+                    id = new StringBuilder();
+                }
+            } else if (c == '\\') {
+                id.append(line.charAt(++i));
+            } else if (c == '"') {
+                ids.add(id.toString());
+                id = null;
+            } else {
+                id.append(c);
+            }
+        }
+        return ids;
+    }
+
+    private static Set<String> names(Graph graph) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < graph.getNodes().size(); i++) {
+            if (graph.getNodeName(i) != null) {
+                names.add(graph.getNodeName(i));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * As arestas pelos nomes; em grafos não dirigidos cada par é guardado em ordem.
+     */
+    private static Set<List<String>> edgesByName(Graph graph) {
+        Set<List<String>> edges = new HashSet<>();
+        graph.forEachEdge((origin, destiny) ->
+                edges.add(edge(graph.getNodeName(origin), graph.getNodeName(destiny), graph.isDriven())));
+        return edges;
+    }
+
+    private static List<String> edge(String origin, String destiny, boolean driven) {
+        List<String> edge = new ArrayList<>();
+        if (driven || origin.compareTo(destiny) <= 0) {
+            edge.add(origin);
+            edge.add(destiny);
+        } else {
+            edge.add(destiny);
+            edge.add(origin);
+        }
+        return edge;
+    }
+}
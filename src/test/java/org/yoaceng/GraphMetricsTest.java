@@ -0,0 +1,176 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Testes das medições. A opção -Dyoaceng.metrics é lida uma única vez, na carga
+ * de GraphMetrics, então o caminho desligado é testado nas classes já carregadas
+ * e o ligado em uma cópia das classes carregada por outro ClassLoader depois de
+ * ligar a opção.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphMetricsTest extends TestCase {
+    private static final String PROPERTY = "yoaceng.metrics";
+
+    public void testDesligadoNaoMedeNada() {
+        if (GraphMetrics.ENABLED) {
+            return;     // Testes executados com -Dyoaceng.metrics=true
+        }
+        AtomicLong calls = new AtomicLong();
+        MetricsSink sink = (operation, nanos) -> calls.incrementAndGet();
+        GraphMetrics.addSink(sink);
+        try {
+            assertEquals(0, GraphMetrics.start());
+            Graph graph = EnabledScenario.path(4);
+            graph.isAdjacent(0, 1);
+            graph.outDegree(0);
+            graph.getArticulationPoints();
+
+            assertEquals(0, calls.get());
+            for (GraphMetrics.Operation operation : GraphMetrics.Operation.values()) {
+                assertEquals(operation.toString(), 0, GraphMetrics.get(operation).getCount());
+            }
+            assertFalse(GraphMetrics.traversal().isEnabled());
+            assertEquals(0, GraphMetrics.traversal().getAnalyses());
+        } finally {
+            GraphMetrics.removeSink(sink);
+        }
+    }
+
+    public void testLigadoMedeERepassaAsOperacoes() throws Exception {
+        URL[] classes = {
+            GraphMetrics.class.getProtectionDomain().getCodeSource().getLocation(),
+            GraphMetricsTest.class.getProtectionDomain().getCodeSource().getLocation()
+        };
+        String previous = System.getProperty(PROPERTY);
+        System.setProperty(PROPERTY, "true");
+        // Sem o ClassLoader pai da aplicação, GraphMetrics é carregada de novo e lê a opção ligada
+        try (URLClassLoader loader = new URLClassLoader(classes, null)) {
+            @SuppressWarnings("unchecked")
+            Callable<Void> scenario = (Callable<Void>) Class.forName(EnabledScenario.class.getName(), true, loader)
+                    .newInstance();
+            scenario.call();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(PROPERTY);
+            } else {
+                System.setProperty(PROPERTY, previous);
+            }
+        }
+    }
+
+    /**
+     * Executado dentro do ClassLoader isolado, com as medições ligadas. Usa apenas
+     * classes do Java na interface com o teste (e nada do JUnit), então as falhas saem
+     * como AssertionError.
+     */
+    public static class EnabledScenario implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+            check(GraphMetrics.ENABLED, "medições desligadas no ClassLoader isolado");
+            Map<GraphMetrics.Operation, AtomicLong> latencies = new EnumMap<>(GraphMetrics.Operation.class);
+            AtomicLong traversals = new AtomicLong();
+            AtomicLong visited = new AtomicLong();
+            MetricsSink sink = new MetricsSink() {
+                @Override
+                public void recordLatency(GraphMetrics.Operation operation, long nanos) {
+                    latencies.computeIfAbsent(operation, key -> new AtomicLong()).incrementAndGet();
+                }
+
+                @Override
+                public void recordTraversal(long visitedNodes, long scannedEdges, int maxDepth) {
+                    traversals.incrementAndGet();
+                    visited.addAndGet(visitedNodes);
+                }
+            };
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName addEdgeName = new ObjectName("org.yoaceng:type=GraphMetrics,operation=ADD_EDGE");
+            ObjectName traversalName = new ObjectName("org.yoaceng:type=GraphMetrics,name=Traversal");
+            GraphMetrics.addSink(sink);
+            try {
+                Graph graph = path(4);
+                graph.isAdjacent(0, 1);
+                graph.isAdjacent(0, 2);
+                graph.outDegree(1);
+                int[] points = graph.getArticulationPoints();
+                check(points.length == 2, "articulações do caminho: " + points.length);
+
+                checkCount(GraphMetrics.Operation.ADD_EDGE, 3, latencies);
+                checkCount(GraphMetrics.Operation.IS_ADJACENT, 2, latencies);
+                checkCount(GraphMetrics.Operation.DEGREE, 1, latencies);
+                checkCount(GraphMetrics.Operation.ARTICULATION_POINTS, 1, latencies);
+                checkCount(GraphMetrics.Operation.BICONNECTIVITY, 1, latencies);
+                checkCount(GraphMetrics.Operation.REORDER, 0, latencies);
+
+                GraphMetricsMXBean traversal = GraphMetrics.traversal();
+                check(traversal.getAnalyses() == 1 && traversals.get() == 1, "análises: " + traversal.getAnalyses());
+                check(traversal.getVisitedNodes() == 4 && visited.get() == 4,
+                        "vértices visitados: " + traversal.getVisitedNodes());
+                check(traversal.getMaxDfsDepth() >= 1, "profundidade: " + traversal.getMaxDfsDepth());
+                check(GraphMetrics.summary().contains("ADD_EDGE"), GraphMetrics.summary());
+
+                // Os mesmos números publicados por JMX na carga da classe
+                check(server.isRegistered(addEdgeName), "MXBean não registrado");
+                check(Long.valueOf(3).equals(server.getAttribute(addEdgeName, "Count")), "contagem por JMX");
+                check(Boolean.TRUE.equals(server.getAttribute(traversalName, "Enabled")), "Enabled por JMX");
+
+                GraphMetrics.reset();
+                check(GraphMetrics.get(GraphMetrics.Operation.ADD_EDGE).getCount() == 0, "reset não zerou");
+                check(traversal.getAnalyses() == 0, "reset não zerou a DFS");
+
+                // Depois de removido, o destino não recebe mais nada
+                GraphMetrics.removeSink(sink);
+                graph.addEdge(0, 3);
+                check(latencies.get(GraphMetrics.Operation.ADD_EDGE).get() == 3, "destino removido recebeu medição");
+                check(GraphMetrics.get(GraphMetrics.Operation.ADD_EDGE).getCount() == 1, "contagem depois do reset");
+            } finally {
+                GraphMetrics.removeSink(sink);
+                for (ObjectName name : server.queryNames(new ObjectName("org.yoaceng:type=GraphMetrics,*"), null)) {
+                    server.unregisterMBean(name);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Caminho v0 - v1 - ... - v(n - 1), com as arestas adicionadas pelo Graph.
+         */
+        static Graph path(int nodesQuantity) {
+            Graph graph = new Graph(false);
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addNode("v" + i);
+            }
+            for (int i = 1; i < nodesQuantity; i++) {
+                graph.addEdge(i - 1, i);
+            }
+            return graph;
+        }
+
+        private static void checkCount(GraphMetrics.Operation operation, long expected,
+                                       Map<GraphMetrics.Operation, AtomicLong> latencies) {
+            AtomicLong received = latencies.get(operation);
+            check((received == null ? 0 : received.get()) == expected, operation + " no destino: " + received);
+            check(GraphMetrics.get(operation).getCount() == expected,
+                    operation + ": " + GraphMetrics.get(operation).getCount());
+        }
+
+        private static void check(boolean condition, String message) {
+            if (!condition) {
+                throw new AssertionError(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.yoaceng;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Respostas calculadas da forma mais direta possível (remover o vértice ou a aresta e fazer
+ * uma busca em largura), usadas como referência nos testes dos algoritmos rápidos.
+ *
+ * @author Cayo Cutrim
+ */
+final class GraphOracle {
+
+    private GraphOracle() {
+    }
+
+    /**
+     * Grafo não dirigido com os vértices "v0" ... "v(n-1)" e arestas aleatórias,
+     * incluindo laços e arestas repetidas.
+     */
+    static Graph randomGraph(Random random, int nodesQuantity, int edges) {
+        Graph graph = new Graph(false);
+        for (int i = 0; i < nodesQuantity; i++) {
+            graph.addNode("v" + i);
+        }
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+        }
+        return graph;
+    }
+
+    /**
+     * @return Se existe um caminho entre a e b que não passa por removed (-1 = nenhum vértice removido).
+     * As arestas são percorridas no sentido em que estão guardadas.
+     */
+    static boolean isConnected(GraphStorage storage, int nodesQuantity, int a, int b, int removed) {
+        return isConnected(storage, nodesQuantity, a, b, removed, -1, -1);
+    }
+
+    /**
+     * @return Se existe um caminho entre a e b sem a aresta x - y (nos dois sentidos).
+     */
+    static boolean isConnectedWithoutEdge(GraphStorage storage, int nodesQuantity, int a, int b, int x, int y) {
+        return isConnected(storage, nodesQuantity, a, b, -1, x, y);
+    }
+
+    private static boolean isConnected(GraphStorage storage, int nodesQuantity, int a, int b, int removed,
+                                       int x, int y) {
+        if (a == removed || b == removed) {
+            return false;
+        }
+        boolean[] visited = new boolean[nodesQuantity];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        visited[a] = true;
+        queue.add(a);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (node == b) {
+                return true;
+            }
+            for (int e = storage.firstEdge(node); e != -1; e = storage.nextEdge(node, e)) {
+                int neighbor = storage.edgeTarget(node, e);
+                if ((node == x && neighbor == y) || (node == y && neighbor == x)) {
+                    continue;
+                }
+                if (neighbor != removed && !visited[neighbor]) {
+                    visited[neighbor] = true;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Uma aresta é ponte quando as suas pontas deixam de estar conectadas sem ela.
+     * @return As pontes como pares (menor, maior) codificados em long, em ordem crescente.
+     */
+    static long[] bridges(GraphStorage storage, int nodesQuantity) {
+        TreeSet<Long> bridges = new TreeSet<>();
+        for (int u = 0; u < nodesQuantity; u++) {
+            for (int e = storage.firstEdge(u); e != -1; e = storage.nextEdge(u, e)) {
+                int v = storage.edgeTarget(u, e);
+                if (u < v && !isConnectedWithoutEdge(storage, nodesQuantity, u, v, u, v)) {
+                    bridges.add(pair(u, v));
+                }
+            }
+        }
+        long[] result = new long[bridges.size()];
+        int i = 0;
+        for (long bridge : bridges) {
+            result[i++] = bridge;
+        }
+        return result;
+    }
+
+    /**
+     * Codifica a aresta u - v sem direção, com a menor ponta primeiro.
+     */
+    static long pair(int u, int v) {
+        return (long) Math.min(u, v) << 32 | Math.max(u, v);
+    }
+
+    /**
+     * Um vértice é articulação quando dois de seus vizinhos deixam de estar conectados sem ele.
+     * @return Os pontos de articulação em ordem crescente.
+     */
+    static int[] articulationPoints(GraphStorage storage, int nodesQuantity) {
+        IntList points = new IntList();
+        for (int node = 0; node < nodesQuantity; node++) {
+            int first = -1;
+            for (int e = storage.firstEdge(node); e != -1; e = storage.nextEdge(node, e)) {
+                int neighbor = storage.edgeTarget(node, e);
+                if (neighbor == node) {
+                    continue;
+                }
+                if (first == -1) {
+                    first = neighbor;
+                } else if (!isConnected(storage, nodesQuantity, first, neighbor, node)) {
+                    points.add(node);
+                    break;
+                }
+            }
+        }
+        return points.toArray();
+    }
+}
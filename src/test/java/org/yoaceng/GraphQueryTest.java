@@ -0,0 +1,144 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testes das consultas que devolvem valores em vez de imprimir (isAdjacent, forEachNeighbor,
+ * forEachEdge, getArticulationPoints) e dos métodos que imprimem, que têm que mostrar
+ * exatamente o que as consultas devolvem.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphQueryTest extends TestCase {
+    private PrintStream console;
+    private ByteArrayOutputStream output;
+
+    @Override
+    protected void setUp() throws UnsupportedEncodingException {
+        console = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, "UTF-8"));
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(console);
+    }
+
+    public void testAdjacenciaNosDoisTiposDeGrafo() {
+        Graph undirected = sample(false);
+        Graph driven = sample(true);
+        int a = undirected.getNodeIndex("A");
+        int b = undirected.getNodeIndex("B");
+        assertTrue(undirected.isAdjacent(a, b));
+        assertTrue(undirected.isAdjacent(b, a));
+        assertTrue(driven.isAdjacent(a, b));
+        assertFalse(driven.isAdjacent(b, a));
+
+        int e = undirected.getNodeIndex("E");
+        assertTrue(undirected.isAdjacent(e, e));
+        assertFalse(undirected.isAdjacent(a, e));
+    }
+
+    public void testVizinhosEArestasSemRepeticao() {
+        for (boolean isDriven : new boolean[] {false, true}) {
+            Graph graph = sample(isDriven);
+            for (int i = 0; i < graph.getNodes().size(); i++) {
+                List<Integer> neighbors = new ArrayList<>();
+                graph.forEachNeighbor(i, neighbors::add);
+                assertEquals(graph.outDegree(i), neighbors.size());
+                for (int neighbor : neighbors) {
+                    assertTrue(graph.isAdjacent(i, neighbor));
+                }
+            }
+
+            // Sem direção, cada aresta (inclusive o laço E - E) aparece uma vez, com origem <= destino
+            List<String> edges = new ArrayList<>();
+            graph.forEachEdge((origin, destiny) -> {
+                assertTrue(isDriven || origin <= destiny);
+                edges.add(graph.getNodeName(origin) + destiny);
+            });
+            assertEquals(6, edges.size());
+            assertEquals(6, edges.stream().distinct().count());
+        }
+    }
+
+    public void testArticulacoesComESemManutencaoIncremental() {
+        Graph graph = sample(false);
+        int[] expected = {graph.getNodeIndex("B"), graph.getNodeIndex("C"), graph.getNodeIndex("D")};
+        assertTrue(Arrays.equals(expected, graph.getArticulationPoints()));
+
+        graph.enableIncrementalArticulation();
+        assertTrue(Arrays.equals(expected, graph.getArticulationPoints()));
+        // O ciclo A - B - C - A tira B das articulações
+        graph.addEdge("C", "A");
+        expected = new int[] {graph.getNodeIndex("C"), graph.getNodeIndex("D")};
+        assertTrue(Arrays.equals(expected, graph.getArticulationPoints()));
+        assertTrue(Arrays.equals(expected, graph.analyzeBiconnectivity().getArticulationPoints()));
+    }
+
+    public void testMetodosQueImprimemUsamAsConsultas() {
+        Graph graph = sample(true);
+        graph.checkNodesAdjacency("A", "B");
+        graph.checkNodesAdjacency("B", "A");
+        graph.calculateNodeDegree("B");
+        graph.nodeNeighborsSearch("C");
+        graph.checkNodesAdjacency("A", "X");
+
+        String[] lines = printed();
+        assertEquals("Os vértices A e B são adjacentes", lines[0]);
+        assertEquals("Os vértices B e A não são adjacentes", lines[1]);
+        assertEquals("O grau de emissão do vértice B é: 1", lines[2]);
+        assertEquals("O grau de recepção do vértice B é: 1", lines[3]);
+        assertEquals("Vizinhos do vértice C: [D]", lines[4]);
+        assertTrue(lines[5].startsWith("O vértice informado não existe no grafo."));
+
+        Graph undirected = sample(false);
+        undirected.calculateNodeDegree("C");
+        undirected.findArticulationPoints();
+        lines = printed();
+        assertEquals("O grau do vértice C é: 2", lines[0]);
+        assertEquals("B é um vértice de articulação", lines[1]);
+        assertEquals("C é um vértice de articulação", lines[2]);
+        assertEquals("D é um vértice de articulação", lines[3]);
+        assertEquals(4, lines.length);
+    }
+
+    /**
+     * A -> B -> C -> D, com D -> E, D -> F e um laço em E.
+     */
+    private static Graph sample(boolean driven) {
+        Graph graph = new Graph(driven);
+        for (String node : new String[] {"A", "B", "C", "D", "E", "F"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("C", "D");
+        graph.addEdge("E", "E");
+        graph.addEdge("D", "E");
+        graph.addEdge("D", "F");
+        return graph;
+    }
+
+    /**
+     * As linhas impressas desde a última chamada.
+     */
+    private String[] printed() {
+        String text;
+        try {
+            text = output.toString("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+        output.reset();
+        return text.split("\\R");
+    }
+}
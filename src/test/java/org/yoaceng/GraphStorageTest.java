@@ -0,0 +1,224 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testes das estruturas de armazenamento: a mesma sequência de alterações aplicada
+ * em todas elas tem que dar as mesmas respostas de uma matriz de boolean.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphStorageTest extends TestCase {
+
+    public void testEstruturasIguaisAMatrizDeReferencia() {
+        Random random = new Random(31);
+        for (int round = 0; round < 40; round++) {
+            int nodesQuantity = 1 + random.nextInt(40);
+            GraphStorage[] storages = storages(nodesQuantity);
+            boolean[][] model = new boolean[nodesQuantity][nodesQuantity];
+
+            for (int step = 0; step < 4 * nodesQuantity; step++) {
+                int origin = random.nextInt(nodesQuantity);
+                int destiny = random.nextInt(nodesQuantity);
+                boolean add = random.nextInt(3) != 0;
+                for (GraphStorage storage : storages) {
+                    String name = storage.getClass().getSimpleName();
+                    if (add) {
+                        assertEquals(name, !model[origin][destiny], storage.addEdge(origin, destiny));
+                    } else {
+                        assertEquals(name, model[origin][destiny], storage.removeEdge(origin, destiny));
+                    }
+                }
+                model[origin][destiny] = add;
+            }
+            for (GraphStorage storage : storages) {
+                assertSameAsModel(storage, model);
+            }
+        }
+    }
+
+    public void testCsrMontadoDeUmaVez() {
+        // Arestas repetidas, laço e os dois sentidos da mesma aresta
+        EdgeList edges = new EdgeList();
+        int[][] pairs = {{0, 1}, {1, 0}, {0, 1}, {2, 2}, {3, 1}, {4, 0}, {4, 3}};
+        for (int[] pair : pairs) {
+            edges.add(pair[0], pair[1]);
+        }
+        boolean[][] undirected = new boolean[6][6];
+        boolean[][] driven = new boolean[6][6];
+        for (int[] pair : pairs) {
+            undirected[pair[0]][pair[1]] = undirected[pair[1]][pair[0]] = true;
+            driven[pair[0]][pair[1]] = true;
+        }
+        assertSameAsModel(CsrStorage.fromEdges(6, edges, false), undirected);
+        assertSameAsModel(CsrStorage.fromEdges(6, edges, true), driven);
+    }
+
+    public void testGrafoSobreCadaEstrutura() {
+        // Dois triângulos ligados pela ponte C - D, e F isolado
+        String[] names = {"A", "B", "C", "D", "E", "G", "F"};
+        String[][] edges = {{"A", "B"}, {"B", "C"}, {"C", "A"}, {"C", "D"}, {"D", "E"}, {"E", "G"}, {"G", "D"}};
+        for (GraphStorage storage : storages(names.length)) {
+            Graph graph = new Graph(false, storage);
+            for (String name : names) {
+                graph.addNode(name);
+            }
+            for (String[] edge : edges) {
+                graph.addEdge(edge[0], edge[1]);
+            }
+            String message = storage.getClass().getSimpleName();
+            assertTrue(message, Arrays.equals(new int[] {2, 3}, graph.getArticulationPoints()));
+            assertEquals(message, 3, graph.outDegree(graph.getNodeIndex("C")));
+            assertEquals(message, 0, graph.outDegree(graph.getNodeIndex("F")));
+            assertEquals(message, 14, graph.getStorage().edgeCount());
+
+            // Vértice novo além da capacidade inicial
+            graph.addNode("H");
+            graph.addEdge("H", "F");
+            assertTrue(message, graph.isAdjacent(graph.getNodeIndex("F"), graph.getNodeIndex("H")));
+            assertTrue(message, graph.getStorage().capacity() >= names.length + 1);
+        }
+    }
+
+    public void testEnsureCapacityPreservaAsArestas() {
+        Random random = new Random(32);
+        for (GraphStorage storage : storages(5)) {
+            boolean[][] model = new boolean[50][50];
+            for (int i = 0; i < 10; i++) {
+                int origin = random.nextInt(5);
+                int destiny = random.nextInt(5);
+                storage.addEdge(origin, destiny);
+                model[origin][destiny] = true;
+            }
+            storage.ensureCapacity(50);
+            assertTrue(storage.capacity() >= 50);
+            for (int i = 0; i < 30; i++) {
+                int origin = random.nextInt(50);
+                int destiny = random.nextInt(50);
+                storage.addEdge(origin, destiny);
+                model[origin][destiny] = true;
+            }
+            assertSameAsModel(storage, model);
+        }
+    }
+
+    public void testMatrizDeBitsNasFronteirasDasPalavras() {
+        Random random = new Random(33);
+        for (int nodesQuantity : new int[] {63, 64, 65, 130}) {
+            BitMatrixStorage storage = new BitMatrixStorage(nodesQuantity);
+            boolean[][] model = new boolean[nodesQuantity][nodesQuantity];
+            // Primeira e última coluna de cada palavra, mais algumas ao acaso
+            for (int i = 0; i < nodesQuantity; i++) {
+                for (int j : new int[] {0, 63, 64, 127, 128, nodesQuantity - 1}) {
+                    if (j < nodesQuantity) {
+                        storage.addEdge(i, j);
+                        model[i][j] = true;
+                    }
+                }
+                int j = random.nextInt(nodesQuantity);
+                storage.addEdge(i, j);
+                model[i][j] = true;
+            }
+            assertSameAsModel(storage, model);
+
+            storage.removeEdge(0, nodesQuantity - 1);
+            model[0][nodesQuantity - 1] = false;
+            assertSameAsModel(storage, model);
+        }
+    }
+
+    public void testMatrizDeBitsCresceParaMaisPalavras() {
+        // 60 colunas cabem em uma palavra; 130 precisam de três
+        BitMatrixStorage storage = new BitMatrixStorage(60);
+        boolean[][] model = new boolean[130][130];
+        for (int i = 0; i < 60; i++) {
+            storage.addEdge(i, 59 - i);
+            model[i][59 - i] = true;
+        }
+        storage.ensureCapacity(130);
+        assertTrue(storage.capacity() >= 130);
+        for (int i = 0; i < 130; i++) {
+            storage.addEdge(i, 129 - i);
+            model[i][129 - i] = true;
+        }
+        assertSameAsModel(storage, model);
+    }
+
+    public void testEscolhaDaEstruturaPelaDensidade() {
+        // 100 vértices: abaixo de 1/32 (312 arcos) fica CSR, acima vira matriz de bits
+        EdgeList sparse = new EdgeList();
+        EdgeList dense = new EdgeList();
+        boolean[][] sparseModel = new boolean[100][100];
+        boolean[][] denseModel = new boolean[100][100];
+        for (int i = 0; i < 100; i++) {
+            sparse.add(i, (i + 1) % 100);
+            sparseModel[i][(i + 1) % 100] = true;
+            for (int k = 1; k <= 5; k++) {
+                dense.add(i, (i + k) % 100);
+                denseModel[i][(i + k) % 100] = true;
+            }
+        }
+        GraphStorage fromSparse = GraphStorage.fromEdges(100, sparse, true);
+        GraphStorage fromDense = GraphStorage.fromEdges(100, dense, true);
+        assertTrue(fromSparse instanceof CsrStorage);
+        assertTrue(fromDense instanceof BitMatrixStorage);
+        assertSameAsModel(fromSparse, sparseModel);
+        assertSameAsModel(fromDense, denseModel);
+
+        // Sem direção cada aresta conta nos dois sentidos: 200 arestas são 400 arcos
+        EdgeList undirected = new EdgeList();
+        for (int i = 0; i < 200; i++) {
+            undirected.add(i % 100, (i * 7 + 3) % 100);
+        }
+        assertTrue(GraphStorage.fromEdges(100, undirected, false) instanceof BitMatrixStorage);
+        assertTrue(GraphStorage.fromEdges(0, new EdgeList(), false) instanceof CsrStorage);
+    }
+
+    /**
+     * Uma estrutura vazia de cada tipo, com a capacidade informada.
+     */
+    private static GraphStorage[] storages(int nodesQuantity) {
+        return new GraphStorage[] {
+            new AdjacencyMatrixStorage(nodesQuantity),
+            new BitMatrixStorage(nodesQuantity),
+            CsrStorage.fromEdges(nodesQuantity, new EdgeList(), true),
+            new AdjacencyListStorage(nodesQuantity)
+        };
+    }
+
+    /**
+     * Compara arestas, graus, contagem e a lista de vizinhos percorrida pelos cursores.
+     */
+    private static void assertSameAsModel(GraphStorage storage, boolean[][] model) {
+        String name = storage.getClass().getSimpleName();
+        int nodesQuantity = model.length;
+        int edges = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            int outDegree = 0;
+            int inDegree = 0;
+            for (int j = 0; j < nodesQuantity; j++) {
+                assertEquals(name + " " + i + " -> " + j, model[i][j], storage.hasEdge(i, j));
+                outDegree += model[i][j] ? 1 : 0;
+                inDegree += model[j][i] ? 1 : 0;
+            }
+            assertEquals(name, outDegree, storage.outDegree(i));
+            assertEquals(name, inDegree, storage.inDegree(i));
+            edges += outDegree;
+
+            boolean[] seen = new boolean[nodesQuantity];
+            int listed = 0;
+            for (int e = storage.firstEdge(i); e != -1; e = storage.nextEdge(i, e)) {
+                int target = storage.edgeTarget(i, e);
+                assertTrue(name, model[i][target]);
+                assertFalse(name + " vizinho repetido", seen[target]);
+                seen[target] = true;
+                listed++;
+            }
+            assertEquals(name, outDegree, listed);
+        }
+        assertEquals(name, edges, storage.edgeCount());
+    }
+}
@@ -0,0 +1,201 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testes das alterações e consultas do Graph.
+ *
+ * @author Cayo Cutrim
+ */
+public class GraphTest extends TestCase {
+
+    public void testAddNodeDepoisDeReorder() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addEdge("A", "B");
+        graph.reorder(VertexOrdering.Strategy.DEGREE);
+
+        graph.addNode("C");
+        graph.addEdge("B", "C");
+        int c = graph.getNodeIndex("C");
+        assertEquals(c, graph.getOriginalIndex(c));
+
+        graph.reorder(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE);
+        // Cada vértice continua apontando para o endereço que tinha antes da primeira renumeração
+        assertEquals(0, graph.getOriginalIndex(graph.getNodeIndex("A")));
+        assertEquals(1, graph.getOriginalIndex(graph.getNodeIndex("B")));
+        assertEquals(2, graph.getOriginalIndex(graph.getNodeIndex("C")));
+        assertTrue(graph.isAdjacent(graph.getNodeIndex("B"), graph.getNodeIndex("C")));
+        assertEquals(1, graph.getArticulationPoints().length);
+        assertEquals("B", graph.getNodeName(graph.getArticulationPoints()[0]));
+    }
+
+    public void testAddNodeDepoisDeReorderReaproveitaEnderecoLivre() {
+        Graph graph = new Graph(false);
+        for (String node : new String[] {"A", "B", "C", "D"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("C", "D");
+        graph.reorder(VertexOrdering.Strategy.BFS);
+        graph.removeNode("B");
+        graph.addNode("E");
+
+        int e = graph.getNodeIndex("E");
+        assertEquals(e, graph.getOriginalIndex(e));
+        graph.reorder(VertexOrdering.Strategy.DEGREE);
+        assertEquals(3, graph.getOriginalIndex(graph.getNodeIndex("D")));
+    }
+
+    public void testAddNodeExistenteNaoInvalidaOCache() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addNode("C");
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        QueryCache cache = graph.enableQueryCache(16);
+        graph.getArticulationPoints();
+        BlockCutTree tree = graph.getBlockCutTree();
+        long version = graph.getModificationCount();
+
+        graph.addNode("B");
+        assertEquals(version, graph.getModificationCount());
+        assertSame(tree, graph.getBlockCutTree());
+        graph.getArticulationPoints();
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getInvalidations());
+
+        graph.addNode("D");
+        assertEquals(version + 1, graph.getModificationCount());
+    }
+
+    public void testCacheDeConsultasAcompanhaAsAlteracoes() {
+        Graph graph = new Graph(false);
+        for (String node : new String[] {"A", "B", "C"}) {
+            graph.addNode(node);
+        }
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        QueryCache cache = graph.enableQueryCache(16);
+
+        assertEquals(1, graph.getArticulationPoints().length);
+        assertEquals(1, graph.getArticulationPoints().length);
+        assertEquals(1, cache.getHits());
+
+        graph.addEdge("A", "C");
+        assertEquals(0, graph.getArticulationPoints().length);
+        assertEquals(1, cache.getInvalidations());
+        graph.removeEdge("A", "C");
+        assertEquals(1, graph.getArticulationPoints().length);
+    }
+
+    public void testArestaComVerticeInexistente() {
+        Graph graph = new Graph(false);
+        graph.addNode("A");
+        graph.addNode("B");
+        try {
+            graph.addEdge("A", "X");
+            fail("Vértice inexistente aceito em addEdge");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("X"));
+        }
+        try {
+            graph.removeEdge("Y", "B");
+            fail("Vértice inexistente aceito em removeEdge");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Y"));
+        }
+        assertEquals(2, graph.getModificationCount());   // Apenas os dois addNode
+
+        // Consulta impressa: só informa, sem lançar exceção
+        graph.checkNodesAdjacency("A", "X");
+    }
+
+    public void testGrafoCarregadoTrocaOCsrNaPrimeiraAlteracao() throws IOException {
+        File file = File.createTempFile("grafo", ".txt");
+        try {
+            Random random = new Random(21);
+            Graph expected = new Graph(false);
+            try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+                writer.println("ND");
+                // Esparso o bastante para o carregador escolher o CSR
+                for (int i = 0; i < 1500; i++) {
+                    String origin = "v" + (i < 4 ? i : random.nextInt(1000));
+                    String destiny = "v" + (i < 4 ? i + 1 : random.nextInt(1000));
+                    writer.println(origin + ", " + destiny);
+                    expected.addNode(origin);
+                    expected.addNode(destiny);
+                    expected.addEdge(origin, destiny);
+                }
+            }
+            Graph loaded = new MappedEdgeListLoader().load(file.getPath());
+            assertTrue(loaded.getStorage() instanceof CsrStorage);
+
+            loaded.addEdge("v1", "v2");
+            expected.addEdge("v1", "v2");
+            assertTrue(loaded.getStorage() instanceof AdjacencyListStorage);
+            assertSameEdges(expected, loaded);
+
+            // As alterações seguintes continuam na lista de adjacência
+            for (int i = 0; i < 200; i++) {
+                String origin = expected.getNodeName(random.nextInt(expected.getNodes().size()));
+                String destiny = expected.getNodeName(random.nextInt(expected.getNodes().size()));
+                if (origin == null || destiny == null) {
+                    continue;
+                }
+                if (random.nextBoolean()) {
+                    loaded.addEdge(origin, destiny);
+                    expected.addEdge(origin, destiny);
+                } else {
+                    loaded.removeEdge(origin, destiny);
+                    expected.removeEdge(origin, destiny);
+                }
+            }
+            loaded.removeNode("v3");
+            expected.removeNode("v3");
+            loaded.addNode("novo");
+            expected.addNode("novo");
+            loaded.addEdge("novo", "v4");
+            expected.addEdge("novo", "v4");
+            assertTrue(loaded.getStorage() instanceof AdjacencyListStorage);
+            assertSameEdges(expected, loaded);
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testGrafoRenumeradoTrocaOCsrNaPrimeiraAlteracao() {
+        Graph graph = GraphOracle.randomGraph(new Random(22), 200, 300);
+        graph.reorder(VertexOrdering.Strategy.REVERSE_CUTHILL_MCKEE);
+        assertTrue(graph.getStorage() instanceof CsrStorage);
+        int edges = graph.getStorage().edgeCount();
+
+        graph.removeNode("v0");
+        assertTrue(graph.getStorage() instanceof AdjacencyListStorage);
+        graph.addNode("v0");
+        graph.addEdge("v0", "v1");
+        assertTrue(graph.isAdjacent(graph.getNodeIndex("v1"), graph.getNodeIndex("v0")));
+        assertTrue(graph.getStorage().edgeCount() <= edges + 2);
+        assertTrue(Arrays.equals(
+                GraphOracle.articulationPoints(graph.getStorage(), graph.getNodes().size()),
+                graph.getArticulationPoints()));
+    }
+
+    /**
+     * Compara as arestas pelos nomes, já que a numeração dos dois grafos pode ser diferente.
+     */
+    private static void assertSameEdges(Graph expected, Graph actual) {
+        assertEquals(expected.getStorage().edgeCount(), actual.getStorage().edgeCount());
+        expected.forEachEdge((origin, destiny) -> assertTrue(expected.getNodeName(origin) + " - "
+                + expected.getNodeName(destiny), actual.isAdjacent(actual.getNodeIndex(expected.getNodeName(origin)),
+                actual.getNodeIndex(expected.getNodeName(destiny)))));
+    }
+}
@@ -0,0 +1,107 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testes da manutenção incremental dos pontos de articulação: depois de cada aresta
+ * nova a resposta é comparada com uma análise feita do zero e com a remoção de cada vértice.
+ *
+ * @author Cayo Cutrim
+ */
+public class IncrementalBiconnectivityTest extends TestCase {
+
+    public void testArticulacoesDepoisDeCadaAresta() {
+        Random random = new Random(1);
+        for (int round = 0; round < 300; round++) {
+            int nodesQuantity = 1 + random.nextInt(30);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, 0);
+            graph.enableIncrementalArticulation();
+
+            int edges = random.nextInt(2 * nodesQuantity + 1);
+            for (int i = 0; i < edges; i++) {
+                graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+                assertArticulationPoints(graph);
+            }
+        }
+    }
+
+    public void testLigadoComArestasJaExistentes() {
+        Random random = new Random(2);
+        for (int round = 0; round < 200; round++) {
+            int nodesQuantity = 1 + random.nextInt(25);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, random.nextInt(2 * nodesQuantity));
+            graph.enableIncrementalArticulation();
+            assertArticulationPoints(graph);
+
+            // Vértices novos também são acompanhados
+            graph.addNode("novo");
+            int created = graph.getNodeIndex("novo");
+            graph.addEdge(created, random.nextInt(nodesQuantity));
+            assertArticulationPoints(graph);
+            graph.addEdge(created, random.nextInt(nodesQuantity));
+            assertArticulationPoints(graph);
+        }
+    }
+
+    public void testRemoveEdgeDesligaAManutencao() {
+        Random random = new Random(3);
+        for (int round = 0; round < 100; round++) {
+            int nodesQuantity = 2 + random.nextInt(20);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, 0);
+            graph.enableIncrementalArticulation();
+            for (int i = 0; i < 2 * nodesQuantity; i++) {
+                graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+            }
+
+            int origin = random.nextInt(nodesQuantity);
+            int destiny = random.nextInt(nodesQuantity);
+            graph.removeEdge(origin, destiny);
+            assertNull(graph.getIncrementalBiconnectivity());
+            assertArticulationPoints(graph);
+
+            // Religada, a estrutura parte das arestas que sobraram
+            graph.enableIncrementalArticulation();
+            assertArticulationPoints(graph);
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+                assertArticulationPoints(graph);
+            }
+        }
+    }
+
+    public void testReorderRemontaAManutencao() {
+        Random random = new Random(4);
+        VertexOrdering.Strategy[] strategies = VertexOrdering.Strategy.values();
+        for (int round = 0; round < 100; round++) {
+            int nodesQuantity = 1 + random.nextInt(25);
+            Graph graph = GraphOracle.randomGraph(random, nodesQuantity, 0);
+            graph.enableIncrementalArticulation();
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addEdge(random.nextInt(nodesQuantity), random.nextInt(nodesQuantity));
+            }
+
+            graph.reorder(strategies[round % strategies.length]);
+            assertNotNull(graph.getIncrementalBiconnectivity());
+            assertArticulationPoints(graph);
+            for (int i = 0; i < nodesQuantity; i++) {
+                graph.addEdge("v" + random.nextInt(nodesQuantity), "v" + random.nextInt(nodesQuantity));
+                assertArticulationPoints(graph);
+            }
+        }
+    }
+
+    private static void assertArticulationPoints(Graph graph) {
+        GraphStorage storage = graph.getStorage();
+        int nodesQuantity = graph.getNodes().size();
+        int[] expected = GraphOracle.articulationPoints(storage, nodesQuantity);
+        int[] fromScratch = new BiconnectivityAnalyzer().analyze(storage, nodesQuantity).getArticulationPoints();
+        int[] actual = graph.getArticulationPoints();
+        assertTrue("DFS: " + Arrays.toString(fromScratch) + " esperado: " + Arrays.toString(expected),
+                Arrays.equals(expected, fromScratch));
+        assertTrue("Incremental: " + Arrays.toString(actual) + " esperado: " + Arrays.toString(expected),
+                Arrays.equals(expected, actual));
+    }
+}
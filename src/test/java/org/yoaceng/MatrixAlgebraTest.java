@@ -0,0 +1,235 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Testes das operações sobre a matriz inteira, comparadas com versões diretas:
+ * busca em largura para o fecho, multiplicação ingênua para os caminhos e
+ * interseção das vizinhanças para os vizinhos em comum. Os tamanhos cruzam as
+ * fronteiras de 64 bits das palavras e dos blocos.
+ *
+ * @author Cayo Cutrim
+ */
+public class MatrixAlgebraTest extends TestCase {
+    private static final int[] SIZES = {1, 2, 63, 64, 65, 100, 128, 130, 200};
+
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void testFechoIgualABuscaEmLargura() {
+        Random random = new Random(17);
+        for (boolean driven : new boolean[] {false, true}) {
+            for (int nodesQuantity : SIZES) {
+                // Esparso (caminhos longos entre blocos) e denso
+                for (double density : new double[] {1.0 / nodesQuantity, 3.0 / nodesQuantity, 0.1}) {
+                    Graph graph = randomGraph(random, nodesQuantity, density, driven);
+                    assertClosure(graph);
+                }
+            }
+        }
+    }
+
+    public void testFechoDeCaminhoContraAOrdem() {
+        for (int nodesQuantity : SIZES) {
+            // n-1 -> n-2 -> ... -> 0: cada pivô só ajuda linhas de rodadas anteriores
+            Graph graph = emptyGraph(nodesQuantity, true);
+            for (int i = nodesQuantity - 1; i > 0; i--) {
+                graph.addEdge(i, i - 1);
+            }
+            assertClosure(graph);
+
+            // Fechado em ciclo, todos alcançam todos (inclusive a si mesmos)
+            graph.addEdge(0, nodesQuantity - 1);
+            BitMatrixStorage closure = MatrixAlgebra.transitiveClosure(graph.getStorage(), nodesQuantity, pool);
+            assertEquals(nodesQuantity * nodesQuantity, closure.edgeCount());
+            assertClosure(graph);
+        }
+    }
+
+    public void testContagemDeCaminhosIgualAMultiplicacaoIngenua() {
+        Random random = new Random(18);
+        for (boolean driven : new boolean[] {false, true}) {
+            for (int nodesQuantity : SIZES) {
+                Graph graph = randomGraph(random, nodesQuantity, 4.0 / nodesQuantity, driven);
+                long[][] adjacency = adjacency(graph.getStorage(), nodesQuantity);
+
+                long[][] expected = identity(nodesQuantity);
+                for (int k = 0; k <= 7; k++) {
+                    assertMatrixEquals("k = " + k, expected,
+                            MatrixAlgebra.pathCounts(graph.getStorage(), nodesQuantity, k, pool));
+                    expected = multiply(expected, adjacency);
+                }
+            }
+        }
+    }
+
+    public void testContagemDeCaminhosNegativa() {
+        Graph graph = emptyGraph(3, false);
+        try {
+            MatrixAlgebra.pathCounts(graph.getStorage(), 3, -1, pool);
+            fail("Quantidade negativa aceita");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+    }
+
+    public void testVizinhosEmComumIgualAInterseccao() {
+        Random random = new Random(19);
+        for (boolean driven : new boolean[] {false, true}) {
+            for (int nodesQuantity : SIZES) {
+                for (double density : new double[] {2.0 / nodesQuantity, 0.3}) {
+                    Graph graph = randomGraph(random, nodesQuantity, density, driven);
+                    GraphStorage storage = graph.getStorage();
+                    int[][] common = MatrixAlgebra.commonNeighbors(storage, nodesQuantity, pool);
+
+                    for (int i = 0; i < nodesQuantity; i++) {
+                        for (int j = 0; j < nodesQuantity; j++) {
+                            int expected = 0;
+                            for (int v = 0; v < nodesQuantity; v++) {
+                                if (storage.hasEdge(i, v) && storage.hasEdge(j, v)) {
+                                    expected++;
+                                }
+                            }
+                            assertEquals(i + ", " + j, expected, common[i][j]);
+                        }
+                        assertEquals(graph.outDegree(i), common[i][i]);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testMetodosDoGrafo() {
+        Graph graph = randomGraph(new Random(20), 70, 0.05, true);
+        GraphStorage storage = graph.getStorage();
+        BitMatrixStorage closure = graph.getTransitiveClosure();
+        boolean[][] reachable = reachability(storage, 70);
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 70; j++) {
+                assertEquals(reachable[i][j], closure.hasEdge(i, j));
+            }
+        }
+        long[][] adjacency = adjacency(storage, 70);
+        assertMatrixEquals("k = 3", multiply(multiply(adjacency, adjacency), adjacency), graph.countPaths(3));
+        int[][] common = graph.getCommonNeighborCounts();
+        assertEquals(graph.outDegree(5), common[5][5]);
+    }
+
+    private static Graph emptyGraph(int nodesQuantity, boolean driven) {
+        Graph graph = new Graph(driven);
+        for (int i = 0; i < nodesQuantity; i++) {
+            graph.addNode("v" + i);
+        }
+        return graph;
+    }
+
+    /**
+     * Cada par (incluindo laços) vira aresta com a probabilidade informada.
+     */
+    private static Graph randomGraph(Random random, int nodesQuantity, double density, boolean driven) {
+        Graph graph = emptyGraph(nodesQuantity, driven);
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int j = driven ? 0 : i; j < nodesQuantity; j++) {
+                if (random.nextDouble() < density) {
+                    graph.addEdge(i, j);
+                }
+            }
+        }
+        return graph;
+    }
+
+    private void assertClosure(Graph graph) {
+        int nodesQuantity = graph.getNodes().size();
+        boolean[][] expected = reachability(graph.getStorage(), nodesQuantity);
+        BitMatrixStorage closure = MatrixAlgebra.transitiveClosure(graph.getStorage(), nodesQuantity, pool);
+        int edges = 0;
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int j = 0; j < nodesQuantity; j++) {
+                assertEquals(i + " -> " + j, expected[i][j], closure.hasEdge(i, j));
+                if (expected[i][j]) {
+                    edges++;
+                }
+            }
+        }
+        assertEquals(edges, closure.edgeCount());
+    }
+
+    /**
+     * reachable[i][j]: existe caminho de 1 ou mais arestas de i até j (busca em largura
+     * a partir dos sucessores de i, então i só alcança a si mesmo se estiver em um ciclo).
+     */
+    private static boolean[][] reachability(GraphStorage storage, int nodesQuantity) {
+        boolean[][] reachable = new boolean[nodesQuantity][nodesQuantity];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int source = 0; source < nodesQuantity; source++) {
+            boolean[] visited = reachable[source];
+            queue.add(source);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int e = storage.firstEdge(node); e != -1; e = storage.nextEdge(node, e)) {
+                    int next = storage.edgeTarget(node, e);
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private static long[][] adjacency(GraphStorage storage, int nodesQuantity) {
+        long[][] adjacency = new long[nodesQuantity][nodesQuantity];
+        for (int i = 0; i < nodesQuantity; i++) {
+            for (int j = 0; j < nodesQuantity; j++) {
+                adjacency[i][j] = storage.hasEdge(i, j) ? 1 : 0;
+            }
+        }
+        return adjacency;
+    }
+
+    private static long[][] identity(int nodesQuantity) {
+        long[][] identity = new long[nodesQuantity][nodesQuantity];
+        for (int i = 0; i < nodesQuantity; i++) {
+            identity[i][i] = 1;
+        }
+        return identity;
+    }
+
+    private static long[][] multiply(long[][] a, long[][] b) {
+        int n = a.length;
+        long[][] c = new long[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                long sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += a[i][k] * b[k][j];
+                }
+                c[i][j] = sum;
+            }
+        }
+        return c;
+    }
+
+    private static void assertMatrixEquals(String message, long[][] expected, long[][] actual) {
+        assertEquals(message, expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(message + " [" + i + "][" + j + "]", expected[i][j], actual[i][j]);
+            }
+        }
+    }
+}
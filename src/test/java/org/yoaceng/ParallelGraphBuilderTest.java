@@ -0,0 +1,87 @@
+package org.yoaceng;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Testes da leitura paralela da lista de adjacência.
+ *
+ * @author Cayo Cutrim
+ */
+public class ParallelGraphBuilderTest extends TestCase {
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        // Digrafo com alguns MB, para que o arquivo seja dividido em vários blocos
+        file = File.createTempFile("adjacencia", ".txt");
+        Random random = new Random(42);
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("D");
+            for (int line = 0; line < 200_000; line++) {
+                writer.print("v" + random.nextInt(100_000) + ": ");
+                int neighbors = random.nextInt(3);
+                for (int i = 0; i < neighbors; i++) {
+                    writer.print((i == 0 ? "" : ", ") + "v" + random.nextInt(100_000));
+                }
+                writer.println();
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testNumeracaoNaoDependeDaQuantidadeDeThreads() throws IOException {
+        Graph sequential = load(1);
+        assertTrue(file.length() > 2 << 20);
+
+        for (int parallelism : new int[] {2, 4, 8}) {
+            Graph parallel = load(parallelism);
+            assertEquals(sequential.getNodes().size(), parallel.getNodes().size());
+            for (int i = 0; i < sequential.getNodes().size(); i++) {
+                assertEquals(sequential.getNodeName(i), parallel.getNodeName(i));
+            }
+            assertTrue(Arrays.equals(sequential.getArticulationPoints(), parallel.getArticulationPoints()));
+            assertTrue(Arrays.equals(sequential.getBridges(), parallel.getBridges()));
+        }
+    }
+
+    public void testIndicesSeguemAPrimeiraOcorrenciaNoArquivo() throws IOException {
+        File small = File.createTempFile("adjacencia", ".txt");
+        try {
+            try (PrintWriter writer = new PrintWriter(small, "UTF-8")) {
+                writer.println("ND");
+                writer.println("C: A, B");
+                writer.println("A: C");
+                writer.println("D: ");
+            }
+            Graph graph = new ParallelGraphBuilder(new ForkJoinPool(2)).loadAdjacencyList(small.getPath());
+            assertEquals("C", graph.getNodeName(0));
+            assertEquals("A", graph.getNodeName(1));
+            assertEquals("B", graph.getNodeName(2));
+            assertEquals("D", graph.getNodeName(3));
+            assertTrue(graph.isAdjacent(0, 2));
+            assertEquals(0, graph.outDegree(3));
+        } finally {
+            small.delete();
+        }
+    }
+
+    private Graph load(int parallelism) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new ParallelGraphBuilder(pool).loadAdjacencyList(file.getPath());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}